@@ -18,7 +18,7 @@ public class CorsConfig {
                         .allowedOrigins("http://localhost:8080", "http://localhost:5173", "http://127.0.0.1:8080", "http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD", "PATCH")
                         .allowedHeaders("*")
-                        .exposedHeaders("Authorization", "Content-Type")
+                        .exposedHeaders("Authorization", "Content-Type", "ETag")
                         .allowCredentials(true)
                         .maxAge(3600);
             }
@@ -9,6 +9,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class DataInitializer implements CommandLineRunner {
 
@@ -26,54 +28,56 @@ public class DataInitializer implements CommandLineRunner {
         // Force reload professional menu - clear existing food data
         foodRepository.deleteAll();
         
-        // Initialize with professional menu - categorized food items (prices in Indian Rupees)
-        
-        // Main Course
-        foodRepository.save(new Food("Butter Chicken", 349.00, "Tender chicken in rich tomato and butter curry sauce", "main-course"));
-        foodRepository.save(new Food("Tandoori Chicken", 459.00, "Marinated chicken grilled in traditional tandoor oven", "main-course"));
-        foodRepository.save(new Food("Fish Curry", 359.00, "Fresh fish cooked in coconut and spice curry", "main-course"));
-        foodRepository.save(new Food("Lamb Rogan Josh", 429.00, "Slow-cooked lamb in aromatic Kashmiri spices", "main-course"));
-        foodRepository.save(new Food("Classic Burger", 299.00, "Juicy beef patty with lettuce, tomato, onion, and special sauce", "main-course"));
-        foodRepository.save(new Food("Margherita Pizza", 399.00, "Fresh mozzarella, tomato sauce, and basil on thin crust", "main-course"));
-        foodRepository.save(new Food("BBQ Ribs", 499.00, "Slow-cooked pork ribs with smoky BBQ sauce", "main-course"));
-        foodRepository.save(new Food("Grilled Salmon", 549.00, "Fresh Atlantic salmon with herbs and lemon", "main-course"));
-            
+        // Initialize with professional menu - categorized food items (prices in paise, ₹349.00 = 34900)
+        // Saved in one saveAll so the inserts go out as JDBC batches
+        foodRepository.saveAll(List.of(
+            // Main Course
+            new Food("Butter Chicken", 34900, "Tender chicken in rich tomato and butter curry sauce", "main-course"),
+            new Food("Tandoori Chicken", 45900, "Marinated chicken grilled in traditional tandoor oven", "main-course"),
+            new Food("Fish Curry", 35900, "Fresh fish cooked in coconut and spice curry", "main-course"),
+            new Food("Lamb Rogan Josh", 42900, "Slow-cooked lamb in aromatic Kashmiri spices", "main-course"),
+            new Food("Classic Burger", 29900, "Juicy beef patty with lettuce, tomato, onion, and special sauce", "main-course"),
+            new Food("Margherita Pizza", 39900, "Fresh mozzarella, tomato sauce, and basil on thin crust", "main-course"),
+            new Food("BBQ Ribs", 49900, "Slow-cooked pork ribs with smoky BBQ sauce", "main-course"),
+            new Food("Grilled Salmon", 54900, "Fresh Atlantic salmon with herbs and lemon", "main-course"),
+
             // Rice Dishes
-            foodRepository.save(new Food("Chicken Biryani", 389.00, "Aromatic basmati rice with spiced chicken and saffron", "rice-dishes"));
-            foodRepository.save(new Food("Mutton Biryani", 449.00, "Fragrant basmati rice with tender mutton pieces", "rice-dishes"));
-            foodRepository.save(new Food("Vegetable Biryani", 299.00, "Mixed vegetables with basmati rice and aromatic spices", "rice-dishes"));
-            foodRepository.save(new Food("Hyderabadi Dum Biryani", 529.00, "Royal style slow-cooked biryani with authentic spices", "rice-dishes"));
-            foodRepository.save(new Food("Rajma Rice", 199.00, "Kidney bean curry served with steamed basmati rice", "rice-dishes"));
-            
+            new Food("Chicken Biryani", 38900, "Aromatic basmati rice with spiced chicken and saffron", "rice-dishes"),
+            new Food("Mutton Biryani", 44900, "Fragrant basmati rice with tender mutton pieces", "rice-dishes"),
+            new Food("Vegetable Biryani", 29900, "Mixed vegetables with basmati rice and aromatic spices", "rice-dishes"),
+            new Food("Hyderabadi Dum Biryani", 52900, "Royal style slow-cooked biryani with authentic spices", "rice-dishes"),
+            new Food("Rajma Rice", 19900, "Kidney bean curry served with steamed basmati rice", "rice-dishes"),
+
             // Curries & Gravies
-            foodRepository.save(new Food("Dal Makhani", 259.00, "Rich black lentils cooked in butter and cream", "curries"));
-            foodRepository.save(new Food("Palak Paneer", 279.00, "Cottage cheese cubes in creamy spinach curry", "curries"));
-            foodRepository.save(new Food("Aloo Gobi", 189.00, "Dry curry of potatoes and cauliflower with spices", "curries"));
-            foodRepository.save(new Food("Paneer Butter Masala", 319.00, "Cottage cheese in rich tomato-based gravy", "curries"));
-            foodRepository.save(new Food("Chole Bhature", 179.00, "Spicy chickpeas with fluffy fried bread", "curries"));
-            
+            new Food("Dal Makhani", 25900, "Rich black lentils cooked in butter and cream", "curries"),
+            new Food("Palak Paneer", 27900, "Cottage cheese cubes in creamy spinach curry", "curries"),
+            new Food("Aloo Gobi", 18900, "Dry curry of potatoes and cauliflower with spices", "curries"),
+            new Food("Paneer Butter Masala", 31900, "Cottage cheese in rich tomato-based gravy", "curries"),
+            new Food("Chole Bhature", 17900, "Spicy chickpeas with fluffy fried bread", "curries"),
+
             // Appetizers
-            foodRepository.save(new Food("Paneer Tikka", 299.00, "Grilled cottage cheese cubes with Indian spices", "appetizers"));
-            foodRepository.save(new Food("Chicken Wings", 279.00, "Spicy buffalo wings served with blue cheese dip", "appetizers"));
-            foodRepository.save(new Food("Samosa (4 pcs)", 119.00, "Crispy triangular pastry with spiced potato filling", "appetizers"));
-            foodRepository.save(new Food("Spring Rolls (6 pcs)", 159.00, "Crispy vegetable spring rolls with sweet chili sauce", "appetizers"));
-            foodRepository.save(new Food("Chicken Caesar Salad", 249.00, "Crisp romaine lettuce with grilled chicken and parmesan", "appetizers"));
-            foodRepository.save(new Food("Masala Dosa", 149.00, "Crispy crepe with spiced potato filling", "appetizers"));
-            
+            new Food("Paneer Tikka", 29900, "Grilled cottage cheese cubes with Indian spices", "appetizers"),
+            new Food("Chicken Wings", 27900, "Spicy buffalo wings served with blue cheese dip", "appetizers"),
+            new Food("Samosa (4 pcs)", 11900, "Crispy triangular pastry with spiced potato filling", "appetizers"),
+            new Food("Spring Rolls (6 pcs)", 15900, "Crispy vegetable spring rolls with sweet chili sauce", "appetizers"),
+            new Food("Chicken Caesar Salad", 24900, "Crisp romaine lettuce with grilled chicken and parmesan", "appetizers"),
+            new Food("Masala Dosa", 14900, "Crispy crepe with spiced potato filling", "appetizers"),
+
             // Beverages
-            foodRepository.save(new Food("Fresh Lime Soda", 79.00, "Refreshing lime drink with mint and soda", "beverages"));
-            foodRepository.save(new Food("Mango Lassi", 89.00, "Sweet yogurt drink with fresh mango", "beverages"));
-            foodRepository.save(new Food("Masala Chai", 49.00, "Traditional spiced tea with milk", "beverages"));
-            foodRepository.save(new Food("Cold Coffee", 99.00, "Iced coffee with milk and ice cream", "beverages"));
-            foodRepository.save(new Food("Fresh Juice", 79.00, "Seasonal fresh fruit juice", "beverages"));
-            
+            new Food("Fresh Lime Soda", 7900, "Refreshing lime drink with mint and soda", "beverages"),
+            new Food("Mango Lassi", 8900, "Sweet yogurt drink with fresh mango", "beverages"),
+            new Food("Masala Chai", 4900, "Traditional spiced tea with milk", "beverages"),
+            new Food("Cold Coffee", 9900, "Iced coffee with milk and ice cream", "beverages"),
+            new Food("Fresh Juice", 7900, "Seasonal fresh fruit juice", "beverages"),
+
             // Desserts
-            foodRepository.save(new Food("Gulab Jamun (4 pcs)", 129.00, "Sweet milk dumplings in sugar syrup", "desserts"));
-            foodRepository.save(new Food("Chocolate Brownie", 149.00, "Rich chocolate brownie with vanilla ice cream", "desserts"));
-            foodRepository.save(new Food("Ras Malai (3 pcs)", 159.00, "Soft cottage cheese dumplings in sweetened milk", "desserts"));
-            foodRepository.save(new Food("Ice Cream Sundae", 119.00, "Three scoops with chocolate sauce and nuts", "desserts"));
-            foodRepository.save(new Food("Kulfi Falooda", 139.00, "Traditional ice cream with vermicelli and rose syrup", "desserts"));
-            
+            new Food("Gulab Jamun (4 pcs)", 12900, "Sweet milk dumplings in sugar syrup", "desserts"),
+            new Food("Chocolate Brownie", 14900, "Rich chocolate brownie with vanilla ice cream", "desserts"),
+            new Food("Ras Malai (3 pcs)", 15900, "Soft cottage cheese dumplings in sweetened milk", "desserts"),
+            new Food("Ice Cream Sundae", 11900, "Three scoops with chocolate sauce and nuts", "desserts"),
+            new Food("Kulfi Falooda", 13900, "Traditional ice cream with vermicelli and rose syrup", "desserts")
+        ));
+
             System.out.println("Professional menu initialized successfully with 32+ categorized dishes!");
         
         // Create default admin user if no admin exists
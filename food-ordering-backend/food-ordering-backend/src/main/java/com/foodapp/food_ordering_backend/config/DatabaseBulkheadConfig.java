@@ -0,0 +1,150 @@
+package com.foodapp.food_ordering_backend.config;
+
+import com.foodapp.food_ordering_backend.service.DatabaseBulkhead;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hooks DatabaseBulkhead into Spring MVC (to put each request in its route class once the handler and the
+ * caller's role are known) and around the DataSource (to take a permit per connection opened).
+ * Only registered when the bulkhead is on (same default as DatabaseBulkhead), so otherwise connections come
+ * straight from the pool, unwrapped.
+ */
+@Configuration
+@ConditionalOnExpression("${bulkhead.enabled:${spring.threads.virtual.enabled:false}}")
+public class DatabaseBulkheadConfig {
+
+    @Bean
+    public WebMvcConfigurer databaseBulkheadRoutes(DatabaseBulkhead bulkhead) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new AsyncHandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                             @NonNull Object handler) {
+                        boolean admin = SecurityRoles.isCurrentUserAdmin();
+                        bulkhead.enter(DatabaseBulkhead.classify(request.getMethod(),
+                                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), admin));
+                        return true;
+                    }
+
+                    @Override
+                    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                                               @NonNull HttpServletResponse response, @NonNull Object handler) {
+                        bulkhead.exit();
+                    }
+
+                    @Override
+                    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                                @NonNull Object handler, @Nullable Exception ex) {
+                        bulkhead.exit();
+                    }
+                });
+            }
+        };
+    }
+
+    // Static and lazy so post-processing the DataSource doesn't pull the bulkhead (and its config) in early
+    @Bean
+    public static BeanPostProcessor databaseBulkheadDataSource(ObjectProvider<DatabaseBulkhead> bulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, bulkhead);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static final class BulkheadDataSource extends DelegatingDataSource {
+
+        private final ObjectProvider<DatabaseBulkhead> bulkhead;
+
+        BulkheadDataSource(DataSource target, ObjectProvider<DatabaseBulkhead> bulkhead) {
+            super(target);
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        @NonNull
+        public Connection getConnection() throws SQLException {
+            DatabaseBulkhead.Permit permit = bulkhead.getObject().acquire();
+            if (permit == DatabaseBulkhead.Permit.NONE) {
+                return super.getConnection();
+            }
+            try {
+                return releasing(super.getConnection(), permit);
+            } catch (SQLException | RuntimeException e) {
+                permit.close();
+                throw e;
+            }
+        }
+
+        @Override
+        @NonNull
+        public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+            DatabaseBulkhead.Permit permit = bulkhead.getObject().acquire();
+            if (permit == DatabaseBulkhead.Permit.NONE) {
+                return super.getConnection(username, password);
+            }
+            try {
+                return releasing(super.getConnection(username, password), permit);
+            } catch (SQLException | RuntimeException e) {
+                permit.close();
+                throw e;
+            }
+        }
+
+        // Gives this connection's share of the permit back the first time it is closed (i.e. returned to the pool),
+        // on whichever thread closes it
+        private static Connection releasing(Connection connection, DatabaseBulkhead.Permit permit) {
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("equals".equals(method.getName())) {
+                            return proxy == args[0];
+                        }
+                        if ("hashCode".equals(method.getName())) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if ("close".equals(method.getName())) {
+                            try {
+                                connection.close();
+                            } finally {
+                                if (closed.compareAndSet(false, true)) {
+                                    permit.close();
+                                }
+                            }
+                            return null;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
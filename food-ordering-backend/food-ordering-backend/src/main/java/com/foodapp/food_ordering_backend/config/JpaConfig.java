@@ -0,0 +1,13 @@
+package com.foodapp.food_ordering_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Loads the persistence defaults that every environment should share.
+ * application.properties is per-machine (and not committed), so anything set there still wins.
+ */
+@Configuration
+@PropertySource("classpath:persistence.properties")
+public class JpaConfig {
+}
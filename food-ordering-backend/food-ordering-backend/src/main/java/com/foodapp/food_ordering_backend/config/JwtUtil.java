@@ -1,5 +1,6 @@
 package com.foodapp.food_ordering_backend.config;
 
+import com.foodapp.food_ordering_backend.service.SegmentedLruCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
@@ -14,17 +15,78 @@ import java.util.function.Function;
 public class JwtUtil {
     private final String SECRET_KEY = "mysecretkeymysecretkeymysecretkeymysecretkey"; // 256-bit
     private final long JWT_EXPIRATION = 1000 * 60 * 60 * 10; // 10 hours
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    // Built once - the HMAC key and parser are immutable and thread-safe
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
+    // Recently verified tokens, so repeat requests from the same session skip signature checks.
+    // Least recently used tokens are dropped first once it is full; null when the cache is disabled
+    private final SegmentedLruCache<String, VerifiedToken> cache;
+
+    /**
+     * Immutable view of a token whose signature and expiry have been checked.
+     */
+    public record VerifiedToken(String username, String role, long expiresAtMillis) {
+        public boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    public JwtUtil() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    // cacheSize 0 disables the verified-token cache
+    public JwtUtil(int cacheSize) {
+        this.cache = cacheSize > 0 ? new SegmentedLruCache<>(cacheSize) : null;
+    }
 
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signingKey;
+    }
+
+    /**
+     * Parse and verify a token once, returning its claims.
+     * Throws a JwtException if the token is malformed, forged or expired.
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = cached(token, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration().getTime());
+        remember(token, verified);
+        return verified;
+    }
+
+    // The cached verification of this token, dropping it if it has expired since
+    VerifiedToken cached(String token, long now) {
+        if (cache == null) {
+            return null;
+        }
+        return cache.compute(token, (key, cached) -> cached != null && cached.isExpired(now) ? null : cached);
+    }
+
+    private void remember(String token, VerifiedToken verified) {
+        if (cache != null) {
+            cache.put(token, verified);
+        }
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return new Date(verify(token).expiresAtMillis());
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -33,17 +95,11 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     public String generateToken(String username, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
@@ -61,12 +117,11 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        final VerifiedToken verified = verify(token);
+        return (verified.username().equals(username) && !verified.isExpired(System.currentTimeMillis()));
     }
 
     public String extractRole(String token) {
-        final Claims claims = extractAllClaims(token);
-        return claims.get("role", String.class);
+        return verify(token).role();
     }
 }
@@ -0,0 +1,58 @@
+package com.foodapp.food_ordering_backend.config;
+
+import com.foodapp.food_ordering_backend.service.OrderAdmissionControl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts OrderAdmissionControl in front of the order write handlers: admits (or refuses with a 503) once the
+ * route and the caller's role are known, and reports how long the write took and whether it failed.
+ */
+@Configuration
+public class OrderAdmissionConfig {
+
+    private static final String TICKET_ATTRIBUTE = OrderAdmissionConfig.class.getName() + ".ticket";
+
+    @Bean
+    public WebMvcConfigurer orderAdmissionRoutes(OrderAdmissionControl admission) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                             @NonNull Object handler) {
+                        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                        if (!OrderAdmissionControl.isOrderWrite(request.getMethod(), pattern)) {
+                            return true;
+                        }
+                        boolean admin = SecurityRoles.isCurrentUserAdmin();
+                        // Throws ServiceOverloadedException when over the limit, answered as 503 by the exception handler
+                        OrderAdmissionControl.Ticket ticket = admission.admit(admin);
+                        if (ticket != null) {
+                            request.setAttribute(TICKET_ATTRIBUTE, ticket);
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                                @NonNull Object handler, @Nullable Exception ex) {
+                        if (request.getAttribute(TICKET_ATTRIBUTE) instanceof OrderAdmissionControl.Ticket ticket) {
+                            request.removeAttribute(TICKET_ATTRIBUTE);
+                            admission.complete(ticket, ex != null || response.getStatus() >= 500);
+                        }
+                    }
+                });
+            }
+        };
+    }
+}
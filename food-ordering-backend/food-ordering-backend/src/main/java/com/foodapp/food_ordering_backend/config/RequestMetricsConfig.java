@@ -0,0 +1,60 @@
+package com.foodapp.food_ordering_backend.config;
+
+import com.foodapp.food_ordering_backend.service.RequestMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.Interceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Hooks RequestMetrics into Spring MVC (to learn each request's route) and into Hibernate (to count the
+ * statements it prepares and the entities it loads). Both hooks only bump a counter on the current thread,
+ * unlike spring.jpa.show-sql, which formats and logs every statement.
+ */
+@Configuration
+public class RequestMetricsConfig {
+
+    @Bean
+    public WebMvcConfigurer requestMetricsRoutes(RequestMetrics requestMetrics) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                             @NonNull Object handler) {
+                        requestMetrics.routeMatched((String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+                        return true;
+                    }
+                });
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestMetricsHibernateHooks(RequestMetrics requestMetrics) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                requestMetrics.statementPrepared();
+                return sql;
+            });
+            properties.put(AvailableSettings.INTERCEPTOR, new Interceptor() {
+                @Override
+                public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+                    requestMetrics.entityLoaded();
+                    return false;
+                }
+            });
+        };
+    }
+}
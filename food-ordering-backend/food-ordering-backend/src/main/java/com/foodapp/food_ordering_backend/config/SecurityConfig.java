@@ -32,10 +32,13 @@ public class SecurityConfig {
                 .requestMatchers("/static/**", "/css/**", "/js/**", "/favicon.ico").permitAll()
                 .requestMatchers("/", "/index.html", "/login.html", "/register.html").permitAll()
                 // Public API endpoints
-                .requestMatchers("/foods", "/foods/{id}").permitAll()
+                .requestMatchers("/foods", "/foods/search", "/foods/{id}").permitAll()
                 // Admin-only endpoints
                 .requestMatchers("/api/admin/**", "/foods/{id}/can-delete", "/foods/{id}/order-status").hasRole("ADMIN")
                 .requestMatchers("/users/**").hasRole("ADMIN")
+                .requestMatchers("/orders/export", "/orders/revenue", "/orders/stats", "/orders/stats/reconcile", "/orders/flow",
+                        "/orders/{id}/transition").hasRole("ADMIN")
+                .requestMatchers("/kitchen/**").hasRole("ADMIN")
                 // Protected endpoints requiring authentication
                 .requestMatchers("/api/**", "/orders/**").authenticated()
                 // Allow all other requests for now (can be restricted later)
@@ -0,0 +1,26 @@
+package com.foodapp.food_ordering_backend.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Role checks for code that needs to know who is calling outside of SecurityConfig's route rules.
+ */
+public final class SecurityRoles {
+
+    private static final String ADMIN = "ROLE_ADMIN";
+
+    private SecurityRoles() {
+    }
+
+    /** Whether the caller holds ROLE_ADMIN; false when nobody is logged in. */
+    public static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN.equals(authority.getAuthority()));
+    }
+
+    /** isAdmin for the authentication of the current request. */
+    public static boolean isCurrentUserAdmin() {
+        return isAdmin(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
@@ -0,0 +1,48 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.foodapp.food_ordering_backend.dto.ConcurrencyReport;
+import com.foodapp.food_ordering_backend.service.DatabaseBulkhead;
+import com.foodapp.food_ordering_backend.service.OrderAdmissionControl;
+import com.foodapp.food_ordering_backend.service.RequestMetrics;
+import com.foodapp.food_ordering_backend.service.VirtualThreadPinningMonitor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminMetricsController {
+
+    // Prometheus text exposition format; scrapers negotiate on this exact content type
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    private final RequestMetrics requestMetrics;
+    private final DatabaseBulkhead databaseBulkhead;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final OrderAdmissionControl orderAdmissionControl;
+
+    public AdminMetricsController(RequestMetrics requestMetrics, DatabaseBulkhead databaseBulkhead,
+                                  VirtualThreadPinningMonitor pinningMonitor, OrderAdmissionControl orderAdmissionControl) {
+        this.requestMetrics = requestMetrics;
+        this.databaseBulkhead = databaseBulkhead;
+        this.pinningMonitor = pinningMonitor;
+        this.orderAdmissionControl = orderAdmissionControl;
+    }
+
+    //  Per-route latency, status, in-flight and SQL statement metrics for Prometheus (ADMIN ONLY)
+    @GetMapping("/metrics")
+    public ResponseEntity<String> getMetrics() {
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(requestMetrics.scrape());
+    }
+
+    //  Request threading mode, database bulkhead usage per route class, virtual-thread pinning sites and the
+    //  order write admission limit (ADMIN ONLY)
+    @GetMapping("/concurrency")
+    public ConcurrencyReport getConcurrency() {
+        return new ConcurrencyReport(System.currentTimeMillis(),
+                pinningMonitor.isVirtualThreads() ? "virtual" : "platform",
+                databaseBulkhead.report(), pinningMonitor.report(), orderAdmissionControl.report());
+    }
+}
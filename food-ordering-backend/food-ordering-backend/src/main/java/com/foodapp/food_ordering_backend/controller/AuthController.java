@@ -3,11 +3,14 @@ package com.foodapp.food_ordering_backend.controller;
 import com.foodapp.food_ordering_backend.config.JwtUtil;
 import com.foodapp.food_ordering_backend.model.User;
 import com.foodapp.food_ordering_backend.repository.UserRepository;
+import com.foodapp.food_ordering_backend.service.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,6 +29,8 @@ public class AuthController {
 	private PasswordEncoder passwordEncoder;
 	@Autowired
 	private AuthenticationManager authenticationManager;
+	@Autowired
+	private UserPrincipalCache userPrincipalCache;
 
 	@PostMapping("/register")
 	public ResponseEntity<?> register(@RequestBody User user) {
@@ -42,24 +47,32 @@ public class AuthController {
 		
 		user.setPassword(passwordEncoder.encode(user.getPassword()));
 		userRepository.save(user);
+		userPrincipalCache.evict(user.getUsername());
 		return ResponseEntity.ok(Map.of("message", "User registered successfully"));
 	}
 
 	@PostMapping("/login")
 	public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest) {
 		try {
-			authenticationManager.authenticate(
+			Authentication authentication = authenticationManager.authenticate(
 					new UsernamePasswordAuthenticationToken(
 							loginRequest.get("username"),
 							loginRequest.get("password")
 					)
 			);
-			User user = userRepository.findByUsername(loginRequest.get("username")).orElseThrow();
-			String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+			// The authenticated principal already carries the role - no second user lookup
+			String username = authentication.getName();
+			String role = authentication.getAuthorities().stream()
+					.map(GrantedAuthority::getAuthority)
+					.filter(authority -> authority.startsWith("ROLE_"))
+					.map(authority -> authority.substring("ROLE_".length()))
+					.findFirst()
+					.orElse(null);
+			String token = jwtUtil.generateToken(username, role);
 			Map<String, Object> response = new HashMap<>();
 			response.put("token", token);
-			response.put("role", user.getRole());
-			response.put("username", user.getUsername());
+			response.put("role", role);
+			response.put("username", username);
 			return ResponseEntity.ok(response);
 		} catch (AuthenticationException e) {
 			return ResponseEntity.status(401).body(Map.of("error", "Invalid username or password"));
@@ -72,13 +85,9 @@ public class AuthController {
 		try {
 			// Extract and validate JWT token
 			String jwtToken = token.replace("Bearer ", "");
-			String currentUsername = jwtUtil.extractUsername(jwtToken);
-			
-			// Verify the current user is an admin
-			User currentUser = userRepository.findByUsername(currentUsername)
-				.orElseThrow(() -> new RuntimeException("User not found"));
 			
-			if (!"ADMIN".equals(currentUser.getRole())) {
+			// Verify the current user is an admin (from the signed role claim)
+			if (!"ADMIN".equals(jwtUtil.verify(jwtToken).role())) {
 				return ResponseEntity.status(403).body(Map.of("error", "Only admins can create admin accounts"));
 			}
 			
@@ -94,6 +103,7 @@ public class AuthController {
 			adminUser.setRole("ADMIN");
 			adminUser.setPassword(passwordEncoder.encode(adminUser.getPassword()));
 			userRepository.save(adminUser);
+			userPrincipalCache.evict(adminUser.getUsername());
 			
 			return ResponseEntity.ok(Map.of("message", "Admin user created successfully"));
 			
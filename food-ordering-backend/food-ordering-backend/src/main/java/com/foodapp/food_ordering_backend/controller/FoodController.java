@@ -1,14 +1,21 @@
 package com.foodapp.food_ordering_backend.controller;
 
 import com.foodapp.food_ordering_backend.config.JwtUtil;
+import com.foodapp.food_ordering_backend.dto.MenuSearchResult;
+import com.foodapp.food_ordering_backend.service.MenuCatalog;
 import com.foodapp.food_ordering_backend.model.Food;
-import com.foodapp.food_ordering_backend.model.OrderStatus;
-import com.foodapp.food_ordering_backend.model.User;
 import com.foodapp.food_ordering_backend.repository.FoodRepository;
 import com.foodapp.food_ordering_backend.repository.OrderItemRepository;
-import com.foodapp.food_ordering_backend.repository.UserRepository;
+import com.foodapp.food_ordering_backend.service.ActiveOrderIndex;
+import com.foodapp.food_ordering_backend.service.MenuSnapshot;
+import com.foodapp.food_ordering_backend.service.MenuSnapshotService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -18,13 +25,17 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Arrays;
 
 @RestController
 @RequestMapping("/foods")
 
 public class FoodController {
 
+    private static final int MAX_ORDER_STATUS_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int DEFAULT_MENU_PAGE_SIZE = 50;
+    private static final int MAX_MENU_PAGE_SIZE = 200;
+
     @Autowired
     private FoodRepository foodRepository;
     
@@ -35,7 +46,10 @@ public class FoodController {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private UserRepository userRepository;
+    private MenuSnapshotService menuSnapshotService;
+    
+    @Autowired
+    private ActiveOrderIndex activeOrderIndex;
 
     // Helper method to validate admin access
     private ResponseEntity<?> validateAdminAccess(String authHeader) {
@@ -45,12 +59,11 @@ public class FoodController {
         }
         
         try {
+            // The role claim is signed, so it can be trusted without a user lookup
             String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
-            User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            String role = jwtUtil.verify(token).role();
             
-            if (!"ADMIN".equals(user.getRole())) {
+            if (!"ADMIN".equals(role)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "Admin access required to manage menu items"));
             }
@@ -69,13 +82,72 @@ public class FoodController {
         if (authCheck != null) return authCheck;
         
         Food saved = foodRepository.save(food);
+        menuSnapshotService.foodSaved(saved);
         return ResponseEntity.ok(saved);
     }
 
-    // Get all food items
+    // Get all food items - served from the in-memory menu snapshot, pre-serialized and pre-compressed.
+    // With a category, price range (paise, inclusive), sort or page, answers one page plus facet counts instead
     @GetMapping
-    public List<Food> getAllFoods() {
-        return foodRepository.findAll();
+    public ResponseEntity<?> getAllFoods(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long minPrice,
+            @RequestParam(required = false) Long maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        MenuSnapshot snapshot = menuSnapshotService.current();
+        if (category != null || minPrice != null || maxPrice != null || sort != null || page != null || size != null) {
+            return browseFoods(snapshot, category, minPrice, maxPrice, sort, page, size);
+        }
+        boolean gzip = MenuSnapshot.acceptsGzip(acceptEncoding);
+        String etag = snapshot.getEtag(gzip);
+
+        if (snapshot.matches(ifNoneMatch, gzip)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzipJson());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    private ResponseEntity<?> browseFoods(MenuSnapshot snapshot, String category, Long minPrice, Long maxPrice,
+                                          String sort, Integer page, Integer size) {
+        long min = minPrice != null ? minPrice : 0;
+        long max = maxPrice != null ? maxPrice : Long.MAX_VALUE;
+        if (min < 0 || min > max) {
+            return ResponseEntity.badRequest().body(Map.of("error", "minPrice and maxPrice must satisfy 0 <= minPrice <= maxPrice"));
+        }
+        MenuCatalog.Sort order;
+        try {
+            order = MenuCatalog.Sort.parse(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(snapshot.getCatalog().browse(
+                category == null || category.isBlank() ? null : category, min, max, order,
+                page != null ? Math.max(page, 0) : 0,
+                size != null ? Math.min(Math.max(size, 1), MAX_MENU_PAGE_SIZE) : DEFAULT_MENU_PAGE_SIZE));
+    }
+
+    // Full-text search over name, category and description, with prefix and typo matching, best matches first
+    @GetMapping("/search")
+    public MenuSearchResult searchFoods(@RequestParam("q") String query,
+                                       @RequestParam(defaultValue = "20") int limit) {
+        return menuSnapshotService.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
     }
 
     //Get food by id
@@ -95,12 +167,14 @@ public class FoodController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
         
-        List<OrderStatus> activeStatuses = Arrays.asList(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
-        boolean hasActiveOrders = orderItemRepository.existsByFoodIdAndOrderActive(id, activeStatuses);
-        boolean hasAnyOrders = orderItemRepository.existsByFoodId(id);
+        // Active quantities come from the in-memory index; order history is only looked up when there are none
+        long activeQuantity = activeOrderIndex.activeQuantity(id);
+        boolean hasActiveOrders = activeQuantity > 0;
+        boolean hasAnyOrders = hasActiveOrders || orderItemRepository.existsByFoodId(id);
         
         Map<String, Object> response = new HashMap<>();
         response.put("canDelete", !hasActiveOrders);
+        response.put("activeQuantity", activeQuantity);
         response.put("hasAnyOrders", hasAnyOrders);
         response.put("hasActiveOrders", hasActiveOrders);
         
@@ -115,24 +189,30 @@ public class FoodController {
         return ResponseEntity.ok(response);
     }
     
-    // Debug endpoint to check order statuses for a food item
+    // Debug endpoint to check order statuses for a food item, one page at a time (newest orders first)
     @GetMapping("/{id}/order-status")
-    public ResponseEntity<Map<String, Object>> getFoodOrderStatus(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> getFoodOrderStatus(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "50") int size) {
         Map<String, Object> response = new HashMap<>();
         
-        // Get all order items for this food
-        var allOrderItems = orderItemRepository.findAll().stream()
-            .filter(oi -> oi.getFood().getId().equals(id))
-            .map(oi -> Map.of(
-                "orderId", oi.getOrder().getId(),
-                "status", oi.getOrder().getStatus().toString(),
-                "customerName", oi.getOrder().getCustomerName()
+        Page<OrderItemRepository.FoodOrderRow> rows = orderItemRepository.findOrdersByFoodId(id,
+                PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_ORDER_STATUS_PAGE_SIZE)));
+        var orderItems = rows.stream()
+            .map(row -> Map.of(
+                "orderId", row.getOrderId(),
+                "status", row.getStatus().toString(),
+                "customerName", row.getCustomerName(),
+                "quantity", row.getQuantity()
             ))
             .toList();
             
         response.put("foodId", id);
-        response.put("totalOrderItems", allOrderItems.size());
-        response.put("orderItems", allOrderItems);
+        response.put("totalOrderItems", rows.getTotalElements());
+        response.put("orderItems", orderItems);
+        response.put("page", rows.getNumber());
+        response.put("size", rows.getSize());
+        response.put("hasNext", rows.hasNext());
         
         return ResponseEntity.ok(response);
     }
@@ -148,9 +228,10 @@ public class FoodController {
         if (foodOpt.isPresent()) {
             Food food = foodOpt.get();
             food.setName(updatedFood.getName());
-            food.setPrice(updatedFood.getPrice());
+            food.setPricePaise(updatedFood.getPricePaise());
             food.setDescription(updatedFood.getDescription());
             Food saved = foodRepository.save(food);
+            menuSnapshotService.foodSaved(saved);
             return ResponseEntity.ok(saved);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -173,8 +254,7 @@ public class FoodController {
         Optional<Food> food = foodRepository.findById(id);
         if (food.isPresent()) {
             // Check if there are any active orders (not delivered or cancelled)
-            List<OrderStatus> activeStatuses = Arrays.asList(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
-            boolean hasActiveOrders = orderItemRepository.existsByFoodIdAndOrderActive(id, activeStatuses);
+            boolean hasActiveOrders = activeOrderIndex.hasActiveOrders(id);
             
             if (hasActiveOrders) {
                 Map<String, String> error = new HashMap<>();
@@ -188,6 +268,7 @@ public class FoodController {
             // by either cascading the delete or allowing deletion despite references
             try {
                 foodRepository.deleteById(id);
+                menuSnapshotService.foodDeleted(id);
                 Map<String, String> response = new HashMap<>();
                 response.put("message", "Food '" + food.get().getName() + "' deleted successfully");
                 return ResponseEntity.ok(response);
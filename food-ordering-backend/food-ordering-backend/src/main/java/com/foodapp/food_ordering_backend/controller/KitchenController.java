@@ -0,0 +1,36 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.foodapp.food_ordering_backend.dto.KitchenQueueStats;
+import com.foodapp.food_ordering_backend.dto.PrepBoardLine;
+import com.foodapp.food_ordering_backend.service.ActiveOrderIndex;
+import com.foodapp.food_ordering_backend.service.KitchenScheduler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/kitchen")
+public class KitchenController {
+
+    private final KitchenScheduler kitchenScheduler;
+    private final ActiveOrderIndex activeOrderIndex;
+
+    public KitchenController(KitchenScheduler kitchenScheduler, ActiveOrderIndex activeOrderIndex) {
+        this.kitchenScheduler = kitchenScheduler;
+        this.activeOrderIndex = activeOrderIndex;
+    }
+
+    //  Queue depth, station usage and wait-time percentiles (ADMIN ONLY)
+    @GetMapping("/queue")
+    public KitchenQueueStats getQueue() {
+        return kitchenScheduler.stats();
+    }
+
+    //  Quantity of each dish across active orders, most still to cook first (ADMIN ONLY)
+    @GetMapping("/prep-board")
+    public List<PrepBoardLine> getPrepBoard() {
+        return activeOrderIndex.prepBoard();
+    }
+}
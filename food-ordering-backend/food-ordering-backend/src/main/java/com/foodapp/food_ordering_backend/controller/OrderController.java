@@ -1,35 +1,140 @@
 package com.foodapp.food_ordering_backend.controller;
 
+import com.foodapp.food_ordering_backend.config.SecurityRoles;
+import com.foodapp.food_ordering_backend.dto.CheckoutTicket;
+import com.foodapp.food_ordering_backend.dto.OrderFlowReport;
+import com.foodapp.food_ordering_backend.dto.OrderPage;
 import com.foodapp.food_ordering_backend.dto.OrderRequest;
 import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.dto.OrderTransitionResult;
+import com.foodapp.food_ordering_backend.dto.RevenueReport;
+import com.foodapp.food_ordering_backend.dto.SalesStats;
+import com.foodapp.food_ordering_backend.dto.StatusTransitionRequest;
 //import com.foodapp.food_ordering_backend.model.Order;
 import com.foodapp.food_ordering_backend.model.OrderItem;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.service.CheckoutPipeline;
+import com.foodapp.food_ordering_backend.service.IdempotentCheckoutService;
+import com.foodapp.food_ordering_backend.service.OrderExportService;
+import com.foodapp.food_ordering_backend.service.OrderFlowMetrics;
+import com.foodapp.food_ordering_backend.service.OrderRevenueService;
 import com.foodapp.food_ordering_backend.service.OrderService;
+import com.foodapp.food_ordering_backend.service.OrderStreamService;
+import com.foodapp.food_ordering_backend.service.SalesAnalytics;
 import jakarta.persistence.GeneratedValue;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/orders")
 
 public class OrderController {
 
-    private final OrderService orderService;
+    private static final long MAX_TICKET_WAIT_MILLIS = 30_000;
 
-    public OrderController(OrderService orderService) {
+    private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final CheckoutPipeline checkoutPipeline;
+    private final OrderStreamService orderStreamService;
+    private final IdempotentCheckoutService idempotentCheckoutService;
+    private final OrderRevenueService orderRevenueService;
+    private final SalesAnalytics salesAnalytics;
+    private final OrderFlowMetrics orderFlowMetrics;
+
+    public OrderController(OrderService orderService, OrderExportService orderExportService, CheckoutPipeline checkoutPipeline,
+                           OrderStreamService orderStreamService, IdempotentCheckoutService idempotentCheckoutService,
+                           OrderRevenueService orderRevenueService, SalesAnalytics salesAnalytics,
+                           OrderFlowMetrics orderFlowMetrics) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.checkoutPipeline = checkoutPipeline;
+        this.orderStreamService = orderStreamService;
+        this.idempotentCheckoutService = idempotentCheckoutService;
+        this.orderRevenueService = orderRevenueService;
+        this.salesAnalytics = salesAnalytics;
+        this.orderFlowMetrics = orderFlowMetrics;
     }
 
-    //Get all orders as DTOs
+    //Get orders as DTOs, one keyset page at a time (newest first)
     @GetMapping
 //    public List<Order> getAllOrders() {
 //        return orderService.getAllOrders();
 //    }
 
-    public List<OrderResponse> getAllOrders() {
-        return orderService.getAllOrders();
+    public OrderPage getOrders(@RequestParam(required = false) OrderStatus status,
+                               @RequestParam(required = false) String customerName,
+                               @RequestParam(required = false) Long minId,
+                               @RequestParam(required = false) Long maxId,
+                               @RequestParam(required = false) Long cursor,
+                               @RequestParam(defaultValue = "50") int limit) {
+        return orderService.getOrders(status, customerName, minId, maxId, cursor, limit);
+    }
+
+
+    //  Live order status changes as Server-Sent Events (admins get every order, customers their own)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatus(Authentication authentication) {
+        return orderStreamService.subscribe(authentication.getName(), SecurityRoles.isAdmin(authentication));
+    }
+
+
+    //  Order count and revenue in paise, overall and per status (ADMIN ONLY)
+    @GetMapping("/revenue")
+    public RevenueReport getRevenue() {
+        return orderRevenueService.report();
+    }
+
+    //  Live sales per status, food and category from in-memory counters (ADMIN ONLY)
+    @GetMapping("/stats")
+    public SalesStats getSalesStats() {
+        return salesAnalytics.stats();
+    }
+
+    //  Rebuild the sales counters from the database (ADMIN ONLY)
+    @PostMapping("/stats/reconcile")
+    public SalesStats reconcileSalesStats() {
+        return salesAnalytics.reconcile();
+    }
+
+    //  Orders reaching each status and time taken from placement, over the last 1, 5 and 60 minutes (ADMIN ONLY)
+    @GetMapping("/flow")
+    public OrderFlowReport getOrderFlow() {
+        return orderFlowMetrics.report();
+    }
+
+
+    //  Bulk export of every order with its items (ADMIN ONLY), streamed as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<?> exportOrders(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        response.setCharacterEncoding("UTF-8");
+        if (exportFormat == OrderExportService.Format.CSV) {
+            response.setContentType("text/csv");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"");
+        } else {
+            response.setContentType("application/x-ndjson");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.ndjson\"");
+        }
+        orderExportService.export(exportFormat, response.getOutputStream());
+        // Already written to the response
+        return null;
     }
 
 
@@ -55,7 +160,9 @@ public class OrderController {
 //        return ResponseEntity.ok(saved);
 //    }
 
-    public ResponseEntity<OrderResponse> createOrder(@RequestBody com.foodapp.food_ordering_backend.model.Order order) {
+    public ResponseEntity<OrderResponse> createOrder(@RequestBody com.foodapp.food_ordering_backend.model.Order order,
+                                                     Authentication authentication) {
+        order.setPlacedBy(authentication.getName()); // never trust an owner sent in the body
         return ResponseEntity.ok(orderService.createOrder(order));
     }
 
@@ -72,11 +179,15 @@ public class OrderController {
 //    }
 
     public ResponseEntity<OrderResponse> updateOrder(@PathVariable Long id, @RequestBody com.foodapp.food_ordering_backend.model.Order updateOrder) {
-        try {
-            return ResponseEntity.ok(orderService.updateOrder(id, updateOrder));
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        // Unknown order → 404, move not in the transition table → 422, concurrent change → 409
+        return ResponseEntity.ok(orderService.updateOrder(id, updateOrder));
+    }
+
+
+    //  Compare-and-set status transition (ADMIN ONLY): applies only if the order still has the given status and version
+    @PostMapping("/{id}/transition")
+    public OrderTransitionResult transitionOrder(@PathVariable Long id, @Valid @RequestBody StatusTransitionRequest request) {
+        return orderService.transitionOrder(id, request.getFrom(), request.getTo(), request.getVersion());
     }
 
 
@@ -89,7 +200,38 @@ public class OrderController {
 
     //  Checkout (main order flow with items + DTO response)
     @PostMapping("/checkout")
-    public ResponseEntity<OrderResponse> checkoutOrder(@RequestBody OrderRequest orderRequest) {
-        return ResponseEntity.ok(orderService.checkoutOrder(orderRequest));
+    //  With an Idempotency-Key header, repeats of the same key return the first attempt's order instead of a new one
+    public ResponseEntity<?> checkoutOrder(@RequestBody OrderRequest orderRequest,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                           Authentication authentication) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(orderService.checkoutOrder(authentication.getName(), orderRequest));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotentCheckoutService.MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Idempotency-Key must be 1-" + IdempotentCheckoutService.MAX_KEY_LENGTH + " characters"));
+        }
+        return ResponseEntity.ok(idempotentCheckoutService.checkout(authentication.getName(), idempotencyKey, orderRequest));
+    }
+
+    //  Async checkout: validate + queue, answer 202 with the order id; the order is persisted in a batch shortly after
+    @PostMapping("/checkout/async")
+    public ResponseEntity<?> checkoutOrderAsync(@RequestBody OrderRequest orderRequest, Authentication authentication) {
+        if (!checkoutPipeline.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Async checkout is not enabled"));
+        }
+        CheckoutTicket ticket = checkoutPipeline.submit(authentication.getName(), orderRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/orders/checkout/async/" + ticket.getOrderId()))
+                .body(ticket);
+    }
+
+    //  Poll (waitMs=0) or wait up to waitMs for an async checkout to be persisted
+    @GetMapping("/checkout/async/{orderId}")
+    public ResponseEntity<CheckoutTicket> getCheckoutTicket(@PathVariable Long orderId,
+                                                            @RequestParam(defaultValue = "0") long waitMs) {
+        return checkoutPipeline.status(orderId, Math.min(Math.max(waitMs, 0), MAX_TICKET_WAIT_MILLIS))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 }
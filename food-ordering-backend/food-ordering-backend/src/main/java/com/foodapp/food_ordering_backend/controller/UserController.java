@@ -2,6 +2,7 @@ package com.foodapp.food_ordering_backend.controller;
 
 import com.foodapp.food_ordering_backend.model.User;
 import com.foodapp.food_ordering_backend.repository.UserRepository;
+import com.foodapp.food_ordering_backend.service.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +16,9 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     //Get all users
     @GetMapping
     public List<User> getAllUsers() {
@@ -25,6 +29,13 @@ public class UserController {
 
     @PostMapping
     public User createUser(@RequestBody User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Saving with an existing id can change any user's username, password or role
+        if (user.getId() != null) {
+            userPrincipalCache.evictAll();
+        } else {
+            userPrincipalCache.evict(saved.getUsername());
+        }
+        return saved;
     }
 }
@@ -0,0 +1,52 @@
+package com.foodapp.food_ordering_backend.dto;
+
+public class CheckoutTicket {
+
+    public enum Status { QUEUED, PERSISTED, FAILED }
+
+    private Long orderId;        // allocated when the checkout is queued, before the order is persisted
+    private Status status;
+    private OrderResponse order; // set once the order has been persisted
+    private String error;        // set if persisting failed
+
+    public CheckoutTicket() {}
+
+    public CheckoutTicket(Long orderId, Status status, OrderResponse order, String error) {
+        this.orderId = orderId;
+        this.status = status;
+        this.order = order;
+        this.error = error;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public OrderResponse getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderResponse order) {
+        this.order = order;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
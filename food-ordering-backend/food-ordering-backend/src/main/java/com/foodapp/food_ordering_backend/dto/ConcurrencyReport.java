@@ -0,0 +1,22 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import java.util.List;
+
+/**
+ * Response of GET /api/admin/concurrency: whether requests run on virtual or platform threads, how full each
+ * database bulkhead is, where virtual threads got pinned to their carrier, and the adaptive limit on order
+ * writes. Limits and in-flight counts are live; acquired, admitted, rejected, decreases and the pinning counts
+ * are totals since startup.
+ */
+public record ConcurrencyReport(long generatedAtMillis, String executionMode, List<Bulkhead> bulkheads,
+                                Pinning pinning, Admission admission) {
+
+    public record Bulkhead(String routeClass, int maxConnections, int inUse, int waiting, long acquired, long rejected) {}
+
+    public record Pinning(boolean monitoring, long thresholdMillis, long events, List<Site> sites) {}
+
+    public record Admission(boolean enabled, int limit, int customerLimit, int inFlight, int adminInFlight,
+                            long admitted, long customerRejected, long adminRejected, long decreases) {}
+
+    public record Site(String frame, long count, long totalMillis, long maxMillis, List<String> stackTrace) {}
+}
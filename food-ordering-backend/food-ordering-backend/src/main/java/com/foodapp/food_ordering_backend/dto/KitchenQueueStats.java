@@ -0,0 +1,10 @@
+package com.foodapp.food_ordering_backend.dto;
+
+/**
+ * Snapshot of the kitchen scheduler as served by GET /kitchen/queue.
+ * Wait percentiles cover the most recent orders to reach a station (enqueue → PREPARING), in milliseconds.
+ */
+public record KitchenQueueStats(boolean enabled, int stations, int busyStations, int queueDepth,
+                                int awaitingConfirmation, long oldestWaitMillis, int waitSamples,
+                                long waitP50Millis, long waitP90Millis, long waitP99Millis) {
+}
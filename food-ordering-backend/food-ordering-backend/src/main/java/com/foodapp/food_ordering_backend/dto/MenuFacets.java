@@ -0,0 +1,17 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import java.util.List;
+
+/**
+ * Facet counts returned with a filtered GET /foods. Category counts apply the price filter but not the category
+ * filter, and price band counts the other way round, so each list shows what picking that option would return.
+ * A band covers minPricePaise to maxPricePaise inclusive; the top band has no maximum.
+ */
+public record MenuFacets(List<Category> categories, List<PriceBand> priceBands) {
+
+    public record Category(String category, int count) {
+    }
+
+    public record PriceBand(String band, long minPricePaise, Long maxPricePaise, int count) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import com.foodapp.food_ordering_backend.model.Food;
+
+/**
+ * Immutable copy of a menu item as served by GET /foods.
+ * Field order matches the Food entity so the JSON shape is the same as the entity's.
+ */
+public record MenuItem(Long id, String name, long pricePaise, String description, String category) {
+
+    public static MenuItem from(Food food) {
+        return new MenuItem(food.getId(), food.getName(), food.getPricePaise(), food.getDescription(), food.getCategory());
+    }
+}
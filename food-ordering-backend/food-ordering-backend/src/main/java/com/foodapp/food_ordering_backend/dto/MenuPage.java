@@ -0,0 +1,10 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import java.util.List;
+
+/**
+ * Response of GET /foods with a category, price range, sort or page: one page of matching items, how many match
+ * in total, and the facet counts for the filter panel.
+ */
+public record MenuPage(List<MenuItem> items, int total, int page, int size, boolean hasNext, MenuFacets facets) {
+}
@@ -0,0 +1,9 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import java.util.List;
+
+/**
+ * Response of GET /foods/search: the best matches, most relevant first, and how many items matched in total.
+ */
+public record MenuSearchResult(String query, int total, List<MenuItem> items) {
+}
@@ -0,0 +1,20 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of GET /orders/flow: for the last 1, 5 and 60 minutes, how many orders reached each status and how
+ * long they took to get there from being placed. PENDING counts newly placed orders and has no durations;
+ * samples leaves out orders placed before created_at was recorded. Percentiles are null without samples and
+ * otherwise within about 6% of the exact value.
+ */
+public record OrderFlowReport(long generatedAtMillis, List<Window> windows) {
+
+    public record Window(String window, long seconds, Map<OrderStatus, Stage> byStatus) {}
+
+    public record Stage(long count, double perMinute, long samples,
+                        Long p50Millis, Long p95Millis, Long p99Millis, Long maxMillis) {}
+}
@@ -0,0 +1,31 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import java.util.List;
+
+public class OrderPage {
+    private List<OrderResponse> orders;
+    private Long nextCursor; // pass back as ?cursor= to get the next page, null on the last page
+
+    public OrderPage() {}
+
+    public OrderPage(List<OrderResponse> orders, Long nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderResponse> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderResponse> orders) {
+        this.orders = orders;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -6,7 +6,8 @@ public class OrderResponse {
     private Long orderId;
     private String customerName;
     private String status;
-    private double totalPrice; // Total price in Indian Rupees (₹)
+    private long totalPricePaise; // Total price in paise (1/100 ₹)
+    private long version;
     private List<OrderItemResponse> items;
 
     public Long getOrderId() {
@@ -33,12 +34,20 @@ public class OrderResponse {
         this.status = status;
     }
 
-    public double getTotalPrice() {
-        return totalPrice;
+    public long getTotalPricePaise() {
+        return totalPricePaise;
     }
 
-    public void setTotalPrice(double totalPrice) {
-        this.totalPrice = totalPrice;
+    public void setTotalPricePaise(long totalPricePaise) {
+        this.totalPricePaise = totalPricePaise;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
     }
 
     public List<OrderItemResponse> getItems() {
@@ -53,7 +62,7 @@ public class OrderResponse {
     public static class OrderItemResponse {
         private String foodName;
         private int quantity;
-        private double price; // Price in Indian Rupees (₹)
+        private long pricePaise; // Line total in paise (1/100 ₹)
 
         public String getFoodName() {
             return  foodName;
@@ -70,11 +79,11 @@ public class OrderResponse {
             this.quantity = quantity;
         }
 
-        public double getPrice() {
-            return price;
+        public long getPricePaise() {
+            return pricePaise;
         }
-        public void setPrice(double price) {
-            this.price = price;
+        public void setPricePaise(long pricePaise) {
+            this.pricePaise = pricePaise;
         }
 
 
@@ -0,0 +1,9 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+
+/**
+ * Outcome of a successful status transition: the new status and the version to send with the next one.
+ */
+public record OrderTransitionResult(Long orderId, OrderStatus status, long version) {
+}
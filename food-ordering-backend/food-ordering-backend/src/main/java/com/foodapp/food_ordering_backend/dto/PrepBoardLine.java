@@ -0,0 +1,8 @@
+package com.foodapp.food_ordering_backend.dto;
+
+/**
+ * One dish on the kitchen prep board served by GET /kitchen/prep-board: quantities ordered across active orders,
+ * split by order status. toCook is everything not yet being prepared (PENDING + CONFIRMED).
+ */
+public record PrepBoardLine(Long foodId, String foodName, long pending, long confirmed, long preparing, long toCook) {
+}
@@ -0,0 +1,24 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.service.RevenueTotals;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Revenue over all orders as served by GET /orders/revenue. Amounts are in paise; cancelled orders are
+ * listed per status but not counted as revenue.
+ */
+public record RevenueReport(long orders, long revenuePaise, Map<OrderStatus, StatusTotals> byStatus) {
+
+    public record StatusTotals(long orders, long totalPaise) {}
+
+    public static RevenueReport from(RevenueTotals totals) {
+        Map<OrderStatus, StatusTotals> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, new StatusTotals(totals.orders(status), totals.paise(status)));
+        }
+        return new RevenueReport(totals.revenueOrders(), totals.revenuePaise(), byStatus);
+    }
+}
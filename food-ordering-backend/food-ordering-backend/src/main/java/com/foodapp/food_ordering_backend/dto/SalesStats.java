@@ -0,0 +1,25 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live sales figures as served by GET /orders/stats. Amounts are in paise. The top-line totals and the per-food
+ * and per-category figures leave cancelled orders out; byStatus lists every status, cancelled included.
+ * Foods and categories are sorted by revenue, highest first; foodName and category come from the current menu.
+ */
+public record SalesStats(long orders, long units, long revenuePaise,
+                         Map<OrderStatus, StatusSales> byStatus,
+                         List<CategorySales> byCategory,
+                         List<FoodSales> byFood,
+                         long reconciledAtMillis) {
+
+    public record StatusSales(long orders, long units, long totalPaise) {}
+
+    public record CategorySales(String category, long units, long revenuePaise) {}
+
+    public record FoodSales(Long foodId, String foodName, String category, long units, long revenuePaise,
+                            long cancelledUnits, long cancelledPaise) {}
+}
@@ -0,0 +1,43 @@
+package com.foodapp.food_ordering_backend.dto;
+
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Body of POST /orders/{id}/transition: the status and version the caller last saw, and the status to move to.
+ */
+public class StatusTransitionRequest {
+
+    @NotNull(message = "from is required")
+    private OrderStatus from;
+
+    @NotNull(message = "to is required")
+    private OrderStatus to;
+
+    @NotNull(message = "version is required")
+    private Long version;
+
+    public OrderStatus getFrom() {
+        return from;
+    }
+
+    public void setFrom(OrderStatus from) {
+        this.from = from;
+    }
+
+    public OrderStatus getTo() {
+        return to;
+    }
+
+    public void setTo(OrderStatus to) {
+        this.to = to;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
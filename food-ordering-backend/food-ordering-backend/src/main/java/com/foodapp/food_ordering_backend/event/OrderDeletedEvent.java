@@ -0,0 +1,12 @@
+package com.foodapp.food_ordering_backend.event;
+
+import com.foodapp.food_ordering_backend.service.SalesAnalytics;
+
+/**
+ * Published when an order is deleted. sales is the order as it stood just before the delete (status, totals and
+ * lines), or null if there was no such order.
+ *
+ * Listeners should use @TransactionalEventListener so they only see deletes that actually committed.
+ */
+public record OrderDeletedEvent(Long orderId, SalesAnalytics.Contribution sales) {
+}
@@ -0,0 +1,51 @@
+package com.foodapp.food_ordering_backend.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Published whenever an order is created or its status changes.
+ * placedBy is the username of the account that placed the order (null for orders from before it was recorded),
+ * as opposed to customerName, which the client types in. previousStatus is null for a freshly checked-out
+ * order; itemCount is the total quantity ordered,
+ * placedAtMillis when the order was placed (0 if unknown, for orders older than the created_at column) and
+ * totalPricePaise the order total. foodQuantities (food ID → quantity) and foodPricePaise (food ID → line total)
+ * are only filled in for a new order. placedBy and the last four are for in-process listeners and are not sent to
+ * stream clients.
+ *
+ * Listeners should use @TransactionalEventListener so they only see changes that actually committed.
+ */
+public record OrderStatusChangedEvent(Long orderId, String customerName, @JsonIgnore String placedBy,
+                                      OrderStatus previousStatus, OrderStatus newStatus,
+                                      int itemCount, long occurredAtMillis,
+                                      @JsonIgnore long placedAtMillis,
+                                      @JsonIgnore long totalPricePaise,
+                                      @JsonIgnore Map<Long, Integer> foodQuantities,
+                                      @JsonIgnore Map<Long, Long> foodPricePaise) {
+
+    public static OrderStatusChangedEvent created(Long orderId, String customerName, String placedBy, OrderStatus status,
+                                                  long placedAtMillis, long totalPricePaise, Map<Long, Integer> foodQuantities,
+                                                  Map<Long, Long> foodPricePaise) {
+        int itemCount = 0;
+        for (int quantity : foodQuantities.values()) {
+            itemCount += quantity;
+        }
+        return new OrderStatusChangedEvent(orderId, customerName, placedBy, null, status, itemCount, System.currentTimeMillis(),
+                placedAtMillis, totalPricePaise, Map.copyOf(foodQuantities), Map.copyOf(foodPricePaise));
+    }
+
+    public static OrderStatusChangedEvent changed(Long orderId, String customerName, String placedBy,
+                                                  OrderStatus previousStatus, OrderStatus newStatus, int itemCount,
+                                                  long placedAtMillis, long totalPricePaise) {
+        return new OrderStatusChangedEvent(orderId, customerName, placedBy, previousStatus, newStatus, itemCount,
+                System.currentTimeMillis(), placedAtMillis, totalPricePaise, Map.of(), Map.of());
+    }
+
+    // placedAtMillis for an order's created_at, which is null on orders from before the column existed
+    public static long placedAtMillis(Instant createdAt) {
+        return createdAt == null ? 0 : createdAt.toEpochMilli();
+    }
+}
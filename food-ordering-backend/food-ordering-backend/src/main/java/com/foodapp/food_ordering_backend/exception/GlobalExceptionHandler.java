@@ -1,11 +1,14 @@
 package com.foodapp.food_ordering_backend.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -40,6 +43,52 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    // Handles requests refused because the server is at capacity
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleOverload(ServiceOverloadedException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    // Handles transactions that could not get a connection; a full database bulkhead is an overload, not an error
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, String>> handleNoTransaction(CannotCreateTransactionException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ServiceOverloadedException overloaded) {
+                return handleOverload(overloaded);
+            }
+        }
+        return handleGenericException(ex);
+    }
+
+    // Handles refused order status changes
+    @ExceptionHandler(OrderTransitionException.class)
+    public ResponseEntity<Map<String, Object>> handleOrderTransition(OrderTransitionException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        HttpStatus status = switch (ex.getReason()) {
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case INVALID -> HttpStatus.UNPROCESSABLE_ENTITY;
+            case STALE -> HttpStatus.CONFLICT;
+        };
+        if (ex.getReason() == OrderTransitionException.Reason.STALE) {
+            error.put("currentStatus", ex.getCurrentStatus());
+            error.put("currentVersion", ex.getCurrentVersion());
+        }
+        return new ResponseEntity<>(error, status);
+    }
+
+    // Handles lost races between concurrent writers of the same versioned row
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "This record was changed by someone else, please reload and try again");
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     // Handles all other exceptions (optional)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
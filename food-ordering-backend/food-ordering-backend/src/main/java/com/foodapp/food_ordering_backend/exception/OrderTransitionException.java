@@ -0,0 +1,56 @@
+package com.foodapp.food_ordering_backend.exception;
+
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+
+/**
+ * An order status change was refused: the order does not exist, the move is not in the transition table,
+ * or the order changed since the caller read it (stale status or version).
+ */
+public class OrderTransitionException extends RuntimeException {
+
+    public enum Reason { NOT_FOUND, INVALID, STALE }
+
+    private final Reason reason;
+    private final Long orderId;
+    private final OrderStatus currentStatus;
+    private final Long currentVersion;
+
+    private OrderTransitionException(Reason reason, Long orderId, OrderStatus currentStatus, Long currentVersion,
+                                     String message) {
+        super(message);
+        this.reason = reason;
+        this.orderId = orderId;
+        this.currentStatus = currentStatus;
+        this.currentVersion = currentVersion;
+    }
+
+    public static OrderTransitionException notFound(Long orderId) {
+        return new OrderTransitionException(Reason.NOT_FOUND, orderId, null, null, "Order not found");
+    }
+
+    public static OrderTransitionException invalid(Long orderId, OrderStatus from, OrderStatus to) {
+        return new OrderTransitionException(Reason.INVALID, orderId, null, null,
+                "Cannot move order from " + from + " to " + to);
+    }
+
+    public static OrderTransitionException stale(Long orderId, OrderStatus currentStatus, long currentVersion) {
+        return new OrderTransitionException(Reason.STALE, orderId, currentStatus, currentVersion,
+                "Order was changed by someone else; it is now " + currentStatus + " (version " + currentVersion + ")");
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public OrderStatus getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -1,9 +1,11 @@
 package com.foodapp.food_ordering_backend.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -14,15 +16,17 @@ import jakarta.validation.constraints.Size;
 public class Food {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "food_seq")
+    @SequenceGenerator(name = "food_seq", sequenceName = "food_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Food name cannot be empty")
     @Size(min = 2, max = 50, message = "Food name must be between 2 and 50 characters")
     private String name;
 
-    @Min(value = 1, message = "Price must be greater than 0")
-    private double price; // Price in Indian Rupees (₹)
+    @Min(value = 100, message = "Price must be at least ₹1")
+    @Column(name = "price_paise")
+    private long pricePaise; // Price in paise (1/100 ₹)
 
 
     @NotBlank(message = "Description is required and cannot be empty")
@@ -34,16 +38,16 @@ public class Food {
     //Contructors
     public Food() {}
 
-    public Food(String name, double price, String description) {
+    public Food(String name, long pricePaise, String description) {
         this.name = name;
-        this.price = price;
+        this.pricePaise = pricePaise;
         this.description = description;
         this.category = "main-course";
     }
     
-    public Food(String name, double price, String description, String category) {
+    public Food(String name, long pricePaise, String description, String category) {
         this.name = name;
-        this.price = price;
+        this.pricePaise = pricePaise;
         this.description = description;
         this.category = category;
     }
@@ -61,12 +65,12 @@ public class Food {
         this.name = name;
     }
 
-    public double getPrice() {
-        return price;
+    public long getPricePaise() {
+        return pricePaise;
     }
 
-    public void setPrice(double price) {
-        this.price = price;
+    public void setPricePaise(long pricePaise) {
+        this.pricePaise = pricePaise;
     }
 
     public String getDescription() {
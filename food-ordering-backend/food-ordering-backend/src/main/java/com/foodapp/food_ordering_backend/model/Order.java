@@ -2,23 +2,60 @@ package com.foodapp.food_ordering_backend.model;
 
 import com.foodapp.food_ordering_backend.model.OrderStatus;
 import jakarta.persistence.*;
+import java.time.Instant;
 import java.util.List;
 
 @Entity
-@Table(name = "orders") // avoid conflict with SQL keyword "order"
+@Table(name = "orders", // avoid conflict with SQL keyword "order"
+        uniqueConstraints = @UniqueConstraint(name = "uk_orders_idempotency_key", columnNames = "idempotency_key"),
+        indexes = @Index(name = "idx_orders_status", columnList = "status"))
 
 public class Order {
 
+    // Pooled sequence (table-emulated on MySQL): ids are handed out in blocks of 50 from memory,
+    // which keeps JDBC insert batching possible - IDENTITY would force one round trip per insert.
+    // Async checkout allocates the id before the order is persisted, so it can answer with it straight away
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String customerName;
 
+    // Username of the account that placed the order, set by the server (customerName is whatever the client typed).
+    // Null on orders from before the column existed
+    @Column(name = "placed_by")
+    private String placedBy;
+
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.PENDING;
 
-    private double totalPrice; // Total price in Indian Rupees (₹)
+    @Column(name = "total_price_paise")
+    private long totalPricePaise; // Total price in paise (1/100 ₹)
+
+    // SHA-256 hex of the user-scoped Idempotency-Key of the checkout that created this order, if the client sent one
+    @Column(name = "idempotency_key", length = 191)
+    private String idempotencyKey;
+
+    // When the order was placed, and when it first reached each later status (null until it does).
+    // Status compare-and-sets in OrderRepository stamp these in the same UPDATE as the status itself.
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "confirmed_at")
+    private Instant confirmedAt;
+
+    @Column(name = "preparing_at")
+    private Instant preparingAt;
+
+    @Column(name = "delivered_at")
+    private Instant deliveredAt;
+
+    @Column(name = "cancelled_at")
+    private Instant cancelledAt;
+
+    // Bumped on every status change; guards against lost updates between concurrent writers
+    @Version
+    private long version;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
 
@@ -28,10 +65,29 @@ public class Order {
     public Order() {
     }
 
-    public Order(String customerName, OrderStatus status, double totalPrice) {
+    public Order(String customerName, OrderStatus status, long totalPricePaise) {
         this.customerName = customerName;
         this.status = status;
-        this.totalPrice = totalPrice;
+        this.totalPricePaise = totalPricePaise;
+    }
+
+    @PrePersist
+    void stampCreation() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+
+    // Move to a new status and record when it happened
+    public void moveTo(OrderStatus next, Instant at) {
+        this.status = next;
+        switch (next) {
+            case CONFIRMED -> confirmedAt = at;
+            case PREPARING -> preparingAt = at;
+            case DELIVERED -> deliveredAt = at;
+            case CANCELLED -> cancelledAt = at;
+            case PENDING -> { }
+        }
     }
 
     //Getters & Setters
@@ -39,6 +95,10 @@ public class Order {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getCustomerName() {
         return customerName;
     }
@@ -47,6 +107,14 @@ public class Order {
         this.customerName = customerName;
     }
 
+    public String getPlacedBy() {
+        return placedBy;
+    }
+
+    public void setPlacedBy(String placedBy) {
+        this.placedBy = placedBy;
+    }
+
     public OrderStatus getStatus() {
         return status;
     }
@@ -55,12 +123,48 @@ public class Order {
         this.status = status;
     }
 
-    public double getTotalPrice() {
-        return totalPrice;
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTotalPricePaise() {
+        return totalPricePaise;
+    }
+
+    public void setTotalPricePaise(long totalPricePaise) {
+        this.totalPricePaise = totalPricePaise;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getConfirmedAt() {
+        return confirmedAt;
+    }
+
+    public Instant getPreparingAt() {
+        return preparingAt;
+    }
+
+    public Instant getDeliveredAt() {
+        return deliveredAt;
     }
 
-    public void setTotalPrice(double totalPrice) {
-        this.totalPrice = totalPrice;
+    public Instant getCancelledAt() {
+        return cancelledAt;
     }
 
     public List<OrderItem> getItems() {
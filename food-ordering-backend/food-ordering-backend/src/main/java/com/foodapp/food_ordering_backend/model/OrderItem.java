@@ -5,21 +5,28 @@ import jakarta.persistence.*;
 
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_order_item_food_id", columnList = "food_id"),
+        @Index(name = "idx_order_item_order_id", columnList = "order_id")
+})
 
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
     private int quantity;
 
-    private double price; // calculated = food.price * quantity (in Indian Rupees ₹)
+    @Column(name = "price_paise")
+    private long pricePaise; // calculated = food price * quantity (in paise, 1/100 ₹)
 
     // Store food details for order history (in case food item is deleted)
     private String foodName;
     private String foodDescription;
-    private double foodPrice; // Original price per unit
+    @Column(name = "food_price_paise")
+    private long foodPricePaise; // Original price per unit (paise)
 
     @Column(name = "food_id", nullable = true)
     private Long foodId; // Store just the ID instead of full relationship
@@ -35,9 +42,9 @@ public class OrderItem {
     //Constructors
     public OrderItem() {}
 
-    public OrderItem(int quantity, double price, Food food, Order order) {
+    public OrderItem(int quantity, long pricePaise, Food food, Order order) {
         this.quantity = quantity;
-        this.price = price;
+        this.pricePaise = pricePaise;
         this.setFood(food); // Use setter to populate food details
         this.order = order;
     }
@@ -48,8 +55,8 @@ public class OrderItem {
     public int getQuantity() { return quantity; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
 
-    public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
+    public long getPricePaise() { return pricePaise; }
+    public void setPricePaise(long pricePaise) { this.pricePaise = pricePaise; }
 
     public Food getFood() { return food; }
     public void setFood(Food food) { 
@@ -59,7 +66,7 @@ public class OrderItem {
             this.foodId = food.getId();
             this.foodName = food.getName();
             this.foodDescription = food.getDescription();
-            this.foodPrice = food.getPrice();
+            this.foodPricePaise = food.getPricePaise();
         }
     }
 
@@ -72,8 +79,8 @@ public class OrderItem {
     public String getFoodDescription() { return foodDescription != null ? foodDescription : (food != null ? food.getDescription() : ""); }
     public void setFoodDescription(String foodDescription) { this.foodDescription = foodDescription; }
 
-    public double getFoodPrice() { return foodPrice > 0 ? foodPrice : (food != null ? food.getPrice() : 0); }
-    public void setFoodPrice(double foodPrice) { this.foodPrice = foodPrice; }
+    public long getFoodPricePaise() { return foodPricePaise > 0 ? foodPricePaise : (food != null ? food.getPricePaise() : 0); }
+    public void setFoodPricePaise(long foodPricePaise) { this.foodPricePaise = foodPricePaise; }
 
     public Order getOrder() { return order; }
     public void setOrder(Order order) { this.order = order; }
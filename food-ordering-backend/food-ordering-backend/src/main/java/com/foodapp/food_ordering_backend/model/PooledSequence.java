@@ -0,0 +1,22 @@
+package com.foodapp.food_ordering_backend.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pooled sequence id, like @SequenceGenerator, except that an id already set on the entity is kept. That lets
+ * an id be allocated before the entity is persisted (see PooledSequenceGenerator).
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+
+    String sequenceName();
+
+    int allocationSize() default 50;
+}
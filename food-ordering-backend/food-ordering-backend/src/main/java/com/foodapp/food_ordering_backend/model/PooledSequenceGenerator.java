@@ -0,0 +1,52 @@
+package com.foodapp.food_ordering_backend.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+// The standard sequence generator (table-emulated on MySQL), taking its settings from @PooledSequence and leaving
+// ids that were allocated up front alone. Hibernate creates it through the Spring bean container, which can't
+// hand it the annotation, so it reads it off the id field itself.
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    private PooledSequence config;
+
+    @Override
+    public void create(GeneratorCreationContext context) throws MappingException {
+        super.create(context);
+        String field = context.getProperty().getName();
+        for (Class<?> type = context.getPersistentClass().getMappedClass(); type != null; type = type.getSuperclass()) {
+            try {
+                config = type.getDeclaredField(field).getAnnotation(PooledSequence.class);
+                return;
+            } catch (NoSuchFieldException e) {
+                // declared further up
+            }
+        }
+        throw new MappingException("@PooledSequence must be on the id field of " + context.getPersistentClass().getEntityName());
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.setProperty(SEQUENCE_PARAM, config.sequenceName());
+        parameters.setProperty(INCREMENT_PARAM, Integer.toString(config.allocationSize()));
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return currentValue != null ? currentValue : generate(session, owner);
+    }
+}
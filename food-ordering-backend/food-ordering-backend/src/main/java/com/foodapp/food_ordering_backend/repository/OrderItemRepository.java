@@ -2,14 +2,57 @@ package com.foodapp.food_ordering_backend.repository;
 
 import com.foodapp.food_ordering_backend.model.OrderItem;
 import com.foodapp.food_ordering_backend.model.OrderStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    
 
-    
+    // One order line of a food, with just the order columns the order-status view shows
+    interface FoodOrderRow {
+        Long getOrderId();
+        OrderStatus getStatus();
+        String getCustomerName();
+        int getQuantity();
+    }
+
+    // Orders containing a food, newest first; served by the order_item(food_id) index
+    @Query(value = "SELECT o.id AS orderId, o.status AS status, o.customerName AS customerName, oi.quantity AS quantity " +
+            "FROM OrderItem oi JOIN oi.order o WHERE oi.foodId = :foodId ORDER BY o.id DESC, oi.id DESC",
+            countQuery = "SELECT COUNT(oi) FROM OrderItem oi WHERE oi.foodId = :foodId")
+    Page<FoodOrderRow> findOrdersByFoodId(@Param("foodId") Long foodId, Pageable pageable);
+
+    // Food lines of an order together with the order's status
+    interface OrderLineRow {
+        Long getOrderId();
+        OrderStatus getStatus();
+        Long getFoodId();
+        int getQuantity();
+        long getPricePaise();
+    }
+
+    @Query("SELECT o.id AS orderId, o.status AS status, oi.foodId AS foodId, oi.quantity AS quantity, oi.pricePaise AS pricePaise " +
+            "FROM OrderItem oi JOIN oi.order o WHERE o.status IN :statuses AND oi.foodId IS NOT NULL")
+    java.util.List<OrderLineRow> findLinesByOrderStatusIn(@Param("statuses") java.util.Collection<OrderStatus> statuses);
+
+    @Query("SELECT o.id AS orderId, o.status AS status, oi.foodId AS foodId, oi.quantity AS quantity, oi.pricePaise AS pricePaise " +
+            "FROM OrderItem oi JOIN oi.order o WHERE o.id = :orderId AND oi.foodId IS NOT NULL")
+    java.util.List<OrderLineRow> findLinesByOrderId(@Param("orderId") Long orderId);
+
+    // Quantity and paise of every order line, summed per food and order status
+    interface FoodStatusTotalsRow {
+        Long getFoodId();
+        OrderStatus getStatus();
+        long getUnits();
+        long getPaise();
+    }
+
+    @Query("SELECT oi.foodId AS foodId, o.status AS status, SUM(oi.quantity) AS units, SUM(oi.pricePaise) AS paise " +
+            "FROM OrderItem oi JOIN oi.order o GROUP BY oi.foodId, o.status")
+    java.util.List<FoodStatusTotalsRow> sumLinesByFoodAndStatus();
+
     // Check if a food item exists in any order (simple approach)
     @Query("SELECT COUNT(oi) > 0 FROM OrderItem oi WHERE oi.foodId = :foodId")
     boolean existsByFoodId(@Param("foodId") Long foodId);
@@ -21,4 +64,8 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     // Check if a food item exists in any pending/active orders (not delivered or cancelled)
     @Query("SELECT CASE WHEN COUNT(oi) > 0 THEN true ELSE false END FROM OrderItem oi WHERE oi.foodId = :foodId AND oi.order.status IN (:activeStatuses)")
     boolean existsByFoodIdAndOrderActive(@Param("foodId") Long foodId, @Param("activeStatuses") java.util.List<OrderStatus> activeStatuses);
-}
\ No newline at end of file
+
+    // Items of a batch of orders, grouped by order
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id IN :orderIds ORDER BY oi.order.id, oi.id")
+    java.util.List<OrderItem> findByOrderIdIn(@Param("orderIds") java.util.Collection<Long> orderIds);
+}
@@ -1,6 +1,134 @@
 package com.foodapp.food_ordering_backend.repository;
 
 import com.foodapp.food_ordering_backend.model.Order;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {}
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // Order header plus total quantity ordered, without loading the entity
+    interface OrderSummaryRow {
+        Long getId();
+        String getCustomerName();
+        String getPlacedBy();
+        OrderStatus getStatus();
+        Long getVersion();
+        Long getItemCount();
+        long getTotalPricePaise();
+        Instant getCreatedAt();
+    }
+
+    // Keyset page of order IDs, newest first. Every filter is optional (null = no filter)
+    @Query("SELECT o.id FROM Order o WHERE (:status IS NULL OR o.status = :status) " +
+           "AND (:customerName IS NULL OR o.customerName = :customerName) " +
+           "AND (:minId IS NULL OR o.id >= :minId) AND (:maxId IS NULL OR o.id <= :maxId) " +
+           "AND (:before IS NULL OR o.id < :before) ORDER BY o.id DESC")
+    List<Long> findPageIds(@Param("status") OrderStatus status, @Param("customerName") String customerName,
+                           @Param("minId") Long minId, @Param("maxId") Long maxId,
+                           @Param("before") Long before, Limit limit);
+
+    // Load a page of orders together with their items in one query
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids ORDER BY o.id DESC")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.idempotencyKey = :key")
+    Optional<Order> findWithItemsByIdempotencyKey(@Param("key") String key);
+
+    // Forward-only cursor over every order for bulk export; must be consumed inside a transaction.
+    // On MySQL the fetch size only streams when the JDBC URL has useCursorFetch=true.
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    Stream<Order> streamAllOrderById();
+
+    @Query("SELECT o.id AS id, o.customerName AS customerName, o.placedBy AS placedBy, o.status AS status, o.version AS version, " +
+           "COALESCE(SUM(i.quantity), 0) AS itemCount, o.totalPricePaise AS totalPricePaise, o.createdAt AS createdAt " +
+           "FROM Order o LEFT JOIN o.items i " +
+           "WHERE o.status IN :statuses GROUP BY o.id, o.customerName, o.placedBy, o.status, o.version, o.totalPricePaise, o.createdAt ORDER BY o.id")
+    List<OrderSummaryRow> findActiveOrders(@Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("SELECT o.id AS id, o.customerName AS customerName, o.placedBy AS placedBy, o.status AS status, o.version AS version, " +
+           "COALESCE(SUM(i.quantity), 0) AS itemCount, o.totalPricePaise AS totalPricePaise, o.createdAt AS createdAt " +
+           "FROM Order o LEFT JOIN o.items i " +
+           "WHERE o.id = :id GROUP BY o.id, o.customerName, o.placedBy, o.status, o.version, o.totalPricePaise, o.createdAt")
+    Optional<OrderSummaryRow> findSummaryById(@Param("id") Long id);
+
+    // Order count and paise total per status
+    interface StatusTotalsRow {
+        OrderStatus getStatus();
+        long getOrders();
+        long getPaise();
+    }
+
+    @Query("SELECT o.status AS status, COUNT(o) AS orders, COALESCE(SUM(o.totalPricePaise), 0) AS paise " +
+           "FROM Order o GROUP BY o.status")
+    List<StatusTotalsRow> sumTotalsByStatus();
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+    interface OrderStatusRow {
+        Long getId();
+        OrderStatus getStatus();
+    }
+
+    @Query("SELECT o.id AS id, o.status AS status FROM Order o WHERE o.id IN :ids")
+    List<OrderStatusRow> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Compare-and-set on the status column, stamping when the order reached the new status;
+    // 0 means the order was no longer in the expected state
+    default int transitionStatus(Long id, OrderStatus from, OrderStatus to) {
+        Instant now = Instant.now();
+        return transitionStatus(id, from, to, stampIf(to, OrderStatus.CONFIRMED, now), stampIf(to, OrderStatus.PREPARING, now),
+                stampIf(to, OrderStatus.DELIVERED, now), stampIf(to, OrderStatus.CANCELLED, now));
+    }
+
+    // Same, but also fails if anyone else changed the order since the caller read this version
+    default int transitionStatus(Long id, OrderStatus from, OrderStatus to, long version) {
+        Instant now = Instant.now();
+        return transitionStatus(id, from, to, version, stampIf(to, OrderStatus.CONFIRMED, now), stampIf(to, OrderStatus.PREPARING, now),
+                stampIf(to, OrderStatus.DELIVERED, now), stampIf(to, OrderStatus.CANCELLED, now));
+    }
+
+    // Only the column for the target status gets a value; the others are null and keep what they had
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1, " +
+           "o.confirmedAt = COALESCE(:confirmedAt, o.confirmedAt), o.preparingAt = COALESCE(:preparingAt, o.preparingAt), " +
+           "o.deliveredAt = COALESCE(:deliveredAt, o.deliveredAt), o.cancelledAt = COALESCE(:cancelledAt, o.cancelledAt) " +
+           "WHERE o.id = :id AND o.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") OrderStatus from, @Param("to") OrderStatus to,
+                         @Param("confirmedAt") Instant confirmedAt, @Param("preparingAt") Instant preparingAt,
+                         @Param("deliveredAt") Instant deliveredAt, @Param("cancelledAt") Instant cancelledAt);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1, " +
+           "o.confirmedAt = COALESCE(:confirmedAt, o.confirmedAt), o.preparingAt = COALESCE(:preparingAt, o.preparingAt), " +
+           "o.deliveredAt = COALESCE(:deliveredAt, o.deliveredAt), o.cancelledAt = COALESCE(:cancelledAt, o.cancelledAt) " +
+           "WHERE o.id = :id AND o.status = :from AND o.version = :version")
+    int transitionStatus(@Param("id") Long id, @Param("from") OrderStatus from, @Param("to") OrderStatus to,
+                         @Param("version") long version,
+                         @Param("confirmedAt") Instant confirmedAt, @Param("preparingAt") Instant preparingAt,
+                         @Param("deliveredAt") Instant deliveredAt, @Param("cancelledAt") Instant cancelledAt);
+
+    private static Instant stampIf(OrderStatus to, OrderStatus status, Instant at) {
+        return to == status ? at : null;
+    }
+}
@@ -0,0 +1,284 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.PrepBoardLine;
+import com.foodapp.food_ordering_backend.event.OrderDeletedEvent;
+import com.foodapp.food_ordering_backend.event.OrderStatusChangedEvent;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.OrderItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Quantity of each food in active (PENDING, CONFIRMED, PREPARING) orders, kept in memory so the menu's
+ * can-delete checks and the kitchen prep board never have to scan order items.
+ *
+ * Every order's contribution is recorded per order and changed inside a ConcurrentHashMap.compute on that
+ * order, so each order is counted once on checkout and taken off exactly once when it is delivered, cancelled
+ * or deleted. Committed status events can reach listeners out of order; an event for an order whose checkout
+ * has not been seen yet leaves a placeholder that the checkout event then completes, and a status never moves
+ * backwards. A move between two active statuses adds to the new status before subtracting from the old one,
+ * so a reader never sees zero for a food that is still on an active order.
+ *
+ * Rebuilt from the orders table on start, before the web server takes requests.
+ */
+@Service
+public class ActiveOrderIndex implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveOrderIndex.class);
+    private static final Set<OrderStatus> ACTIVE = EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+    private static final long PLACEHOLDER_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long SWEEP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    // foodIds == null marks a placeholder: a status event that arrived before the order's checkout event
+    private record Entry(OrderStatus status, long[] foodIds, int[] quantities, long createdAtMillis) {
+
+        Entry withStatus(OrderStatus next) {
+            return new Entry(next, foodIds, quantities, createdAtMillis);
+        }
+
+        boolean isPlaceholder() {
+            return foodIds == null;
+        }
+    }
+
+    private final OrderItemRepository orderItemRepository;
+    private final MenuSnapshotService menuSnapshotService;
+
+    private final Map<Long, Entry> orders = new ConcurrentHashMap<>();
+    // Per food: quantity in PENDING, CONFIRMED and PREPARING orders, indexed by status ordinal
+    private final Map<Long, AtomicLongArray> foods = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepMillis = new AtomicLong(System.currentTimeMillis());
+
+    private volatile boolean running;
+
+    public ActiveOrderIndex(OrderItemRepository orderItemRepository, MenuSnapshotService menuSnapshotService) {
+        this.orderItemRepository = orderItemRepository;
+        this.menuSnapshotService = menuSnapshotService;
+    }
+
+    public long activeQuantity(Long foodId) {
+        AtomicLongArray counts = foods.get(foodId);
+        if (counts == null) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public boolean hasActiveOrders(Long foodId) {
+        return activeQuantity(foodId) > 0;
+    }
+
+    /**
+     * Every food on an active order, most still to cook first.
+     */
+    public List<PrepBoardLine> prepBoard() {
+        Map<Long, MenuItem> menu = menuSnapshotService.current().getItemsById();
+        List<PrepBoardLine> lines = new ArrayList<>();
+        foods.forEach((foodId, counts) -> {
+            long pending = counts.get(OrderStatus.PENDING.ordinal());
+            long confirmed = counts.get(OrderStatus.CONFIRMED.ordinal());
+            long preparing = counts.get(OrderStatus.PREPARING.ordinal());
+            if (pending + confirmed + preparing > 0) {
+                MenuItem item = menu.get(foodId);
+                lines.add(new PrepBoardLine(foodId, item != null ? item.name() : null,
+                        pending, confirmed, preparing, pending + confirmed));
+            }
+        });
+        lines.sort(Comparator.comparingLong(PrepBoardLine::toCook).reversed()
+                .thenComparing(Comparator.comparingLong(PrepBoardLine::preparing).reversed())
+                .thenComparing(PrepBoardLine::foodId));
+        return lines;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (event.previousStatus() == null) {
+            placed(event.orderId(), event.newStatus(), event.foodQuantities());
+        } else {
+            moved(event.orderId(), event.newStatus());
+        }
+        sweepPlaceholders();
+    }
+
+    /**
+     * Take a deleted order off the index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        orderDeleted(event.orderId());
+    }
+
+    void orderDeleted(Long orderId) {
+        orders.compute(orderId, (id, existing) -> {
+            if (existing != null && !existing.isPlaceholder()) {
+                count(existing, -1);
+            }
+            // Swallow a checkout event that is still on its way
+            return new Entry(OrderStatus.CANCELLED, null, null, System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * Re-read one order's lines after its items were changed outside checkout.
+     */
+    public void refresh(Long orderId) {
+        Entry loaded = toEntry(orderItemRepository.findLinesByOrderId(orderId));
+        orders.compute(orderId, (id, existing) -> {
+            if (existing != null && !existing.isPlaceholder()) {
+                count(existing, -1);
+            }
+            if (loaded == null || !ACTIVE.contains(loaded.status())) {
+                return null;
+            }
+            count(loaded, 1);
+            return loaded;
+        });
+    }
+
+    /**
+     * Reload the index from the orders table.
+     */
+    public void rebuild() {
+        Map<Long, List<OrderItemRepository.OrderLineRow>> byOrder = new LinkedHashMap<>();
+        for (OrderItemRepository.OrderLineRow row : orderItemRepository.findLinesByOrderStatusIn(ACTIVE)) {
+            byOrder.computeIfAbsent(row.getOrderId(), id -> new ArrayList<>()).add(row);
+        }
+        orders.clear();
+        foods.clear();
+        byOrder.forEach((orderId, rows) -> {
+            Entry entry = toEntry(rows);
+            orders.put(orderId, entry);
+            count(entry, 1);
+        });
+        log.info("Active order index rebuilt: {} orders, {} foods", orders.size(), foods.size());
+    }
+
+    private void placed(Long orderId, OrderStatus status, Map<Long, Integer> foodQuantities) {
+        orders.compute(orderId, (id, existing) -> {
+            if (existing != null && !existing.isPlaceholder()) {
+                return existing; // already counted
+            }
+            OrderStatus current = existing != null ? latest(existing.status(), status) : status;
+            if (!ACTIVE.contains(current)) {
+                return null; // delivered or cancelled before its checkout event got here
+            }
+            Entry entry = toEntry(current, foodQuantities);
+            count(entry, 1);
+            return entry;
+        });
+    }
+
+    private void moved(Long orderId, OrderStatus next) {
+        orders.compute(orderId, (id, existing) -> {
+            if (existing == null) {
+                return new Entry(next, null, null, System.currentTimeMillis());
+            }
+            if (latest(existing.status(), next) == existing.status()) {
+                return existing; // an older change arriving late
+            }
+            if (existing.isPlaceholder()) {
+                return existing.withStatus(next);
+            }
+            if (!ACTIVE.contains(next)) {
+                count(existing, -1);
+                return null;
+            }
+            Entry entry = existing.withStatus(next);
+            count(entry, 1);
+            count(existing, -1);
+            return entry;
+        });
+    }
+
+    // Statuses only move forward through the transition table; both final statuses rank last
+    private static OrderStatus latest(OrderStatus a, OrderStatus b) {
+        return rank(b) > rank(a) ? b : a;
+    }
+
+    private static int rank(OrderStatus status) {
+        return ACTIVE.contains(status) ? status.ordinal() : ACTIVE.size();
+    }
+
+    private void count(Entry entry, int sign) {
+        int slot = entry.status().ordinal();
+        for (int i = 0; i < entry.foodIds().length; i++) {
+            foods.computeIfAbsent(entry.foodIds()[i], id -> new AtomicLongArray(ACTIVE.size()))
+                    .addAndGet(slot, (long) sign * entry.quantities()[i]);
+        }
+    }
+
+    private static Entry toEntry(OrderStatus status, Map<Long, Integer> foodQuantities) {
+        long[] foodIds = new long[foodQuantities.size()];
+        int[] quantities = new int[foodQuantities.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> line : foodQuantities.entrySet()) {
+            foodIds[i] = line.getKey();
+            quantities[i++] = line.getValue();
+        }
+        return new Entry(status, foodIds, quantities, System.currentTimeMillis());
+    }
+
+    private static Entry toEntry(List<OrderItemRepository.OrderLineRow> rows) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<Long, Integer> foodQuantities = new HashMap<>();
+        for (OrderItemRepository.OrderLineRow row : rows) {
+            foodQuantities.merge(row.getFoodId(), row.getQuantity(), Integer::sum);
+        }
+        return toEntry(rows.get(0).getStatus(), foodQuantities);
+    }
+
+    // Placeholders whose checkout event never came (e.g. orders from before a rebuild) are dropped after a while
+    private void sweepPlaceholders() {
+        long now = System.currentTimeMillis();
+        long last = lastSweepMillis.get();
+        if (now - last < SWEEP_INTERVAL_MILLIS || !lastSweepMillis.compareAndSet(last, now)) {
+            return;
+        }
+        orders.values().removeIf(entry -> entry.isPlaceholder() && now - entry.createdAtMillis() > PLACEHOLDER_TTL_MILLIS);
+    }
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before the web server so no checkout can slip in between the reload and the first event
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+}
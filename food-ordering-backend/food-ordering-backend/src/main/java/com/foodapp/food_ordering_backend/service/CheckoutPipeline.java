@@ -0,0 +1,299 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.CheckoutTicket;
+import com.foodapp.food_ordering_backend.dto.OrderRequest;
+import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.exception.ServiceOverloadedException;
+import com.foodapp.food_ordering_backend.model.Order;
+import com.foodapp.food_ordering_backend.model.OrderItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional asynchronous checkout with group commit.
+ *
+ * Requests are validated and priced on the caller's thread, given their order id from the orders sequence, put on
+ * a bounded queue, and the caller gets that id back straight away. A single writer thread drains the queue in batches and persists each batch of
+ * orders (and their items) in one transaction, so bursts pay for one commit per batch instead of one per order.
+ *
+ * Each submission is tracked (by order id) until it is persisted and for a while after. At most max-tickets are
+ * tracked: when that many are, finished ones are dropped early (their orders can still be read normally), and if
+ * they are all still queued the submission is refused with 503.
+ *
+ * Disabled unless checkout.async.enabled=true.
+ */
+@Service
+public class CheckoutPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutPipeline.class);
+    private static final long TICKET_TTL_MILLIS = 10 * 60 * 1000; // completed tickets are kept for 10 minutes
+
+    private record PendingCheckout(Long orderId, Order order, CompletableFuture<OrderResponse> result) {}
+
+    private record Ticket(CompletableFuture<OrderResponse> result, long createdAtMillis) {}
+
+    private final OrderService orderService;
+    private final EntityManager entityManager;
+    private final SessionFactoryImplementor sessionFactory;
+    private final BeforeExecutionGenerator orderIdGenerator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final long offerTimeoutMillis;
+    private final int maxTickets;
+
+    private final BlockingQueue<PendingCheckout> queue;
+    private final Map<Long, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public CheckoutPipeline(OrderService orderService, EntityManagerFactory entityManagerFactory,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${checkout.async.enabled:false}") boolean enabled,
+                            @Value("${checkout.async.batch-size:100}") int batchSize,
+                            @Value("${checkout.async.linger-ms:5}") long lingerMillis,
+                            @Value("${checkout.async.queue-capacity:10000}") int queueCapacity,
+                            @Value("${checkout.async.offer-timeout-ms:50}") long offerTimeoutMillis,
+                            @Value("${checkout.async.max-tickets:50000}") int maxTickets) {
+        this.orderService = orderService;
+        this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.orderIdGenerator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Order.class).getGenerator();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxTickets = maxTickets;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validate and price the request, allocate its order id, then queue it for the writer.
+     * Back-pressure: if the queue stays full for offer-timeout-ms, or max-tickets submissions are still queued,
+     * the request is refused with 503.
+     */
+    public CheckoutTicket submit(String placedBy, OrderRequest orderRequest) {
+        if (!enabled) {
+            throw new IllegalStateException("Async checkout is not enabled");
+        }
+        Order order = orderService.buildOrder(placedBy, orderRequest);
+        makeRoom();
+        order.setId(allocateOrderId(order));
+        PendingCheckout pending = new PendingCheckout(order.getId(), order, new CompletableFuture<>());
+
+        tickets.put(pending.orderId(), new Ticket(pending.result(), System.currentTimeMillis()));
+        boolean queued;
+        try {
+            queued = queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            tickets.remove(pending.orderId());
+            throw new ServiceOverloadedException("Checkout queue is full, please retry shortly", 1);
+        }
+        return new CheckoutTicket(pending.orderId(), CheckoutTicket.Status.QUEUED, null, null);
+    }
+
+    // Same generator (and so the same in-memory block) as a normal insert; only touches the database once per block
+    private Long allocateOrderId(Order order) {
+        try (SessionImplementor session = sessionFactory.openSession()) {
+            return (Long) orderIdGenerator.generate(session, order, null, EventType.INSERT);
+        }
+    }
+
+    private void makeRoom() {
+        if (tickets.size() < maxTickets) {
+            return;
+        }
+        tickets.values().removeIf(t -> t.result().isDone());
+        if (tickets.size() >= maxTickets) {
+            throw new ServiceOverloadedException("Too many checkouts waiting to be persisted, please retry shortly", 1);
+        }
+    }
+
+    /**
+     * Current state of a ticket, waiting up to waitMillis for it to be persisted.
+     */
+    public Optional<CheckoutTicket> status(Long orderId, long waitMillis) {
+        Ticket ticket = tickets.get(orderId);
+        if (ticket == null) {
+            return Optional.empty();
+        }
+        try {
+            OrderResponse order = waitMillis > 0
+                    ? ticket.result().get(waitMillis, TimeUnit.MILLISECONDS)
+                    : ticket.result().getNow(null);
+            if (order == null) {
+                return Optional.of(new CheckoutTicket(orderId, CheckoutTicket.Status.QUEUED, null, null));
+            }
+            return Optional.of(new CheckoutTicket(orderId, CheckoutTicket.Status.PERSISTED, order, null));
+        } catch (TimeoutException e) {
+            return Optional.of(new CheckoutTicket(orderId, CheckoutTicket.Status.QUEUED, null, null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.of(new CheckoutTicket(orderId, CheckoutTicket.Status.QUEUED, null, null));
+        } catch (ExecutionException e) {
+            return Optional.of(new CheckoutTicket(orderId, CheckoutTicket.Status.FAILED, null, e.getCause().getMessage()));
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<PendingCheckout> batch = new ArrayList<>(batchSize);
+        long lastSweep = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCheckout first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    // Linger briefly so a burst ends up in one transaction
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                    while (batch.size() < batchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        PendingCheckout next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    write(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    continue; // drain what's left before exiting
+                }
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            if (now - lastSweep > 60_000) {
+                tickets.values().removeIf(t -> t.result().isDone() && now - t.createdAtMillis() > TICKET_TTL_MILLIS);
+                lastSweep = now;
+            }
+        }
+    }
+
+    private void write(List<PendingCheckout> batch) {
+        try {
+            List<OrderResponse> responses = transactionTemplate.execute(status -> {
+                List<Order> orders = new ArrayList<>(batch.size());
+                for (PendingCheckout pending : batch) {
+                    orders.add(pending.order());
+                }
+                orders.forEach(entityManager::persist);
+                orders.forEach(orderService::publishCreated);
+                return orders.stream().map(OrderResponseMapper::toResponse).toList();
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(responses.get(i));
+            }
+        } catch (RuntimeException batchFailure) {
+            // One bad order must not sink the whole batch: retry each in its own transaction
+            log.warn("Checkout batch of {} failed, retrying individually: {}", batch.size(), batchFailure.getMessage());
+            for (PendingCheckout pending : batch) {
+                try {
+                    OrderResponse response = transactionTemplate.execute(status -> {
+                        Order saved = copyOf(pending.order());
+                        entityManager.persist(saved);
+                        orderService.publishCreated(saved);
+                        return OrderResponseMapper.toResponse(saved);
+                    });
+                    pending.result().complete(response);
+                } catch (RuntimeException e) {
+                    pending.result().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    // The failed transaction may have left ids and versions on the entities; start again from a clean copy that
+    // keeps only the order id handed to the client
+    private static Order copyOf(Order order) {
+        Order copy = new Order(order.getCustomerName(), order.getStatus(), order.getTotalPricePaise());
+        copy.setId(order.getId());
+        copy.setPlacedBy(order.getPlacedBy());
+        copy.setCreatedAt(order.getCreatedAt());
+        List<OrderItem> items = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            OrderItem itemCopy = new OrderItem();
+            itemCopy.setOrder(copy);
+            itemCopy.setFoodId(item.getFoodId());
+            itemCopy.setFoodName(item.getFoodName());
+            itemCopy.setFoodDescription(item.getFoodDescription());
+            itemCopy.setFoodPricePaise(item.getFoodPricePaise());
+            itemCopy.setQuantity(item.getQuantity());
+            itemCopy.setPricePaise(item.getPricePaise());
+            items.add(itemCopy);
+        }
+        copy.setItems(items);
+        return copy;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "checkout-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -1,6 +1,5 @@
 package com.foodapp.food_ordering_backend.service;
 
-import com.foodapp.food_ordering_backend.model.User;
 import com.foodapp.food_ordering_backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
@@ -19,18 +18,25 @@ public class CustomUserDetailsService implements UserDetailsService {
 	@Autowired
 	private UserRepository userRepository;
 
+	@Autowired
+	private UserPrincipalCache userPrincipalCache;
+
+	// Only used for username/password login now - JWT requests are authenticated from the token's claims
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		User user = userRepository.findByUsername(username)
+		UserPrincipalCache.CachedUser user = userPrincipalCache.get(username, userRepository::findByUsername)
 				.orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 		return new org.springframework.security.core.userdetails.User(
-				user.getUsername(),
-				user.getPassword(),
-				getAuthorities(user.getRole())
+				user.username(),
+				user.password(),
+				getAuthorities(user.role())
 		);
 	}
 
-	private Collection<? extends GrantedAuthority> getAuthorities(String role) {
+	public static Collection<? extends GrantedAuthority> getAuthorities(String role) {
+		if (role == null) {
+			return Collections.emptyList();
+		}
 		return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
 	}
 }
@@ -0,0 +1,191 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.ConcurrencyReport;
+import com.foodapp.food_ordering_backend.exception.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many database connections each class of request can hold at once, so a burst of slow checkouts or
+ * admin reports can't take every pooled connection and stall the menu. With virtual threads there is no
+ * Tomcat pool to cap concurrency any more; this is what keeps thousands of them from queueing on Hikari.
+ *
+ * The request's class is set by an MVC interceptor (see DatabaseBulkheadConfig) and a permit is taken when the
+ * request's thread opens a connection. Connections the same thread opens while one is still open share its
+ * permit; the permit goes back when the last of them is closed, whichever thread closes it. Work outside requests
+ * (startup, schedulers, the async checkout pipeline) is not limited. A request that waits longer than
+ * bulkhead.acquire-timeout-ms is refused with a 503.
+ *
+ * Off unless bulkhead.enabled is set; it defaults to spring.threads.virtual.enabled, because with platform
+ * threads Tomcat's pool already bounds concurrency and these small lanes would only throttle it further.
+ */
+@Service
+public class DatabaseBulkhead {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBulkhead.class);
+
+    public enum RouteClass { MENU, CHECKOUT, ADMIN, DEFAULT }
+
+    /** One connection's share of a permit; close it exactly once, when that connection is closed. */
+    public interface Permit extends AutoCloseable {
+        /** Returned when nothing is limited (bulkhead off, or no request on this thread); holds no permit. */
+        Permit NONE = () -> { };
+
+        @Override
+        void close();
+    }
+
+    private static final ThreadLocal<RouteClass> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Held> HELD = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long acquireTimeoutMillis;
+    private final Map<RouteClass, Lane> lanes = new EnumMap<>(RouteClass.class);
+
+    public DatabaseBulkhead(@Value("${bulkhead.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+                            @Value("${bulkhead.menu.max-connections:2}") int menu,
+                            @Value("${bulkhead.checkout.max-connections:3}") int checkout,
+                            @Value("${bulkhead.admin.max-connections:2}") int admin,
+                            @Value("${bulkhead.default.max-connections:3}") int other,
+                            @Value("${bulkhead.acquire-timeout-ms:1000}") long acquireTimeoutMillis,
+                            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.enabled = enabled;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        lanes.put(RouteClass.MENU, new Lane(menu));
+        lanes.put(RouteClass.CHECKOUT, new Lane(checkout));
+        lanes.put(RouteClass.ADMIN, new Lane(admin));
+        lanes.put(RouteClass.DEFAULT, new Lane(other));
+        int total = menu + checkout + admin + other;
+        if (enabled && total > poolSize) {
+            log.warn("Bulkhead limits add up to {} connections but the pool holds {}: one class can still starve the others",
+                    total, poolSize);
+        }
+    }
+
+    /**
+     * Which class a request falls in. Admins are their own class whatever they call, so back-office work can't
+     * crowd out customers (and the other way round).
+     */
+    public static RouteClass classify(String method, String pattern, boolean admin) {
+        if (admin) {
+            return RouteClass.ADMIN;
+        }
+        if (pattern == null) {
+            return RouteClass.DEFAULT;
+        }
+        if (pattern.startsWith("/orders/checkout")) {
+            return RouteClass.CHECKOUT;
+        }
+        if ("GET".equals(method) && pattern.startsWith("/foods")) {
+            return RouteClass.MENU;
+        }
+        return RouteClass.DEFAULT;
+    }
+
+    public void enter(RouteClass routeClass) {
+        CURRENT.set(routeClass);
+    }
+
+    public void exit() {
+        CURRENT.remove();
+        HELD.remove();
+    }
+
+    /**
+     * Take a connection permit for the current request, waiting up to the acquire timeout.
+     * Throws ServiceOverloadedException when the request's class stays full for that long.
+     */
+    public Permit acquire() {
+        RouteClass routeClass = CURRENT.get();
+        if (!enabled || routeClass == null) {
+            return Permit.NONE;
+        }
+        Held held = HELD.get();
+        if (held != null && held.retain()) {
+            return held;
+        }
+        Lane lane = lanes.get(routeClass);
+        boolean acquired;
+        try {
+            acquired = lane.permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            lane.rejected.increment();
+            throw new ServiceOverloadedException("Too many " + routeClass.name().toLowerCase(Locale.ROOT)
+                    + " requests are using the database, please retry shortly", 1);
+        }
+        lane.acquired.increment();
+        held = new Held(lane);
+        HELD.set(held);
+        return held;
+    }
+
+    public List<ConcurrencyReport.Bulkhead> report() {
+        List<ConcurrencyReport.Bulkhead> report = new ArrayList<>();
+        lanes.forEach((routeClass, lane) -> report.add(new ConcurrencyReport.Bulkhead(
+                routeClass.name(), lane.maxConnections, lane.maxConnections - lane.permits.availablePermits(),
+                lane.permits.getQueueLength(), lane.acquired.sum(), lane.rejected.sum())));
+        return report;
+    }
+
+    private static final class Lane {
+        final int maxConnections;
+        final Semaphore permits;
+        final LongAdder acquired = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+
+        Lane(int maxConnections) {
+            this.maxConnections = maxConnections;
+            this.permits = new Semaphore(maxConnections, true);
+        }
+    }
+
+    // A permit shared by the connections open on it; the last one to close gives it back
+    private static final class Held implements Permit {
+        final Lane lane;
+        final AtomicInteger connections = new AtomicInteger(1);
+
+        Held(Lane lane) {
+            this.lane = lane;
+        }
+
+        // Share this permit with one more connection, unless it has already been given back
+        boolean retain() {
+            while (true) {
+                int open = connections.get();
+                if (open == 0) {
+                    return false;
+                }
+                if (connections.compareAndSet(open, open + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (connections.decrementAndGet() > 0) {
+                return;
+            }
+            if (HELD.get() == this) {
+                HELD.remove();
+            }
+            lane.permits.release();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.OrderRequest;
+import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checkout with an Idempotency-Key: the first request with a key places the order, every repeat of that key
+ * gets the same OrderResponse back without pricing or inserting anything again.
+ *
+ * Keys are scoped to the authenticated user and stored as the SHA-256 of the scoped key, so any username fits
+ * the fixed-width idempotency_key column without truncation. Recent keys live in a bounded, expiring in-memory LRU
+ * whose entries are futures, so a retry that arrives while the first attempt is still running waits for its
+ * result instead of racing it. The unique idempotency_key column on orders is the backstop once an entry has been
+ * evicted or the server restarted.
+ */
+@Service
+public class IdempotentCheckoutService {
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private record Entry(CompletableFuture<OrderResponse> result, long expiresAtMillis) {}
+
+    private final OrderService orderService;
+    // Once full, the least recently used finished entries go first; in-flight attempts always stay
+    private final SegmentedLruCache<String, Entry> entries;
+
+    private final long ttlMillis;
+    private final long waitMillis;
+
+    public IdempotentCheckoutService(OrderService orderService,
+                                     @Value("${checkout.idempotency.max-entries:10000}") int maxEntries,
+                                     @Value("${checkout.idempotency.ttl-minutes:60}") long ttlMinutes,
+                                     @Value("${checkout.idempotency.wait-ms:10000}") long waitMillis) {
+        this.orderService = orderService;
+        this.entries = new SegmentedLruCache<>(maxEntries, entry -> entry.result().isDone());
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.waitMillis = waitMillis;
+    }
+
+    public OrderResponse checkout(String username, String idempotencyKey, OrderRequest orderRequest) {
+        String key = scopedKey(username, idempotencyKey);
+        long now = System.currentTimeMillis();
+        Entry mine = new Entry(new CompletableFuture<>(), now + ttlMillis);
+
+        // Claim the key unless a live entry holds it; an expired, finished one is replaced
+        Entry current = entries.compute(key, (k, existing) ->
+                existing == null || (existing.result().isDone() && now >= existing.expiresAtMillis()) ? mine : existing);
+        if (current != mine) {
+            return await(current);
+        }
+
+        try {
+            OrderResponse response = place(username, key, orderRequest);
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Nothing was stored: let the next attempt with this key start over
+            entries.remove(key, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Length-prefixed so no username/key split can produce another user's input; hex keeps it 64 characters
+    static String scopedKey(String username, String idempotencyKey) {
+        String scoped = username.length() + ":" + username + ":" + idempotencyKey;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(scoped.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private OrderResponse place(String username, String key, OrderRequest orderRequest) {
+        Optional<OrderResponse> stored = orderService.getOrderByIdempotencyKey(key);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        try {
+            return orderService.checkoutOrder(username, orderRequest, key);
+        } catch (DataIntegrityViolationException e) {
+            // Another server (or an evicted entry's attempt) committed this key first
+            return orderService.getOrderByIdempotencyKey(key).orElseThrow(() -> e);
+        }
+    }
+
+    private OrderResponse await(Entry entry) {
+        try {
+            return entry.result().get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceOverloadedException("The original request with this Idempotency-Key is still running", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for the original request", 1);
+        } catch (ExecutionException e) {
+            // The same request failed the same way the first time
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.KitchenQueueStats;
+import com.foodapp.food_ordering_backend.event.OrderDeletedEvent;
+import com.foodapp.food_ordering_backend.event.OrderStatusChangedEvent;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory kitchen work queue that moves orders PENDING → CONFIRMED → PREPARING on its own.
+ *
+ * New orders are confirmed as soon as the kitchen sees them and then wait in a priority set ordered by age,
+ * with a bounded penalty for size, so small orders can slip ahead of a big one but nothing starves. A fixed
+ * number of stations work in parallel: an order moves to PREPARING only when a station is free, and the
+ * station frees up when the order is delivered, cancelled or deleted.
+ *
+ * Every status write is a compare-and-set on the orders table, so manual changes made through the API always
+ * win; the scheduler just re-reads the order and follows along. State is rebuilt from the orders table on start.
+ *
+ * Disabled unless kitchen.scheduler.enabled=true.
+ */
+@Service
+public class KitchenScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenScheduler.class);
+    private static final int MAX_SIZE_PENALTY_ITEMS = 20;
+    private static final int WAIT_SAMPLES = 1024;
+    private static final Set<OrderStatus> ACTIVE = EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+
+    private record Ticket(Long orderId, String customerName, String placedBy, int itemCount, long placedAtMillis,
+                          long totalPricePaise, long enqueuedAtMillis, long priority, long seq) {}
+
+    private static final Comparator<Ticket> BY_PRIORITY =
+            Comparator.comparingLong(Ticket::priority).thenComparingLong(Ticket::seq);
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled;
+    private final int stations;
+    private final long sizePenaltyMillis;
+
+    private final ConcurrentSkipListSet<Ticket> queue = new ConcurrentSkipListSet<>(BY_PRIORITY);
+    private final Map<Long, Ticket> waiting = new ConcurrentHashMap<>();
+    private final Map<Long, Ticket> preparing = new ConcurrentHashMap<>();
+    private final Queue<Long> toConfirm = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Ring of the most recent queue waits (placed → PREPARING), guarded by itself
+    private final long[] waitSamples = new long[WAIT_SAMPLES];
+    private long waitSampleCount;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public KitchenScheduler(OrderRepository orderRepository, PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${kitchen.scheduler.enabled:false}") boolean enabled,
+                            @Value("${kitchen.stations:4}") int stations,
+                            @Value("${kitchen.size-penalty-ms:10000}") long sizePenaltyMillis) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.stations = stations;
+        this.sizePenaltyMillis = sizePenaltyMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Track every committed status change, including the scheduler's own
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        apply(event.orderId(), event.customerName(), event.placedBy(), event.itemCount(), event.placedAtMillis(),
+                event.totalPricePaise(), event.newStatus());
+        wakeDispatcher();
+    }
+
+    // A deleted order leaves the queue, or gives its station back if it was being prepared
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        dequeue(event.orderId());
+        release(event.orderId());
+        wakeDispatcher();
+    }
+
+    public KitchenQueueStats stats() {
+        long now = System.currentTimeMillis();
+        Ticket oldest = null;
+        for (Ticket ticket : waiting.values()) {
+            if (oldest == null || ticket.enqueuedAtMillis() < oldest.enqueuedAtMillis()) {
+                oldest = ticket;
+            }
+        }
+        long[] samples;
+        synchronized (waitSamples) {
+            int count = (int) Math.min(waitSampleCount, WAIT_SAMPLES);
+            samples = Arrays.copyOf(waitSamples, count);
+        }
+        Arrays.sort(samples);
+        int depth = waiting.size();
+        return new KitchenQueueStats(enabled, stations, preparing.size(), depth, Math.max(0, depth - queue.size()),
+                oldest == null ? 0 : now - oldest.enqueuedAtMillis(),
+                samples.length, percentile(samples, 0.50), percentile(samples, 0.90), percentile(samples, 0.99));
+    }
+
+    /**
+     * Reload the kitchen state from the orders table.
+     */
+    public void rebuild() {
+        List<OrderRepository.OrderSummaryRow> rows = transactionTemplate.execute(status ->
+                orderRepository.findActiveOrders(ACTIVE));
+        queue.clear();
+        waiting.clear();
+        preparing.clear();
+        toConfirm.clear();
+        // Orders keep their age from when they were placed; ones older than created_at restart from now in id order
+        for (OrderRepository.OrderSummaryRow row : rows) {
+            apply(row.getId(), row.getCustomerName(), row.getPlacedBy(), row.getItemCount().intValue(),
+                    OrderStatusChangedEvent.placedAtMillis(row.getCreatedAt()), row.getTotalPricePaise(), row.getStatus());
+        }
+        log.info("Kitchen scheduler rebuilt: {} waiting, {} preparing on {} stations",
+                waiting.size(), preparing.size(), stations);
+    }
+
+    // Bring the in-memory state in line with an order's current status. Idempotent.
+    // Every waiting order has a ticket; only confirmed ones are in the priority set the stations draw from.
+    private void apply(Long orderId, String customerName, String placedBy, int itemCount, long placedAtMillis,
+                       long totalPricePaise, OrderStatus status) {
+        switch (status) {
+            case PENDING -> {
+                release(orderId);
+                queue.remove(track(orderId, customerName, placedBy, itemCount, placedAtMillis, totalPricePaise));
+                toConfirm.add(orderId);
+            }
+            case CONFIRMED -> {
+                release(orderId);
+                queue.add(track(orderId, customerName, placedBy, itemCount, placedAtMillis, totalPricePaise));
+            }
+            case PREPARING -> {
+                Ticket ticket = dequeue(orderId);
+                preparing.putIfAbsent(orderId, ticket != null ? ticket
+                        : newTicket(orderId, customerName, placedBy, itemCount, placedAtMillis, totalPricePaise));
+            }
+            case DELIVERED, CANCELLED -> {
+                dequeue(orderId);
+                release(orderId);
+            }
+        }
+    }
+
+    private Ticket track(Long orderId, String customerName, String placedBy, int itemCount, long placedAtMillis,
+                         long totalPricePaise) {
+        return waiting.computeIfAbsent(orderId,
+                id -> newTicket(id, customerName, placedBy, itemCount, placedAtMillis, totalPricePaise));
+    }
+
+    private Ticket dequeue(Long orderId) {
+        Ticket ticket = waiting.remove(orderId);
+        if (ticket != null) {
+            queue.remove(ticket);
+        }
+        return ticket;
+    }
+
+    private void release(Long orderId) {
+        preparing.remove(orderId);
+    }
+
+    private Ticket newTicket(Long orderId, String customerName, String placedBy, int itemCount, long placedAtMillis,
+                             long totalPricePaise) {
+        long enqueued = placedAtMillis > 0 ? Math.min(placedAtMillis, System.currentTimeMillis()) : System.currentTimeMillis();
+        long penalty = Math.min(itemCount, MAX_SIZE_PENALTY_ITEMS) * sizePenaltyMillis;
+        return new Ticket(orderId, customerName, placedBy, itemCount, placedAtMillis, totalPricePaise, enqueued,
+                enqueued + penalty, sequence.incrementAndGet());
+    }
+
+    private void runDispatcher() {
+        while (running) {
+            try {
+                confirmNewOrders();
+                fillStations();
+            } catch (RuntimeException e) {
+                log.warn("Kitchen dispatch failed, will retry: {}", e.getMessage());
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+            // Woken by status events; the timeout is only a safety net
+            LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    private void confirmNewOrders() {
+        List<Ticket> batch = new ArrayList<>();
+        Long orderId;
+        while ((orderId = toConfirm.poll()) != null) {
+            Ticket ticket = waiting.get(orderId);
+            if (ticket != null) {
+                batch.add(ticket);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Ticket> lost = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Ticket ticket : batch) {
+                    if (orderRepository.transitionStatus(ticket.orderId(), OrderStatus.PENDING, OrderStatus.CONFIRMED) == 1) {
+                        publish(ticket, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+                    } else {
+                        lost.add(ticket);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(ticket -> toConfirm.add(ticket.orderId()));
+            throw e;
+        }
+        lost.forEach(this::reconcile);
+    }
+
+    private void fillStations() {
+        while (preparing.size() < stations) {
+            Ticket next = queue.pollFirst();
+            if (next == null) {
+                return;
+            }
+            if (!waiting.remove(next.orderId(), next)) {
+                continue; // cancelled or re-queued meanwhile
+            }
+            preparing.put(next.orderId(), next);
+
+            Boolean started;
+            try {
+                started = transactionTemplate.execute(status -> {
+                    if (orderRepository.transitionStatus(next.orderId(), OrderStatus.CONFIRMED, OrderStatus.PREPARING) == 1) {
+                        publish(next, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+                        return true;
+                    }
+                    return false;
+                });
+            } catch (RuntimeException e) {
+                // Give the station back and keep the ticket's place in the queue
+                preparing.remove(next.orderId(), next);
+                if (waiting.putIfAbsent(next.orderId(), next) == null) {
+                    queue.add(next);
+                }
+                throw e;
+            }
+            if (Boolean.TRUE.equals(started)) {
+                recordWait(System.currentTimeMillis() - next.enqueuedAtMillis());
+            } else {
+                preparing.remove(next.orderId(), next);
+                reconcile(next);
+                return; // let the next pass pick up whatever the order turned into
+            }
+        }
+    }
+
+    // A compare-and-set lost to a change made elsewhere (or the order is gone): follow the order's real status
+    private void reconcile(Ticket ticket) {
+        OrderStatus current = orderRepository.findStatusById(ticket.orderId()).orElse(OrderStatus.CANCELLED);
+        apply(ticket.orderId(), ticket.customerName(), ticket.placedBy(), ticket.itemCount(), ticket.placedAtMillis(),
+                ticket.totalPricePaise(), current);
+    }
+
+    private void publish(Ticket ticket, OrderStatus from, OrderStatus to) {
+        eventPublisher.publishEvent(OrderStatusChangedEvent.changed(
+                ticket.orderId(), ticket.customerName(), ticket.placedBy(), from, to, ticket.itemCount(),
+                ticket.placedAtMillis(), ticket.totalPricePaise()));
+    }
+
+    private void recordWait(long millis) {
+        synchronized (waitSamples) {
+            waitSamples[(int) (waitSampleCount++ % WAIT_SAMPLES)] = millis;
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private void wakeDispatcher() {
+        Thread thread = dispatcher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        rebuild();
+        running = true;
+        dispatcher = new Thread(this::runDispatcher, "kitchen-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            LockSupport.unpark(dispatcher);
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,93 @@
+package com.foodapp.food_ordering_backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Log-bucketed histogram of millisecond durations. Every power of two is split into 8 buckets, so a reported
+ * percentile is within 6.25% of the exact value, and 232 counters cover 0 ms to about 24 days (longer
+ * durations land in the top bucket). Histograms merge by adding their counters.
+ *
+ * Not thread-safe: RollingWindow guards each one with the slot that owns it.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final long MAX_MILLIS = (1L << 31) - 1;
+    static final int BUCKETS = bucketOf(MAX_MILLIS) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+
+    public void record(long millis) {
+        long value = Math.max(0, Math.min(millis, MAX_MILLIS));
+        counts[bucketOf(value)]++;
+        count++;
+        max = Math.max(max, value);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /**
+     * The value at quantile q (0 < q ≤ 1): the middle of the bucket holding that rank, capped at the largest
+     * value seen. 0 when empty.
+     */
+    public long percentile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(lowerBound(i) + (width(i) - 1) / 2, max);
+            }
+        }
+        return max;
+    }
+
+    // Values below 8 get a bucket each; above that, the top bit picks the power of two and the next three bits
+    // pick one of its 8 equal slices
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int slice = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + slice;
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+    }
+
+    static long width(int bucket) {
+        return bucket < SUB_BUCKETS ? 1 : 1L << (bucket / SUB_BUCKETS - 1);
+    }
+}
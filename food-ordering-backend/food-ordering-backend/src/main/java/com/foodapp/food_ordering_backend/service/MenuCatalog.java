@@ -0,0 +1,192 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.MenuFacets;
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.MenuPage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Browse structures for one menu snapshot, behind GET /foods?category=&minPrice=&maxPrice=&sort=.
+ *
+ * Items are grouped by category, and every group (plus one for the whole menu) is held in menu, price and name
+ * order. A price filter is two binary searches over the price-ordered array, and each facet count is one more
+ * pair, so a request only walks the items it returns. Built once with its snapshot and never modified: a menu
+ * change builds a new catalog along with the new snapshot, and readers take no locks.
+ */
+public final class MenuCatalog {
+
+    public enum Sort {
+        MENU, PRICE_ASC, PRICE_DESC, NAME;
+
+        /**
+         * Parse the sort request parameter; null means menu order.
+         */
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return MENU;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("sort must be one of menu, price_asc, price_desc, name");
+            }
+        }
+    }
+
+    // Price bands offered as facets, matching the menu page's price filter; each runs up to the next one's start
+    private static final String[] BAND_LABELS = {"0-150", "150-300", "300-500", "500+"};
+    private static final long[] BAND_STARTS_PAISE = {0, 15_000, 30_000, 50_000};
+
+    private static final Comparator<MenuItem> BY_PRICE =
+            Comparator.comparingLong(MenuItem::pricePaise).thenComparing(MenuItem::id);
+    private static final Comparator<MenuItem> BY_NAME = Comparator.comparing(
+            (MenuItem item) -> item.name() == null ? "" : item.name(), String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(MenuItem::id);
+
+    private static final class Group {
+        final MenuItem[] byMenu;
+        final MenuItem[] byPrice;
+        final long[] prices; // prices of byPrice, for binary searches
+        final MenuItem[] byName;
+
+        Group(List<MenuItem> items) {
+            byMenu = items.toArray(new MenuItem[0]);
+            byPrice = byMenu.clone();
+            Arrays.sort(byPrice, BY_PRICE);
+            prices = new long[byPrice.length];
+            for (int i = 0; i < byPrice.length; i++) {
+                prices[i] = byPrice[i].pricePaise();
+            }
+            byName = byMenu.clone();
+            Arrays.sort(byName, BY_NAME);
+        }
+
+        // Number of items priced in [min, max]
+        int count(long min, long max) {
+            return upperBound(max) - lowerBound(min);
+        }
+
+        int lowerBound(long min) {
+            int low = 0, high = prices.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < min) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int upperBound(long max) {
+            int low = 0, high = prices.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] <= max) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final Group EMPTY = new Group(List.of());
+
+    private final Group all;
+    private final Map<String, Group> byCategory; // sorted by category name; items without a category are only in all
+
+    /**
+     * @param items the snapshot's items, in menu order
+     */
+    MenuCatalog(List<MenuItem> items) {
+        Map<String, List<MenuItem>> grouped = new TreeMap<>();
+        for (MenuItem item : items) {
+            if (item.category() != null && !item.category().isBlank()) {
+                grouped.computeIfAbsent(item.category(), c -> new ArrayList<>()).add(item);
+            }
+        }
+        Map<String, Group> groups = new TreeMap<>();
+        grouped.forEach((category, members) -> groups.put(category, new Group(members)));
+        this.all = new Group(items);
+        this.byCategory = Collections.unmodifiableMap(groups);
+    }
+
+    /**
+     * One page of the items in a category (null for every category) priced within [minPaise, maxPaise], with
+     * category counts for the price range and price band counts for the category.
+     */
+    public MenuPage browse(String category, long minPaise, long maxPaise, Sort sort, int page, int size) {
+        Group group = category == null ? all : byCategory.getOrDefault(category, EMPTY);
+        int from = group.lowerBound(minPaise);
+        int to = group.upperBound(maxPaise);
+        int total = Math.max(to - from, 0);
+        long offset = (long) page * size;
+
+        List<MenuItem> items = new ArrayList<>(offset >= total ? 0 : (int) Math.min(size, total - offset));
+        if (offset < total) {
+            int skip = (int) offset;
+            switch (sort) {
+                case PRICE_ASC -> {
+                    for (int i = from + skip; i < to && items.size() < size; i++) {
+                        items.add(group.byPrice[i]);
+                    }
+                }
+                case PRICE_DESC -> {
+                    for (int i = to - 1 - skip; i >= from && items.size() < size; i--) {
+                        items.add(group.byPrice[i]);
+                    }
+                }
+                case MENU -> collect(group.byMenu, minPaise, maxPaise, total == group.byMenu.length, skip, size, items);
+                case NAME -> collect(group.byName, minPaise, maxPaise, total == group.byName.length, skip, size, items);
+            }
+        }
+        return new MenuPage(items, total, page, size, offset + items.size() < total, facets(group, minPaise, maxPaise));
+    }
+
+    // Walk an ordering that is not by price, skipping items outside the price range unless every item is in it
+    private static void collect(MenuItem[] ordered, long minPaise, long maxPaise, boolean unfiltered,
+                                int skip, int size, List<MenuItem> out) {
+        if (unfiltered) {
+            for (int i = skip; i < ordered.length && out.size() < size; i++) {
+                out.add(ordered[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < ordered.length && out.size() < size; i++) {
+            long price = ordered[i].pricePaise();
+            if (price >= minPaise && price <= maxPaise && skip-- <= 0) {
+                out.add(ordered[i]);
+            }
+        }
+    }
+
+    // Each facet ignores its own filter, so picking a category still shows the other categories' counts
+    private MenuFacets facets(Group selected, long minPaise, long maxPaise) {
+        List<MenuFacets.Category> categories = new ArrayList<>(byCategory.size());
+        byCategory.forEach((category, group) -> {
+            int count = group.count(minPaise, maxPaise);
+            if (count > 0) {
+                categories.add(new MenuFacets.Category(category, count));
+            }
+        });
+
+        List<MenuFacets.PriceBand> bands = new ArrayList<>(BAND_LABELS.length);
+        for (int i = 0; i < BAND_LABELS.length; i++) {
+            Long max = i + 1 < BAND_STARTS_PAISE.length ? BAND_STARTS_PAISE[i + 1] - 1 : null;
+            bands.add(new MenuFacets.PriceBand(BAND_LABELS[i], BAND_STARTS_PAISE[i], max,
+                    selected.count(BAND_STARTS_PAISE[i], max != null ? max : Long.MAX_VALUE)));
+        }
+        return new MenuFacets(categories, bands);
+    }
+}
@@ -0,0 +1,469 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.MenuSearchResult;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over menu item name, category and description for GET /foods/search.
+ *
+ * Terms are lower-cased, accent-stripped words. Each query word matches a term exactly, as a prefix
+ * (from 2 characters, so typeahead works) or with one typo - a missing, extra, swapped or wrong letter -
+ * from 4 characters. Typo candidates come from a table of every term with one letter deleted, so a lookup
+ * is a handful of hash probes rather than a scan of the vocabulary. Every query word has to match; items are
+ * ranked by where the words matched (name over category over description) and how closely.
+ *
+ * Items live in int slots and each term's posting list is a sorted int array of slots, so scoring a common
+ * word is a tight loop over primitives into reusable scratch arrays - no maps or boxed scores per hit.
+ * Items are added and removed one at a time as the menu changes. Searches share a read lock and updates take
+ * the write lock, so a search never sees half an update.
+ */
+public final class MenuSearchIndex {
+
+    // Field weights double as bit flags: a term's flags for one item OR together, and since they are distinct
+    // powers of two the OR is also the sum of the weights of the fields it appears in
+    private static final int NAME = 8;
+    private static final int CATEGORY = 4;
+    private static final int DESCRIPTION = 1;
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.6f;
+    private static final float TYPO = 0.4f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int MAX_PREFIX_TERMS = 64;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private record Doc(MenuItem item, Map<String, Integer> terms) {}
+
+    // Slots in ascending order with each one's field flags; only touched under the write lock
+    private static final class Posting {
+        int[] slots = new int[4];
+        byte[] fields = new byte[4];
+        int size;
+
+        void put(int slot, int flags) {
+            int at = Arrays.binarySearch(slots, 0, size, slot);
+            if (at >= 0) {
+                fields[at] = (byte) flags;
+                return;
+            }
+            at = -at - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            System.arraycopy(slots, at, slots, at + 1, size - at);
+            System.arraycopy(fields, at, fields, at + 1, size - at);
+            slots[at] = slot;
+            fields[at] = (byte) flags;
+            size++;
+        }
+
+        void remove(int slot) {
+            int at = Arrays.binarySearch(slots, 0, size, slot);
+            if (at >= 0) {
+                System.arraycopy(slots, at + 1, slots, at, size - at - 1);
+                System.arraycopy(fields, at + 1, fields, at, size - at - 1);
+                size--;
+            }
+        }
+    }
+
+    // Working memory for one search, reused across searches. Instead of clearing arrays between searches,
+    // entries are tagged with stamps: wordStamp[slot] says which word best[slot] belongs to, and a query
+    // reserves a range of progress values so progress[slot] == base + w means "matched the first w words".
+    private static final class Scratch {
+        float[] best = new float[0];
+        float[] total = new float[0];
+        int[] wordStamp = new int[0];
+        int[] progress = new int[0];
+        int[] candidates = new int[0];
+        int[] touched = new int[0];
+        int nextWordStamp;
+        int nextProgress;
+
+        int begin(int capacity, int words) {
+            if (best.length < capacity) {
+                int size = Math.max(capacity, best.length * 2);
+                best = new float[size];
+                total = new float[size];
+                wordStamp = new int[size];
+                progress = new int[size];
+                candidates = new int[size];
+                touched = new int[size];
+                nextWordStamp = 0;
+                nextProgress = 0;
+            }
+            if (nextWordStamp > Integer.MAX_VALUE - words || nextProgress > Integer.MAX_VALUE - words - 1) {
+                Arrays.fill(wordStamp, 0);
+                Arrays.fill(progress, 0);
+                nextWordStamp = 0;
+                nextProgress = 0;
+            }
+            int base = nextProgress + 1;
+            nextProgress += words + 1;
+            return base;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Pooled rather than thread-local: sized to the catalog, so only searches actually in flight should hold one
+    private final ConcurrentLinkedDeque<Scratch> scratchPool = new ConcurrentLinkedDeque<>();
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private Doc[] docs = new Doc[64];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    // Sorted for prefix lookups
+    private final TreeMap<String, Posting> postings = new TreeMap<>();
+    // term with one letter deleted -> terms it came from
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add an item, or replace what is indexed for it.
+     */
+    public void put(MenuItem item) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, item.name(), NAME);
+        addTerms(terms, item.category(), CATEGORY);
+        addTerms(terms, item.description(), DESCRIPTION);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotsById.get(item.id());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unindex(slot);
+            } else {
+                slot = allocateSlot();
+                slotsById.put(item.id(), slot);
+            }
+            docs[slot] = new Doc(item, terms);
+            terms.forEach((term, fields) -> {
+                Posting posting = postings.get(term);
+                if (posting == null) {
+                    posting = new Posting();
+                    postings.put(term, posting);
+                    for (String deletion : deletionsOf(term)) {
+                        deletions.computeIfAbsent(deletion, d -> new HashSet<>(2)).add(term);
+                    }
+                }
+                posting.put(slot, fields);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(id);
+            if (slot != null) {
+                unindex(slot);
+                docs[slot] = null;
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the whole index.
+     */
+    public void reload(Collection<MenuItem> items) {
+        lock.writeLock().lock();
+        try {
+            slotsById.clear();
+            docs = new Doc[Math.max(64, items.size())];
+            slotCount = 0;
+            freeCount = 0;
+            postings.clear();
+            deletions.clear();
+            items.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public MenuSearchResult search(String query, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (words.isEmpty() || limit <= 0) {
+            return new MenuSearchResult(query, 0, List.of());
+        }
+
+        Scratch s = scratchPool.poll();
+        if (s == null) {
+            s = new Scratch();
+        }
+        lock.readLock().lock();
+        try {
+            int base = s.begin(slotCount, words.size());
+            int candidateCount = 0;
+
+            for (int w = 0; w < words.size(); w++) {
+                int touchedCount = scoreWord(words.get(w), s, w == 0 ? s.candidates : s.touched);
+                if (touchedCount == 0) {
+                    return new MenuSearchResult(query, 0, List.of());
+                }
+                if (w == 0) {
+                    for (int i = 0; i < touchedCount; i++) {
+                        int slot = s.candidates[i];
+                        s.progress[slot] = base + 1;
+                        s.total[slot] = s.best[slot];
+                    }
+                    candidateCount = touchedCount;
+                } else {
+                    // Only items that matched every earlier word can still qualify
+                    for (int i = 0; i < touchedCount; i++) {
+                        int slot = s.touched[i];
+                        if (s.progress[slot] == base + w) {
+                            s.progress[slot] = base + w + 1;
+                            s.total[slot] += s.best[slot];
+                        }
+                    }
+                }
+            }
+
+            int total = 0;
+            int[] top = new int[Math.min(limit, candidateCount)];
+            int topSize = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                int slot = s.candidates[i];
+                if (s.progress[slot] != base + words.size()) {
+                    continue;
+                }
+                total++;
+                topSize = offer(top, topSize, slot, s.total);
+            }
+
+            List<MenuItem> items = new ArrayList<>(topSize);
+            for (int i = 0; i < topSize; i++) {
+                items.add(docs[top[i]].item());
+            }
+            return new MenuSearchResult(query, total, items);
+        } finally {
+            lock.readLock().unlock();
+            scratchPool.push(s);
+        }
+    }
+
+    // Best score per slot for one query word into s.best; returns how many slots it wrote to out
+    private int scoreWord(String word, Scratch s, int[] out) {
+        int wordStamp = ++s.nextWordStamp;
+        int count = accumulate(postings.get(word), EXACT, s, wordStamp, out, 0);
+
+        if (word.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (Map.Entry<String, Posting> entry : postings.tailMap(word, false).entrySet()) {
+                if (!entry.getKey().startsWith(word) || expanded++ == MAX_PREFIX_TERMS) {
+                    break;
+                }
+                count = accumulate(entry.getValue(), PREFIX, s, wordStamp, out, count);
+            }
+        }
+
+        if (word.length() >= MIN_TYPO_LENGTH) {
+            for (String term : typoCandidates(word)) {
+                count = accumulate(postings.get(term), TYPO, s, wordStamp, out, count);
+            }
+        }
+        return count;
+    }
+
+    private static int accumulate(Posting posting, float quality, Scratch s, int wordStamp, int[] out, int count) {
+        if (posting == null) {
+            return count;
+        }
+        int[] slots = posting.slots;
+        byte[] fields = posting.fields;
+        float[] best = s.best;
+        int[] stamps = s.wordStamp;
+        for (int i = 0, n = posting.size; i < n; i++) {
+            int slot = slots[i];
+            float score = quality * fields[i];
+            if (stamps[slot] != wordStamp) {
+                stamps[slot] = wordStamp;
+                best[slot] = score;
+                out[count++] = slot;
+            } else if (score > best[slot]) {
+                best[slot] = score;
+            }
+        }
+        return count;
+    }
+
+    // Keeps the best `top.length` slots in order, best first; returns the new size
+    private int offer(int[] top, int size, int slot, float[] scores) {
+        if (size == top.length && !ranksAbove(slot, top[size - 1], scores)) {
+            return size;
+        }
+        int at = size == top.length ? size - 1 : size;
+        while (at > 0 && ranksAbove(slot, top[at - 1], scores)) {
+            top[at] = top[at - 1];
+            at--;
+        }
+        top[at] = slot;
+        return size == top.length ? size : size + 1;
+    }
+
+    // Higher score first, then the shorter (more specific) name, then the lower id
+    private boolean ranksAbove(int a, int b, float[] scores) {
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b];
+        }
+        MenuItem x = docs[a].item();
+        MenuItem y = docs[b].item();
+        int lengthX = x.name() == null ? 0 : x.name().length();
+        int lengthY = y.name() == null ? 0 : y.name().length();
+        if (lengthX != lengthY) {
+            return lengthX < lengthY;
+        }
+        return x.id() < y.id();
+    }
+
+    // Terms within one edit of the word: both sides reduced to the same string by deleting at most one letter
+    private Set<String> typoCandidates(String word) {
+        Set<String> candidates = new HashSet<>();
+        addAll(candidates, deletions.get(word));
+        for (String deletion : deletionsOf(word)) {
+            if (postings.containsKey(deletion)) {
+                candidates.add(deletion);
+            }
+            addAll(candidates, deletions.get(deletion));
+        }
+        candidates.remove(word);
+        candidates.removeIf(term -> !withinOneEdit(word, term));
+        return candidates;
+    }
+
+    private static void addAll(Set<String> target, Set<String> source) {
+        if (source != null) {
+            target.addAll(source);
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == docs.length) {
+            docs = Arrays.copyOf(docs, slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    private void unindex(int slot) {
+        for (String term : docs[slot].terms().keySet()) {
+            Posting posting = postings.get(term);
+            posting.remove(slot);
+            if (posting.size == 0) {
+                postings.remove(term);
+                for (String deletion : deletionsOf(term)) {
+                    Set<String> terms = deletions.get(deletion);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        deletions.remove(deletion);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int field) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, field, (a, b) -> a | b);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Only terms long enough to be a typo match for some word are worth the entries
+    private static List<String> deletionsOf(String term) {
+        if (term.length() < MIN_TYPO_LENGTH - 1) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            if (i > 0 && term.charAt(i) == term.charAt(i - 1)) {
+                continue; // deleting either letter of a double gives the same string
+            }
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    // One insertion, deletion, substitution or swap of adjacent letters
+    private static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int start = 0;
+        while (start < la && start < lb && a.charAt(start) == b.charAt(start)) {
+            start++;
+        }
+        if (la == lb) {
+            if (start == la) {
+                return true;
+            }
+            if (a.regionMatches(start + 1, b, start + 1, la - start - 1)) {
+                return true; // substitution
+            }
+            return start + 1 < la && a.charAt(start) == b.charAt(start + 1) && a.charAt(start + 1) == b.charAt(start)
+                    && a.regionMatches(start + 2, b, start + 2, la - start - 2);
+        }
+        String longer = la > lb ? a : b;
+        String shorter = la > lb ? b : a;
+        return longer.regionMatches(start + 1, shorter, start, shorter.length() - start);
+    }
+}
@@ -0,0 +1,135 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of the whole menu.
+ * Holds the items plus the JSON and gzip'd JSON bodies ready to be written to the wire,
+ * and the category/price structures used to browse them.
+ */
+public final class MenuSnapshot {
+
+    private final long version;
+    private final List<MenuItem> items;
+    private final Map<Long, MenuItem> itemsById;
+    private final byte[] json;
+    private final byte[] gzipJson;
+    private final String etag;
+    private final MenuCatalog catalog;
+
+    MenuSnapshot(long version, List<MenuItem> items, Map<Long, MenuItem> itemsById,
+                 byte[] json, byte[] gzipJson, String etag) {
+        this.version = version;
+        this.items = Collections.unmodifiableList(items);
+        this.itemsById = Collections.unmodifiableMap(itemsById);
+        this.json = json;
+        this.gzipJson = gzipJson;
+        this.etag = etag;
+        this.catalog = new MenuCatalog(this.items);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<MenuItem> getItems() {
+        return items;
+    }
+
+    public MenuItem getItem(Long id) {
+        return itemsById.get(id);
+    }
+
+    public Map<Long, MenuItem> getItemsById() {
+        return itemsById;
+    }
+
+    public MenuCatalog getCatalog() {
+        return catalog;
+    }
+
+    // The byte arrays are shared, never modified after construction - callers must not write to them
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzipJson() {
+        return gzipJson;
+    }
+
+    // Strong validator of the identity (uncompressed) body
+    public String getEtag() {
+        return etag;
+    }
+
+    // The gzip body is a different representation, so it gets its own validator
+    public String getGzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    public String getEtag(boolean gzip) {
+        return gzip ? getGzipEtag() : etag;
+    }
+
+    /**
+     * Whether a client's Accept-Encoding allows the gzip body: gzip (or x-gzip), else "*", listed with a
+     * q-value above 0. "gzip;q=0" explicitly refuses it; an unreadable q-value counts as a refusal too,
+     * since the identity body is always acceptable.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim();
+            boolean gzip = coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip");
+            if (!gzip && !coding.equals("*")) {
+                continue;
+            }
+            boolean acceptable = qualityOf(parts) > 0;
+            if (gzip) {
+                return acceptable;
+            }
+            wildcard = acceptable;
+        }
+        return wildcard != null && wildcard;
+    }
+
+    private static double qualityOf(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // If-None-Match against the validator of the representation being served, not the other one
+    public boolean matches(String ifNoneMatch, boolean gzip) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String current = getEtag(gzip);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,166 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.MenuSearchResult;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the menu in memory so GET /foods never touches the database or Jackson.
+ *
+ * Readers just grab the current snapshot; writers (menu changes) rebuild a new
+ * snapshot under a lock and swap it in with a single volatile write. The search
+ * index is updated under the same lock, one item at a time.
+ */
+@Service
+public class MenuSnapshotService {
+
+    private final FoodRepository foodRepository;
+    private final ObjectMapper objectMapper;
+
+    // A ReentrantLock rather than synchronized: refresh() queries the database while holding it, and a virtual
+    // thread blocking inside synchronized stays pinned to its carrier for the whole query
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final MenuSearchIndex searchIndex = new MenuSearchIndex();
+    private volatile MenuSnapshot current;
+
+    public MenuSnapshotService(FoodRepository foodRepository, ObjectMapper objectMapper) {
+        this.foodRepository = foodRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Current menu snapshot, loading it from the database on first use.
+     */
+    public MenuSnapshot current() {
+        MenuSnapshot snapshot = current;
+        if (snapshot == null) {
+            snapshot = refresh();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Full-text search over the current menu.
+     */
+    public MenuSearchResult search(String query, int limit) {
+        current(); // make sure the index has been loaded
+        return searchIndex.search(query, limit);
+    }
+
+    // void on purpose: Spring publishes whatever an event listener returns as a new event
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Reload the whole menu from the database (startup, or after bulk changes).
+     */
+    public MenuSnapshot refresh() {
+        writeLock.lock();
+        try {
+            List<MenuItem> items = foodRepository.findAll().stream().map(MenuItem::from).toList();
+            searchIndex.reload(items);
+            return publish(items);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Apply a committed insert/update of a single food item.
+     */
+    public MenuSnapshot foodSaved(Food food) {
+        writeLock.lock();
+        try {
+            Map<Long, MenuItem> items = new LinkedHashMap<>(current().getItemsById());
+            MenuItem item = MenuItem.from(food);
+            items.put(food.getId(), item);
+            searchIndex.put(item);
+            return publish(items.values());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Apply a committed delete of a single food item.
+     */
+    public MenuSnapshot foodDeleted(Long id) {
+        writeLock.lock();
+        try {
+            Map<Long, MenuItem> items = new LinkedHashMap<>(current().getItemsById());
+            if (items.remove(id) == null) {
+                return current;
+            }
+            searchIndex.remove(id);
+            return publish(items.values());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Must be called holding writeLock
+    private MenuSnapshot publish(Iterable<MenuItem> source) {
+        List<MenuItem> items = new ArrayList<>();
+        source.forEach(items::add);
+        items.sort(Comparator.comparing(MenuItem::id));
+
+        Map<Long, MenuItem> byId = new LinkedHashMap<>();
+        for (MenuItem item : items) {
+            byId.put(item.id(), item);
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu", e);
+        }
+
+        long version = current == null ? 1 : current.getVersion() + 1;
+        MenuSnapshot snapshot = new MenuSnapshot(version, items, byId, json, gzip(json), etagOf(json));
+        current = snapshot;
+        return snapshot;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Content hash rather than the version number, so the tag stays valid across restarts
+    private static String etagOf(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
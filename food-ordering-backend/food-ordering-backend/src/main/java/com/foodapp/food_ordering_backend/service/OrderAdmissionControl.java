@@ -0,0 +1,157 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.ConcurrencyReport;
+import com.foodapp.food_ordering_backend.exception.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive concurrency limit in front of the order write endpoints (checkout, order create/update/delete and
+ * status transitions). Instead of letting checkouts pile up behind a slow database until they all time out,
+ * requests over the limit are refused straight away with a 503.
+ *
+ * The limit follows AIMD: every write that finishes within admission.latency-threshold-ms while at least half
+ * the limit was in use raises it by 1/limit (about +1 per limit's worth of requests); a slower one, or one that
+ * ended in a 5xx, multiplies it by admission.backoff-ratio. Only writes admitted after the last cut can cut it
+ * again, so one slow spell shrinks the limit once rather than once per request that was caught in it.
+ *
+ * Customers may only use the limit minus admission.admin-reserve of it; that share is kept for admins so the
+ * kitchen can keep moving orders along while customers are being turned away.
+ */
+@Service
+public class OrderAdmissionControl {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderAdmissionControl.class);
+
+    // The order write handlers, as "<method> <route pattern>"; admin jobs such as POST /orders/stats/reconcile
+    // are left out on purpose, they are slow scans rather than writes
+    private static final Set<String> ORDER_WRITES = Set.of(
+            "POST /orders",
+            "PUT /orders/{id}",
+            "POST /orders/{id}/transition",
+            "DELETE /orders/{id}",
+            "POST /orders/checkout",
+            "POST /orders/checkout/async");
+
+    /** An admitted write; hand it back to complete() when the request finishes. */
+    public record Ticket(boolean admin, long sequence, long startNanos) {}
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final double adminReserve;
+
+    private final Object lock = new Object(); // held for a few arithmetic steps only, never while blocking
+    private double limit;
+    private int inFlight;
+    private int adminInFlight;
+    private long admittedSequence;
+    private long lastDecreaseSequence;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder customerRejected = new LongAdder();
+    private final LongAdder adminRejected = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    public OrderAdmissionControl(@Value("${admission.enabled:true}") boolean enabled,
+                                 @Value("${admission.initial-limit:20}") int initialLimit,
+                                 @Value("${admission.min-limit:4}") int minLimit,
+                                 @Value("${admission.max-limit:200}") int maxLimit,
+                                 @Value("${admission.latency-threshold-ms:500}") long latencyThresholdMillis,
+                                 @Value("${admission.backoff-ratio:0.8}") double backoffRatio,
+                                 @Value("${admission.admin-reserve:0.2}") double adminReserve) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1
+                || adminReserve < 0 || adminReserve >= 1) {
+            throw new IllegalArgumentException("admission needs 1 <= min-limit <= max-limit, "
+                    + "0 < backoff-ratio < 1 and 0 <= admin-reserve < 1");
+        }
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.adminReserve = adminReserve;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /** Whether a request goes through admission control: writes to orders, whoever makes them. */
+    public static boolean isOrderWrite(String method, String pattern) {
+        return method != null && pattern != null && ORDER_WRITES.contains(method + " " + pattern);
+    }
+
+    /**
+     * Admit a write or refuse it with ServiceOverloadedException. Returns null when admission control is off.
+     */
+    public Ticket admit(boolean admin) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (lock) {
+            int cap = admin ? (int) limit : customerLimit();
+            if (inFlight >= cap) {
+                (admin ? adminRejected : customerRejected).increment();
+                throw new ServiceOverloadedException("Too many orders are being placed right now, please retry shortly", 1);
+            }
+            inFlight++;
+            if (admin) {
+                adminInFlight++;
+            }
+            admitted.increment();
+            return new Ticket(admin, ++admittedSequence, System.nanoTime());
+        }
+    }
+
+    /** Hand back an admitted write; failed means it ended in a server error (including a 503 further in). */
+    public void complete(Ticket ticket, boolean failed) {
+        complete(ticket, System.nanoTime() - ticket.startNanos(), failed);
+    }
+
+    void complete(Ticket ticket, long latencyNanos, boolean failed) {
+        double previous;
+        double current;
+        synchronized (lock) {
+            boolean saturated = inFlight * 2 >= limit;
+            inFlight--;
+            if (ticket.admin()) {
+                adminInFlight--;
+            }
+            previous = limit;
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                if (ticket.sequence() > lastDecreaseSequence) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseSequence = admittedSequence;
+                    decreases.increment();
+                }
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            current = limit;
+        }
+        if (current < previous) {
+            log.debug("Order admission limit {} -> {} after a {} ms {}", (int) previous, (int) current,
+                    TimeUnit.NANOSECONDS.toMillis(latencyNanos), failed ? "failure" : "write");
+        }
+    }
+
+    public ConcurrencyReport.Admission report() {
+        synchronized (lock) {
+            return new ConcurrencyReport.Admission(enabled, (int) limit, customerLimit(), inFlight, adminInFlight,
+                    admitted.sum(), customerRejected.sum(), adminRejected.sum(), decreases.sum());
+        }
+    }
+
+    // Customers get what is left after the admin share, rounded so at least one slot stays reserved
+    private int customerLimit() {
+        int total = (int) limit;
+        int reserved = adminReserve > 0 ? Math.max(1, (int) Math.ceil(total * adminReserve)) : 0;
+        return Math.max(0, total - reserved);
+    }
+}
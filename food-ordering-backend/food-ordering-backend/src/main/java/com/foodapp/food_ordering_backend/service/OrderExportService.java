@@ -0,0 +1,181 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.model.Order;
+import com.foodapp.food_ordering_backend.model.OrderItem;
+import com.foodapp.food_ordering_backend.repository.OrderItemRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streams every order with its items straight to an output stream.
+ *
+ * Orders come from a forward-only cursor and are handled in fixed-size chunks: the chunk's items are
+ * loaded with one query, written out, and then the persistence context is cleared. Heap use therefore
+ * depends on the chunk size, not on the number of orders.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format {
+        NDJSON, CSV;
+
+        // Case-insensitive; blank means NDJSON
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("format must be one of ndjson, csv");
+            }
+        }
+    }
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final String CSV_HEADER =
+            "order_id,customer_name,status,total_price_paise,food_id,food_name,quantity,item_price_paise\n";
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                              EntityManager entityManager, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+        try (Stream<Order> orders = orderRepository.streamAllOrderById()) {
+            if (format == Format.CSV) {
+                writeCsv(orders.iterator(), out);
+            } else {
+                writeNdjson(orders.iterator(), out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<Order> orders, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+
+        List<Order> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (nextChunk(orders, chunk)) {
+            Iterator<OrderItem> items = itemsOf(chunk).iterator();
+            OrderItem pending = items.hasNext() ? items.next() : null;
+
+            for (Order order : chunk) {
+                json.writeStartObject();
+                json.writeNumberField("orderId", order.getId());
+                json.writeStringField("customerName", order.getCustomerName());
+                json.writeStringField("status", order.getStatus().name());
+                json.writeNumberField("totalPricePaise", order.getTotalPricePaise());
+                json.writeArrayFieldStart("items");
+                while (pending != null && pending.getOrder().getId().equals(order.getId())) {
+                    json.writeStartObject();
+                    json.writeObjectField("foodId", pending.getFoodId());
+                    json.writeStringField("foodName", pending.getFoodName());
+                    json.writeNumberField("quantity", pending.getQuantity());
+                    json.writeNumberField("pricePaise", pending.getPricePaise());
+                    json.writeEndObject();
+                    pending = items.hasNext() ? items.next() : null;
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+            json.flush();
+            entityManager.clear();
+        }
+        json.close();
+    }
+
+    private void writeCsv(Iterator<Order> orders, OutputStream out) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write(CSV_HEADER);
+
+        List<Order> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (nextChunk(orders, chunk)) {
+            Iterator<OrderItem> items = itemsOf(chunk).iterator();
+            OrderItem pending = items.hasNext() ? items.next() : null;
+
+            for (Order order : chunk) {
+                String prefix = order.getId() + "," + csvField(order.getCustomerName()) + ","
+                        + order.getStatus().name() + "," + order.getTotalPricePaise() + ",";
+                boolean wroteItem = false;
+                while (pending != null && pending.getOrder().getId().equals(order.getId())) {
+                    csv.write(prefix);
+                    csv.write(pending.getFoodId() == null ? "" : pending.getFoodId().toString());
+                    csv.write(',');
+                    csv.write(csvField(pending.getFoodName()));
+                    csv.write(',');
+                    csv.write(Integer.toString(pending.getQuantity()));
+                    csv.write(',');
+                    csv.write(Long.toString(pending.getPricePaise()));
+                    csv.write('\n');
+                    wroteItem = true;
+                    pending = items.hasNext() ? items.next() : null;
+                }
+                if (!wroteItem) {
+                    csv.write(prefix);
+                    csv.write(",,,\n");
+                }
+            }
+            csv.flush();
+            entityManager.clear();
+        }
+        csv.flush();
+    }
+
+    // Refill the chunk from the cursor; false once the cursor is exhausted
+    private static boolean nextChunk(Iterator<Order> orders, List<Order> chunk) {
+        chunk.clear();
+        while (chunk.size() < CHUNK_SIZE && orders.hasNext()) {
+            chunk.add(orders.next());
+        }
+        return !chunk.isEmpty();
+    }
+
+    // One query for the whole chunk, ordered the same way as the orders themselves
+    private List<OrderItem> itemsOf(List<Order> chunk) {
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (Order order : chunk) {
+            ids.add(order.getId());
+        }
+        return orderItemRepository.findByOrderIdIn(ids);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
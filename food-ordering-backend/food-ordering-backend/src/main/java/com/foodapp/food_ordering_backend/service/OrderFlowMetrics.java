@@ -0,0 +1,81 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.OrderFlowReport;
+import com.foodapp.food_ordering_backend.event.OrderStatusChangedEvent;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolling order throughput and stage durations over the last 1, 5 and 60 minutes, fed by committed status
+ * changes. For every status it counts the orders that reached it and how long each took to get there from
+ * being placed, so CONFIRMED gives time-to-confirm and DELIVERED time-to-deliver.
+ *
+ * The last five minutes are kept in one-second slots and the last hour in one-minute slots, so memory is fixed
+ * whatever the order volume. The windows start empty when the application starts.
+ */
+@Service
+public class OrderFlowMetrics {
+
+    private static final long SECOND = 1000;
+    private static final long MINUTE = 60 * SECOND;
+
+    private record Series(RollingWindow seconds, RollingWindow minutes) {}
+
+    private final Map<OrderStatus, Series> series = new EnumMap<>(OrderStatus.class);
+
+    public OrderFlowMetrics() {
+        for (OrderStatus status : OrderStatus.values()) {
+            series.put(status, new Series(new RollingWindow(SECOND, 300), new RollingWindow(MINUTE, 60)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        long latency = event.previousStatus() == null || event.placedAtMillis() <= 0
+                ? -1
+                : Math.max(0, event.occurredAtMillis() - event.placedAtMillis());
+        record(event.newStatus(), event.occurredAtMillis(), latency);
+    }
+
+    // latencyMillis < 0 counts the order without a duration
+    void record(OrderStatus status, long atMillis, long latencyMillis) {
+        Series target = series.get(status);
+        target.seconds().record(atMillis, latencyMillis);
+        target.minutes().record(atMillis, latencyMillis);
+    }
+
+    public OrderFlowReport report() {
+        return report(System.currentTimeMillis());
+    }
+
+    OrderFlowReport report(long nowMillis) {
+        List<OrderFlowReport.Window> windows = new ArrayList<>();
+        windows.add(window("1m", MINUTE, nowMillis, false));
+        windows.add(window("5m", 5 * MINUTE, nowMillis, false));
+        windows.add(window("60m", 60 * MINUTE, nowMillis, true));
+        return new OrderFlowReport(nowMillis, windows);
+    }
+
+    private OrderFlowReport.Window window(String name, long windowMillis, long nowMillis, boolean perMinuteSlots) {
+        Map<OrderStatus, OrderFlowReport.Stage> byStatus = new EnumMap<>(OrderStatus.class);
+        for (Map.Entry<OrderStatus, Series> entry : series.entrySet()) {
+            RollingWindow ring = perMinuteSlots ? entry.getValue().minutes() : entry.getValue().seconds();
+            RollingWindow.Snapshot snapshot = ring.snapshot(nowMillis, windowMillis);
+            LatencyHistogram latency = snapshot.latency();
+            boolean timed = latency.count() > 0;
+            byStatus.put(entry.getKey(), new OrderFlowReport.Stage(snapshot.count(),
+                    snapshot.count() * (double) MINUTE / windowMillis, latency.count(),
+                    timed ? latency.percentile(0.50) : null,
+                    timed ? latency.percentile(0.95) : null,
+                    timed ? latency.percentile(0.99) : null,
+                    timed ? latency.max() : null));
+        }
+        return new OrderFlowReport.Window(name, windowMillis / SECOND, byStatus);
+    }
+}
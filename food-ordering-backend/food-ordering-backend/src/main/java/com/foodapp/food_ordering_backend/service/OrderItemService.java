@@ -11,9 +11,11 @@ import java.util.Optional;
 public class OrderItemService {
 
     private final OrderItemRepository orderItemRepository;
+    private final ActiveOrderIndex activeOrderIndex;
 
-    public OrderItemService(OrderItemRepository orderItemRepository) {
+    public OrderItemService(OrderItemRepository orderItemRepository, ActiveOrderIndex activeOrderIndex) {
         this.orderItemRepository = orderItemRepository;
+        this.activeOrderIndex = activeOrderIndex;
     }
 
     public List<OrderItem> getAllOrderItems() {
@@ -25,10 +27,21 @@ public class OrderItemService {
     }
 
     public OrderItem createOrderItem(OrderItem orderItem) {
-        return orderItemRepository.save(orderItem);
+        OrderItem saved = orderItemRepository.save(orderItem);
+        refreshIndex(saved);
+        return saved;
     }
 
     public void deleteOrderItem(Long id) {
+        Optional<OrderItem> item = orderItemRepository.findById(id);
         orderItemRepository.deleteById(id);
+        item.ifPresent(this::refreshIndex);
+    }
+
+    // Items edited outside checkout change what the order's foods count for
+    private void refreshIndex(OrderItem item) {
+        if (item.getOrder() != null && item.getOrder().getId() != null) {
+            activeOrderIndex.refresh(item.getOrder().getId());
+        }
     }
 }
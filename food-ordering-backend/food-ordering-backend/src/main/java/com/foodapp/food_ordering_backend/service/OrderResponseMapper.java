@@ -0,0 +1,36 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.model.Order;
+import com.foodapp.food_ordering_backend.model.OrderItem;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Order → OrderResponse. Only reads the order and its already loaded items, so it needs no repositories
+ * and can be used (and benchmarked) outside the Spring context.
+ */
+public final class OrderResponseMapper {
+
+    private OrderResponseMapper() {
+    }
+
+    public static OrderResponse toResponse(Order order) {
+        OrderResponse response = new OrderResponse();
+        response.setOrderId(order.getId());
+        response.setCustomerName(order.getCustomerName());
+        response.setStatus(order.getStatus().name());
+        response.setTotalPricePaise(order.getTotalPricePaise());
+        response.setVersion(order.getVersion());
+        List<OrderItem> items = order.getItems() != null ? order.getItems() : List.of();
+        response.setItems(items.stream().map(oi -> {
+            OrderResponse.OrderItemResponse resp = new OrderResponse.OrderItemResponse();
+            resp.setFoodName(oi.getFoodName()); // Use stored food name (works even if food is deleted)
+            resp.setQuantity(oi.getQuantity());
+            resp.setPricePaise(oi.getPricePaise());
+            return resp;
+        }).collect(Collectors.toList()));
+        return response;
+    }
+}
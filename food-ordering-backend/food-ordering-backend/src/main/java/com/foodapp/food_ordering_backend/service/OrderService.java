@@ -1,123 +1,268 @@
 package com.foodapp.food_ordering_backend.service;
 
 
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.OrderPage;
 import com.foodapp.food_ordering_backend.dto.OrderRequest;
 import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.dto.OrderTransitionResult;
+import com.foodapp.food_ordering_backend.event.OrderDeletedEvent;
+import com.foodapp.food_ordering_backend.event.OrderStatusChangedEvent;
+import com.foodapp.food_ordering_backend.exception.OrderTransitionException;
 import com.foodapp.food_ordering_backend.model.*;
 import com.foodapp.food_ordering_backend.repository.FoodRepository;
 import com.foodapp.food_ordering_backend.repository.OrderRepository;
 import com.foodapp.food_ordering_backend.repository.OrderItemRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final FoodRepository foodRepository;
+    private final MenuSnapshotService menuSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SalesAnalytics salesAnalytics;
 
-    public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository, FoodRepository foodRepository) {
+    public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository, FoodRepository foodRepository,
+                        MenuSnapshotService menuSnapshotService, ApplicationEventPublisher eventPublisher,
+                        SalesAnalytics salesAnalytics) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.foodRepository = foodRepository;
+        this.menuSnapshotService = menuSnapshotService;
+        this.eventPublisher = eventPublisher;
+        this.salesAnalytics = salesAnalytics;
+    }
+
+    /**
+     * Checkout flow: create a new order with items and return a response DTO.
+     * All foods are resolved up front and the order is written with its items in a single cascaded flush.
+     */
+    @Transactional
+    public OrderResponse checkoutOrder(String placedBy, OrderRequest orderRequest) {
+        return checkoutOrder(placedBy, orderRequest, null);
     }
 
     /**
-     * Checkout flow: create a new order with items and return a response DTO
+     * Checkout that records the (scoped) idempotency key on the order; the unique column makes a second
+     * insert with the same key fail at commit.
      */
     @Transactional
-    public OrderResponse checkoutOrder(OrderRequest orderRequest) {
+    public OrderResponse checkoutOrder(String placedBy, OrderRequest orderRequest, String idempotencyKey) {
+        Order order = buildOrder(placedBy, orderRequest);
+        order.setIdempotencyKey(idempotencyKey);
+
+        //Order and items are persisted together through the cascade
+        orderRepository.save(order);
+        publishCreated(order);
+
+        return OrderResponseMapper.toResponse(order);
+    }
+
+    /**
+     * Validate and price a checkout request into a new, not yet persisted Order with its items.
+     * placedBy is the logged-in username the order belongs to.
+     */
+    public Order buildOrder(String placedBy, OrderRequest orderRequest) {
+        Map<Long, MenuItem> foods = resolveFoods(orderRequest.getItems());
+
         //Create new Order
         Order order = new Order();
         order.setCustomerName(orderRequest.getCustomerName());
+        order.setPlacedBy(placedBy);
         order.setStatus(OrderStatus.PENDING);
-        order = orderRepository.save(order);
-
-        //make a final reference for lambda
-        final Order savedOrder = order;
 
-
-        //Convert each item request into OrderItem
-        List<OrderItem> orderItems = orderRequest.getItems().stream().map(itemReq -> {
-            Food food = foodRepository.findById(itemReq.getFoodId())
-                    .orElseThrow(() -> new RuntimeException("Food not found with id: " + itemReq.getFoodId()));
+        //Convert each item request into OrderItem and price it before anything is written
+        List<OrderItem> orderItems = new ArrayList<>(orderRequest.getItems().size());
+        for (OrderRequest.OrderItemRequest itemReq : orderRequest.getItems()) {
+            MenuItem food = foods.get(itemReq.getFoodId());
 
             OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(savedOrder);
-            orderItem.setFood(food); // This will also set foodId and food details
+            orderItem.setOrder(order);
+            orderItem.setFoodId(food.id());
+            orderItem.setFoodName(food.name());
+            orderItem.setFoodDescription(food.description());
+            orderItem.setFoodPricePaise(food.pricePaise());
             orderItem.setQuantity(itemReq.getQuantity());
-            orderItem.setPrice(food.getPrice() * itemReq.getQuantity());
-
-            return orderItem;
-        }).collect(Collectors.toList());
+            orderItem.setPricePaise(PricingCalculator.lineTotal(food.pricePaise(), itemReq.getQuantity()));
 
-        //Save all order Items
-        orderItemRepository.saveAll(orderItems);
+            orderItems.add(orderItem);
+        }
+        order.setItems(orderItems);
+        order.setTotalPricePaise(PricingCalculator.orderTotal(orderItems));
+        return order;
+    }
 
-        //Calculate total price
-        double total = orderItems.stream().mapToDouble(OrderItem::getPrice).sum();
-        order.setTotalPrice(total);
-        orderRepository.save(order);
+    /**
+     * Resolve every requested food ID at once: from the menu snapshot first, and with a single
+     * query for anything the snapshot doesn't know about. Reports all missing IDs together.
+     */
+    private Map<Long, MenuItem> resolveFoods(List<OrderRequest.OrderItemRequest> items) {
+        MenuSnapshot menu = menuSnapshotService.current();
+        Map<Long, MenuItem> foods = new HashMap<>();
+        Set<Long> unresolved = new LinkedHashSet<>();
+        for (OrderRequest.OrderItemRequest itemReq : items) {
+            MenuItem food = menu.getItem(itemReq.getFoodId());
+            if (food != null) {
+                foods.put(food.id(), food);
+            } else {
+                unresolved.add(itemReq.getFoodId());
+            }
+        }
 
-        return mapToResponse(order, orderItems);
+        if (!unresolved.isEmpty()) {
+            for (Food food : foodRepository.findAllById(unresolved)) {
+                foods.put(food.getId(), MenuItem.from(food));
+                unresolved.remove(food.getId());
+            }
+            if (!unresolved.isEmpty()) {
+                throw new RuntimeException("Food not found with ids: " + unresolved);
+            }
+        }
+        return foods;
     }
+
     /**
-     * Return all orders as DTO
+     * Return one keyset page of orders as DTOs, newest first.
+     * Two queries per page: the page's IDs, then those orders with their items fetched in one go.
      */
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(OrderStatus status, String customerName, Long minId, Long maxId, Long cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Long> ids = orderRepository.findPageIds(status, customerName, minId, maxId, cursor, Limit.of(pageSize + 1));
 
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAll()
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new OrderPage(List.of(), null);
+        }
+
+        List<OrderResponse> orders = orderRepository.findAllWithItemsByIdIn(ids)
                 .stream()
-                .map(order -> mapToResponse(order, order.getItems()))
+                .map(order -> OrderResponseMapper.toResponse(order))
                 .collect(Collectors.toList());
+        return new OrderPage(orders, hasMore ? ids.get(ids.size() - 1) : null);
+    }
 
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> getOrderByIdempotencyKey(String idempotencyKey) {
+        return orderRepository.findWithItemsByIdempotencyKey(idempotencyKey)
+                .map(order -> OrderResponseMapper.toResponse(order));
     }
 
+    @Transactional(readOnly = true)
     public Optional<OrderResponse> getOrderById(Long id) {
-        return orderRepository.findById(id)
-                .map(order -> mapToResponse(order, order.getItems()));
+        return orderRepository.findWithItemsById(id)
+                .map(order -> OrderResponseMapper.toResponse(order));
     }
 
     public OrderResponse createOrder(Order order) {
         Order saved = orderRepository.save(order);
-        return mapToResponse(saved, saved.getItems());
+        publishCreated(saved);
+        return OrderResponseMapper.toResponse(saved);
     }
 
+    /**
+     * Status update through PUT /orders/{id}. The move must be in the transition table; setting the same status
+     * again is a no-op. A concurrent change to the same order fails at commit on the version check.
+     */
+    @Transactional
     public OrderResponse updateOrder(Long id, Order updatedOrder) {
-        return orderRepository.findById(id).map(order -> {
-            order.setStatus(updatedOrder.getStatus());
-            Order saved = orderRepository.save(order);
-            return mapToResponse(saved, saved.getItems());
-        }).orElseThrow(() -> new RuntimeException("Order not found"));
+        Order order = orderRepository.findWithItemsById(id).orElseThrow(() -> OrderTransitionException.notFound(id));
+        OrderStatus previous = order.getStatus();
+        OrderStatus next = updatedOrder.getStatus();
+        if (next == previous) {
+            return OrderResponseMapper.toResponse(order);
+        }
+        if (!previous.canTransitionTo(next)) {
+            throw OrderTransitionException.invalid(id, previous, next);
+        }
+        order.moveTo(next, Instant.now());
+        Order saved = orderRepository.saveAndFlush(order); // flush now so the response carries the new version
+        eventPublisher.publishEvent(OrderStatusChangedEvent.changed(
+                saved.getId(), saved.getCustomerName(), saved.getPlacedBy(), previous, next, itemCount(saved),
+                OrderStatusChangedEvent.placedAtMillis(saved.getCreatedAt()), saved.getTotalPricePaise()));
+        return OrderResponseMapper.toResponse(saved);
+    }
+
+    /**
+     * Compare-and-set status change: one conditional UPDATE on id, status and version, without loading the order.
+     * Moves outside the transition table are refused before touching the database; a stale status or version
+     * costs one extra lookup to report what the order looks like now.
+     */
+    @Transactional
+    public OrderTransitionResult transitionOrder(Long id, OrderStatus from, OrderStatus to, long version) {
+        if (from == null || !from.canTransitionTo(to)) {
+            throw OrderTransitionException.invalid(id, from, to);
+        }
+        if (orderRepository.transitionStatus(id, from, to, version) == 0) {
+            OrderRepository.OrderSummaryRow current = orderRepository.findSummaryById(id)
+                    .orElseThrow(() -> OrderTransitionException.notFound(id));
+            throw OrderTransitionException.stale(id, current.getStatus(), current.getVersion());
+        }
+        orderRepository.findSummaryById(id).ifPresent(summary ->
+                eventPublisher.publishEvent(OrderStatusChangedEvent.changed(
+                        id, summary.getCustomerName(), summary.getPlacedBy(), from, to, summary.getItemCount().intValue(),
+                        OrderStatusChangedEvent.placedAtMillis(summary.getCreatedAt()), summary.getTotalPricePaise())));
+        return new OrderTransitionResult(id, to, version + 1);
     }
 
+    /**
+     * Delete an order. The indexes, counters and kitchen hear about it through an OrderDeletedEvent once the
+     * delete commits.
+     */
+    @Transactional
     public void deleteOrder(Long id) {
+        SalesAnalytics.Contribution sales = salesAnalytics.contributionOf(id).orElse(null);
         orderRepository.deleteById(id);
+        eventPublisher.publishEvent(new OrderDeletedEvent(id, sales));
     }
+
     /**
-     * Helper method: convert Order + OrderItems → DTO
+     * Announce a newly persisted order. Delivered to transactional listeners once the surrounding transaction commits.
      */
+    public void publishCreated(Order order) {
+        Map<Long, Integer> foodQuantities = new HashMap<>();
+        Map<Long, Long> foodPricePaise = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            if (item.getFoodId() != null) {
+                foodQuantities.merge(item.getFoodId(), item.getQuantity(), Integer::sum);
+                foodPricePaise.merge(item.getFoodId(), item.getPricePaise(), Math::addExact);
+            }
+        }
+        eventPublisher.publishEvent(OrderStatusChangedEvent.created(order.getId(), order.getCustomerName(),
+                order.getPlacedBy(), order.getStatus(), OrderStatusChangedEvent.placedAtMillis(order.getCreatedAt()), order.getTotalPricePaise(),
+                foodQuantities, foodPricePaise));
+    }
 
-    private OrderResponse mapToResponse(Order order, List<OrderItem> items) {
-        OrderResponse response = new OrderResponse();
-        response.setOrderId(order.getId());
-        response.setCustomerName(order.getCustomerName());
-        response.setStatus(order.getStatus().name());
-        response.setTotalPrice(order.getTotalPrice());
-        response.setItems(items.stream().map(oi -> {
-            OrderResponse.OrderItemResponse resp = new OrderResponse.OrderItemResponse();
-            resp.setFoodName(oi.getFoodName()); // Use stored food name (works even if food is deleted)
-            resp.setQuantity(oi.getQuantity());
-            resp.setPrice(oi.getPrice());
-            return resp;
-        }).collect(Collectors.toList()));
-        return response;
+    private static int itemCount(Order order) {
+        int count = 0;
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                count += item.getQuantity();
+            }
+        }
+        return count;
     }
 
 //
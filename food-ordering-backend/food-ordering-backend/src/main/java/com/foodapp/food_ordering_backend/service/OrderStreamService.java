@@ -0,0 +1,201 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.event.OrderStatusChangedEvent;
+import com.foodapp.food_ordering_backend.exception.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed order status changes to Server-Sent Events subscribers.
+ *
+ * Admins receive every order, customers only the orders their own account placed (the order's placedBy, not the
+ * customerName typed into the order, which anyone can set to anything). Each subscriber has its
+ * own bounded buffer keyed by order id: a second change to an order that has not been sent yet replaces the
+ * first, and when the buffer is full the oldest entry is dropped and the client is told to resync. A slow
+ * client therefore never holds up the publisher or other subscribers.
+ *
+ * Every subscriber is drained by its own virtual thread, which stays parked while there is nothing to send,
+ * so idle connections cost a small buffer and no platform thread.
+ */
+@Service
+public class OrderStreamService {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadFactory senders = Thread.ofVirtual().name("order-stream-", 0).factory();
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long heartbeatMillis;
+
+    public OrderStreamService(@Value("${orders.stream.buffer-size:64}") int bufferSize,
+                              @Value("${orders.stream.max-subscribers:10000}") int maxSubscribers,
+                              @Value("${orders.stream.heartbeat-ms:25000}") long heartbeatMillis) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    /**
+     * Open a stream for one client. admin=true subscribes to every order, otherwise only to the user's own.
+     */
+    public SseEmitter subscribe(String username, boolean admin) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceOverloadedException("Too many live order subscriptions, please retry shortly", 5);
+        }
+        // No servlet timeout: dead connections are found by the heartbeat instead
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, admin ? null : Objects.requireNonNull(username));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscribers.add(subscriber);
+        senders.newThread(subscriber::run).start();
+        return emitter;
+    }
+
+    // Runs after commit (or straight away when published outside a transaction), on the publishing thread
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.wants(event)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String username; // null = admin, sees everything
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private final LinkedHashMap<Long, OrderStatusChangedEvent> pending = new LinkedHashMap<>();
+        private boolean dropped;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, String username) {
+            this.emitter = emitter;
+            this.username = username;
+        }
+
+        boolean wants(OrderStatusChangedEvent event) {
+            return username == null || username.equals(event.placedBy());
+        }
+
+        void offer(OrderStatusChangedEvent event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                OrderStatusChangedEvent queued = pending.get(event.orderId());
+                if (queued != null) {
+                    // Coalesce: the client only needs the latest status, but keep where it started from
+                    event = new OrderStatusChangedEvent(event.orderId(), event.customerName(), event.placedBy(),
+                            queued.previousStatus(), event.newStatus(), event.itemCount(), event.occurredAtMillis(),
+                            event.placedAtMillis(), event.totalPricePaise(), queued.foodQuantities(), queued.foodPricePaise());
+                } else if (pending.size() >= bufferSize) {
+                    Iterator<Long> oldest = pending.keySet().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    dropped = true;
+                }
+                pending.put(event.orderId(), event);
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                pending.clear();
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+            subscribers.remove(this);
+        }
+
+        void run() {
+            try {
+                emitter.send(SseEmitter.event().comment("connected"));
+                List<OrderStatusChangedEvent> batch = new ArrayList<>();
+                while (true) {
+                    boolean resync;
+                    lock.lock();
+                    try {
+                        if (pending.isEmpty() && !closed) {
+                            ready.await(heartbeatMillis, TimeUnit.MILLISECONDS);
+                        }
+                        if (closed) {
+                            return;
+                        }
+                        batch.addAll(pending.values());
+                        pending.clear();
+                        resync = dropped;
+                        dropped = false;
+                    } finally {
+                        lock.unlock();
+                    }
+
+                    if (batch.isEmpty() && !resync) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        continue;
+                    }
+                    if (resync) {
+                        // Some updates were lost: the client should reload its order list
+                        emitter.send(SseEmitter.event().name("resync").data(Map.of()));
+                    }
+                    for (OrderStatusChangedEvent event : batch) {
+                        emitter.send(SseEmitter.event()
+                                .name("order-status")
+                                .id(String.valueOf(event.orderId()))
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                    batch.clear();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away, or the emitter was already completed
+                close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+            }
+        }
+    }
+}
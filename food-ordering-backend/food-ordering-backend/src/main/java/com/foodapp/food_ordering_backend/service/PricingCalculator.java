@@ -0,0 +1,43 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.model.OrderItem;
+
+import java.util.List;
+
+/**
+ * Money arithmetic on long paise (1/100 ₹). Everything is plain primitive loops with overflow checks,
+ * so totals are exact and aggregating large order sets never boxes.
+ */
+public final class PricingCalculator {
+
+    private PricingCalculator() {
+    }
+
+    public static long lineTotal(long unitPricePaise, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative: " + quantity);
+        }
+        return Math.multiplyExact(unitPricePaise, quantity);
+    }
+
+    // Sum of already priced line totals
+    public static long orderTotal(List<OrderItem> items) {
+        long total = 0;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            total = Math.addExact(total, items.get(i).getPricePaise());
+        }
+        return total;
+    }
+
+    public static long sum(long[] amounts) {
+        return sum(amounts, 0, amounts.length);
+    }
+
+    public static long sum(long[] amounts, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total = Math.addExact(total, amounts[i]);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,278 @@
+package com.foodapp.food_ordering_backend.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-route request metrics in the Prometheus text format: latency histograms, requests by status class,
+ * requests in flight, and how many JDBC statements and entity loads each request caused.
+ *
+ * Recording is LongAdder increments on fixed buckets, so it costs a few nanoseconds and never blocks. The route
+ * is the matched handler pattern (/orders/{id}, not /orders/42), so the number of series is bounded by the
+ * controllers; requests that never reach a handler (rejected by security, unknown paths) share the route
+ * UNMATCHED. Statements and loads are counted on the request thread; work handed to other threads (the async
+ * checkout pipeline, event listeners on the kitchen thread) is counted under "outside requests" instead.
+ *
+ * RequestMetricsFilter times each request and RequestMetricsConfig wires in the route and the Hibernate hooks.
+ */
+@Service
+public class RequestMetrics {
+
+    public static final String UNMATCHED = "UNMATCHED";
+
+    // Latency bucket bounds, Prometheus-style in seconds: 1 ms to 10 s
+    private static final double[] LATENCY_BOUNDS_SECONDS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final long[] LATENCY_BOUNDS_NANOS = new long[LATENCY_BOUNDS_SECONDS.length];
+    private static final String[] LATENCY_LABELS = new String[LATENCY_BOUNDS_SECONDS.length];
+    // Statements and entity loads per request; N+1 patterns show up in the upper buckets
+    private static final long[] COUNT_BOUNDS = {0, 1, 2, 3, 5, 10, 25, 50, 100, 250};
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    static {
+        for (int i = 0; i < LATENCY_BOUNDS_SECONDS.length; i++) {
+            LATENCY_BOUNDS_NANOS[i] = (long) (LATENCY_BOUNDS_SECONDS[i] * 1e9);
+            LATENCY_LABELS[i] = Double.toString(LATENCY_BOUNDS_SECONDS[i]);
+        }
+    }
+
+    /**
+     * One request in progress, from the filter's point of view. Only the request thread writes the counters.
+     */
+    public static final class Exchange {
+        private final String method;
+        private final long startNanos = System.nanoTime();
+        private Route route;
+        private long statements;
+        private long entityLoads;
+
+        private Exchange(String method) {
+            this.method = method;
+        }
+    }
+
+    /**
+     * Running totals for one route: completed requests, and the statements and entity loads behind them.
+     */
+    public record RouteTotals(long requests, long statements, long entityLoads) {}
+
+    private record RouteKey(String method, String route) {}
+
+    private static final class Route {
+        final RouteKey key;
+        final Histogram latencyNanos = new Histogram(LATENCY_BOUNDS_NANOS, LATENCY_LABELS);
+        final Histogram statements = new Histogram(COUNT_BOUNDS, null);
+        final Histogram entityLoads = new Histogram(COUNT_BOUNDS, null);
+        final LongAdder[] byStatusClass = adders(STATUS_CLASSES.length);
+        final LongAdder inFlight = new LongAdder();
+
+        Route(RouteKey key) {
+            this.key = key;
+        }
+    }
+
+    // Fixed upper bounds plus +Inf; buckets are stored per range and summed up when rendered.
+    // labels are the "le" values to print, when they differ from the bounds (latency is kept in nanoseconds)
+    private static final class Histogram {
+        final long[] bounds;
+        final String[] labels;
+        final LongAdder[] buckets;
+        final LongAdder sum = new LongAdder();
+
+        Histogram(long[] bounds, String[] labels) {
+            this.bounds = bounds;
+            this.labels = labels;
+            this.buckets = adders(bounds.length + 1);
+        }
+
+        void observe(long value) {
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            sum.add(value);
+        }
+    }
+
+    private final Map<RouteKey, Route> routes = new ConcurrentHashMap<>();
+    private final ThreadLocal<Exchange> current = new ThreadLocal<>();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder statementsOutsideRequests = new LongAdder();
+    private final LongAdder entityLoadsOutsideRequests = new LongAdder();
+
+    /**
+     * A request arrived on this thread. Pair with detach() on the same thread and finish() once it completes.
+     */
+    public Exchange begin(String method) {
+        Exchange exchange = new Exchange(switch (method) {
+            case "GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS" -> method;
+            default -> "OTHER"; // clients can send any token; keep the label set bounded
+        });
+        current.set(exchange);
+        inFlight.increment();
+        return exchange;
+    }
+
+    /**
+     * The request on this thread was matched to a handler with this path pattern.
+     */
+    public void routeMatched(String pattern) {
+        Exchange exchange = current.get();
+        if (exchange != null && exchange.route == null && pattern != null) {
+            exchange.route = route(exchange.method, pattern);
+            exchange.route.inFlight.increment();
+        }
+    }
+
+    // Stop attributing statements on this thread to the request; it may still be running asynchronously
+    public void detach() {
+        current.remove();
+    }
+
+    public void finish(Exchange exchange, int status) {
+        long elapsed = System.nanoTime() - exchange.startNanos;
+        inFlight.decrement();
+        Route route = exchange.route;
+        if (route != null) {
+            route.inFlight.decrement();
+        } else {
+            route = route(exchange.method, UNMATCHED);
+        }
+        route.latencyNanos.observe(elapsed);
+        route.statements.observe(exchange.statements);
+        route.entityLoads.observe(exchange.entityLoads);
+        route.byStatusClass[Math.max(1, Math.min(status / 100, 5)) - 1].increment();
+    }
+
+    // Hibernate hooks, called on whichever thread runs the session
+    public void statementPrepared() {
+        Exchange exchange = current.get();
+        if (exchange != null) {
+            exchange.statements++;
+        } else {
+            statementsOutsideRequests.increment();
+        }
+    }
+
+    public void entityLoaded() {
+        Exchange exchange = current.get();
+        if (exchange != null) {
+            exchange.entityLoads++;
+        } else {
+            entityLoadsOutsideRequests.increment();
+        }
+    }
+
+    public RouteTotals totals(String method, String route) {
+        Route found = routes.get(new RouteKey(method, route));
+        if (found == null) {
+            return new RouteTotals(0, 0, 0);
+        }
+        long requests = 0;
+        for (LongAdder bucket : found.statements.buckets) {
+            requests += bucket.sum();
+        }
+        return new RouteTotals(requests, found.statements.sum.sum(), found.entityLoads.sum.sum());
+    }
+
+    private Route route(String method, String pattern) {
+        RouteKey key = new RouteKey(method, pattern);
+        Route route = routes.get(key);
+        return route != null ? route : routes.computeIfAbsent(key, Route::new);
+    }
+
+    /**
+     * Everything recorded so far in the Prometheus text exposition format (version 0.0.4).
+     */
+    public String scrape() {
+        List<Route> sorted = new ArrayList<>(routes.values());
+        sorted.sort(Comparator.comparing((Route route) -> route.key.route()).thenComparing(route -> route.key.method()));
+        StringBuilder out = new StringBuilder(4096 + sorted.size() * 2048);
+
+        header(out, "http_server_requests_seconds", "histogram", "Request latency by route, including filters and security");
+        for (Route route : sorted) {
+            histogram(out, "http_server_requests_seconds", labels(route), route.latencyNanos, 1e-9);
+        }
+        header(out, "http_server_requests_total", "counter", "Completed requests by route and status class");
+        for (Route route : sorted) {
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                long count = route.byStatusClass[i].sum();
+                if (count > 0) {
+                    sample(out, "http_server_requests_total", labels(route) + ",status=\"" + STATUS_CLASSES[i] + "\"", count);
+                }
+            }
+        }
+        header(out, "http_server_requests_in_flight", "gauge", "Requests being handled, by route once a handler is matched");
+        for (Route route : sorted) {
+            if (!UNMATCHED.equals(route.key.route())) {
+                sample(out, "http_server_requests_in_flight", labels(route), route.inFlight.sum());
+            }
+        }
+        header(out, "http_server_requests_in_flight_all", "gauge", "Requests being handled, including ones not yet routed");
+        sample(out, "http_server_requests_in_flight_all", null, inFlight.sum());
+
+        header(out, "http_server_request_statements", "histogram", "JDBC statements prepared by Hibernate per request");
+        for (Route route : sorted) {
+            histogram(out, "http_server_request_statements", labels(route), route.statements, 1);
+        }
+        header(out, "http_server_request_entity_loads", "histogram", "Entities loaded by Hibernate per request");
+        for (Route route : sorted) {
+            histogram(out, "http_server_request_entity_loads", labels(route), route.entityLoads, 1);
+        }
+        header(out, "hibernate_statements_outside_requests_total", "counter", "JDBC statements prepared off the request threads");
+        sample(out, "hibernate_statements_outside_requests_total", null, statementsOutsideRequests.sum());
+        header(out, "hibernate_entity_loads_outside_requests_total", "counter", "Entities loaded off the request threads");
+        sample(out, "hibernate_entity_loads_outside_requests_total", null, entityLoadsOutsideRequests.sum());
+        return out.toString();
+    }
+
+    private static void histogram(StringBuilder out, String name, String labels, Histogram histogram, double scale) {
+        long cumulative = 0;
+        for (int i = 0; i < histogram.buckets.length; i++) {
+            cumulative += histogram.buckets[i].sum();
+            String le = i == histogram.bounds.length ? "+Inf"
+                    : histogram.labels != null ? histogram.labels[i] : Long.toString(histogram.bounds[i]);
+            sample(out, name + "_bucket", labels + ",le=\"" + le + "\"", cumulative);
+        }
+        // The sum is read after the buckets, so under load it can include a few observations the count does not
+        long sum = histogram.sum.sum();
+        out.append(name).append("_sum{").append(labels).append("} ")
+                .append(scale == 1 ? Long.toString(sum) : Double.toString(sum * scale)).append('\n');
+        sample(out, name + "_count", labels, cumulative);
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String labels(Route route) {
+        return "method=\"" + escape(route.key.method()) + "\",route=\"" + escape(route.key.route()) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
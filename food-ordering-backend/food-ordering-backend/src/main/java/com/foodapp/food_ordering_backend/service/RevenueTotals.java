@@ -0,0 +1,49 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+
+/**
+ * Mutable per-status order count and paise total, kept in primitive arrays indexed by status ordinal.
+ * Not thread-safe: fill one per scan (or per thread) and merge.
+ */
+public final class RevenueTotals {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final long[] orders = new long[STATUSES.length];
+    private final long[] paise = new long[STATUSES.length];
+
+    public void add(OrderStatus status, long totalPricePaise) {
+        int i = status.ordinal();
+        orders[i]++;
+        paise[i] = Math.addExact(paise[i], totalPricePaise);
+    }
+
+    public void merge(RevenueTotals other) {
+        for (int i = 0; i < STATUSES.length; i++) {
+            orders[i] += other.orders[i];
+            paise[i] = Math.addExact(paise[i], other.paise[i]);
+        }
+    }
+
+    public long orders(OrderStatus status) {
+        return orders[status.ordinal()];
+    }
+
+    public long paise(OrderStatus status) {
+        return paise[status.ordinal()];
+    }
+
+    // Revenue counts every order that was not cancelled
+    public long revenuePaise() {
+        return PricingCalculator.sum(paise) - paise[OrderStatus.CANCELLED.ordinal()];
+    }
+
+    public long revenueOrders() {
+        long count = 0;
+        for (long n : orders) {
+            count += n;
+        }
+        return count - orders[OrderStatus.CANCELLED.ordinal()];
+    }
+}
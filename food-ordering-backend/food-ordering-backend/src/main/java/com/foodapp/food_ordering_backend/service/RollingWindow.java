@@ -0,0 +1,90 @@
+package com.foodapp.food_ordering_backend.service;
+
+/**
+ * Event counts and latency histograms over a sliding time window, kept as a ring of fixed-width time slots.
+ *
+ * A slot is wiped and reused when the clock comes round to it again, so memory is fixed at one counter and at
+ * most one histogram per slot however many events arrive; a histogram is only allocated once its slot sees a
+ * duration. Reads merge the slots inside the window, so windows are exact to one slot width. Events older than
+ * the ring are dropped.
+ */
+public final class RollingWindow {
+
+    private static final class Slot {
+        long index = Long.MIN_VALUE; // which slotMillis-wide stretch of time this slot currently holds
+        long count;
+        LatencyHistogram latency;
+
+        void reset(long index) {
+            this.index = index;
+            count = 0;
+            if (latency != null) {
+                latency.clear();
+            }
+        }
+    }
+
+    /**
+     * What a window held at the time it was read. latency is a private copy.
+     */
+    public record Snapshot(long count, LatencyHistogram latency) {}
+
+    private final long slotMillis;
+    private final Slot[] slots;
+
+    public RollingWindow(long slotMillis, int slots) {
+        if (slotMillis <= 0 || slots <= 0) {
+            throw new IllegalArgumentException("slotMillis and slots must be positive");
+        }
+        this.slotMillis = slotMillis;
+        this.slots = new Slot[slots];
+        for (int i = 0; i < slots; i++) {
+            this.slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Count one event at atMillis; a latencyMillis of 0 or more also goes into that slot's histogram.
+     */
+    public void record(long atMillis, long latencyMillis) {
+        long index = Math.floorDiv(atMillis, slotMillis);
+        Slot slot = slots[(int) Math.floorMod(index, (long) slots.length)];
+        synchronized (slot) {
+            if (slot.index != index) {
+                if (slot.index > index) {
+                    return; // the ring has already moved past this event
+                }
+                slot.reset(index);
+            }
+            slot.count++;
+            if (latencyMillis >= 0) {
+                if (slot.latency == null) {
+                    slot.latency = new LatencyHistogram();
+                }
+                slot.latency.record(latencyMillis);
+            }
+        }
+    }
+
+    /**
+     * Everything recorded in the windowMillis up to nowMillis, in whole slots: the current, partly filled slot
+     * plus as many before it as make up the window. Capped at the length of the ring.
+     */
+    public Snapshot snapshot(long nowMillis, long windowMillis) {
+        long newest = Math.floorDiv(nowMillis, slotMillis);
+        long oldest = newest - Math.min(Math.max(1, windowMillis / slotMillis), slots.length) + 1;
+        long count = 0;
+        LatencyHistogram latency = new LatencyHistogram();
+        for (Slot slot : slots) {
+            synchronized (slot) {
+                if (slot.index >= oldest && slot.index <= newest) {
+                    count += slot.count;
+                    if (slot.latency != null) {
+                        latency.add(slot.latency);
+                    }
+                }
+            }
+        }
+        return new Snapshot(count, latency);
+    }
+}
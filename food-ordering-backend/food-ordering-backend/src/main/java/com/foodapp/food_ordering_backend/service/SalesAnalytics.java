@@ -0,0 +1,519 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.SalesStats;
+import com.foodapp.food_ordering_backend.event.OrderDeletedEvent;
+import com.foodapp.food_ordering_backend.event.OrderStatusChangedEvent;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.OrderItemRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Sales counters kept up to date as orders are checked out and change status, so GET /orders/stats never
+ * scans the orders table.
+ *
+ * Every counter is a LongAdder, so concurrent checkouts add into their own cells instead of contending on one
+ * cache line, and every event only adds or subtracts, so the counters end up right whatever order events arrive
+ * in. Per status: orders, units and paise. Per food: units and paise of orders that were not cancelled, and of
+ * those that were; a cancellation reads the order's lines back (one indexed query) to move them across.
+ * Categories are summed from the food counters at read time using the current menu, so re-categorising a dish
+ * takes its history with it.
+ *
+ * Reads never block writers. Writers add into the current epoch's counters; a read installs a fresh epoch, waits
+ * for the few updates already inside the old one to finish, and folds the old one into running totals that only
+ * readers touch. Every update lands wholly in one epoch, so the figures in one response always add up.
+ *
+ * reconcile() reloads everything from the database, on start and on demand; order items edited outside checkout
+ * are only picked up there. Orders keep changing while it scans, so from just before the scan until the reload
+ * is installed every change is also logged. The scan reads one snapshot, and afterwards the statuses of the
+ * logged orders are read from that same snapshot. A logged change is then replayed onto the reload only if it
+ * committed after the snapshot: statuses only move forward, so that is when the order's status in the snapshot
+ * is not yet the change's new status or one after it. Logging only stops once every transaction that was
+ * committing when the snapshot was taken has been counted, so no change is lost or counted twice.
+ */
+@Service
+public class SalesAnalytics implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesAnalytics.class);
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int SPINS_BEFORE_YIELD = 1000;
+    private static final int STATUS_LOOKUP_BATCH = 1000;
+    private static final long COMMIT_WAIT_MILLIS = 5000;
+
+    private static final class FoodCounters {
+        final LongAdder units = new LongAdder();
+        final LongAdder paise = new LongAdder();
+        final LongAdder cancelledUnits = new LongAdder();
+        final LongAdder cancelledPaise = new LongAdder();
+
+        void add(long unitCount, long totalPaise, boolean cancelled) {
+            (cancelled ? cancelledUnits : units).add(unitCount);
+            (cancelled ? cancelledPaise : paise).add(totalPaise);
+        }
+    }
+
+    // One change counted while reconcile() was scanning: previous is null for a checkout, next for a delete
+    private record LoggedChange(Long orderId, OrderStatus previous, OrderStatus next, Consumer<Epoch> change) {}
+
+    // Changes made since the previous read. started/finished bracket every update so a reader can tell when
+    // the updates that got into this epoch before it was retired are all done. log is set while reconcile()
+    // is scanning, and shared by every epoch until it is done
+    private static final class Epoch {
+        final LongAdder[] orders = adders();
+        final LongAdder[] units = adders();
+        final LongAdder[] paise = adders();
+        final Map<Long, FoodCounters> foods = new ConcurrentHashMap<>();
+        final LongAdder started = new LongAdder();
+        final LongAdder finished = new LongAdder();
+        final Queue<LoggedChange> log;
+
+        Epoch(Queue<LoggedChange> log) {
+            this.log = log;
+        }
+
+        void add(OrderStatus status, long orderCount, long unitCount, long totalPaise) {
+            int i = status.ordinal();
+            orders[i].add(orderCount);
+            units[i].add(unitCount);
+            paise[i].add(totalPaise);
+        }
+
+        FoodCounters food(Long foodId) {
+            return foods.computeIfAbsent(foodId, id -> new FoodCounters());
+        }
+
+        private static LongAdder[] adders() {
+            LongAdder[] adders = new LongAdder[STATUSES.length];
+            for (int i = 0; i < adders.length; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+
+    // Running totals up to the last retired epoch; only touched holding readLock
+    private static final class Totals {
+        final long[] orders = new long[STATUSES.length];
+        final long[] units = new long[STATUSES.length];
+        final long[] paise = new long[STATUSES.length];
+        final Map<Long, long[]> foods = new HashMap<>(); // units, paise, cancelled units, cancelled paise
+        final long loadedAtMillis;
+
+        Totals(long loadedAtMillis) {
+            this.loadedAtMillis = loadedAtMillis;
+        }
+
+        void add(OrderStatus status, long orderCount, long unitCount, long totalPaise) {
+            int i = status.ordinal();
+            orders[i] += orderCount;
+            units[i] += unitCount;
+            paise[i] += totalPaise;
+        }
+
+        void addFood(Long foodId, long unitCount, long totalPaise, boolean cancelled) {
+            long[] food = foods.computeIfAbsent(foodId, id -> new long[4]);
+            food[cancelled ? 2 : 0] += unitCount;
+            food[cancelled ? 3 : 1] += totalPaise;
+        }
+
+        void fold(Epoch epoch) {
+            for (int i = 0; i < STATUSES.length; i++) {
+                orders[i] += epoch.orders[i].sum();
+                units[i] += epoch.units[i].sum();
+                paise[i] += epoch.paise[i].sum();
+            }
+            epoch.foods.forEach((foodId, counters) -> {
+                long[] food = foods.computeIfAbsent(foodId, id -> new long[4]);
+                food[0] += counters.units.sum();
+                food[1] += counters.paise.sum();
+                food[2] += counters.cancelledUnits.sum();
+                food[3] += counters.cancelledPaise.sum();
+            });
+            // Foods whose only orders were deleted
+            foods.values().removeIf(food -> food[0] == 0 && food[1] == 0 && food[2] == 0 && food[3] == 0);
+        }
+
+        boolean sameCounts(Totals other) {
+            if (!Arrays.equals(orders, other.orders) || !Arrays.equals(units, other.units)
+                    || !Arrays.equals(paise, other.paise) || !foods.keySet().equals(other.foods.keySet())) {
+                return false;
+            }
+            for (Map.Entry<Long, long[]> food : foods.entrySet()) {
+                if (!Arrays.equals(food.getValue(), other.foods.get(food.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * What an order currently adds to the counters, looked up before the order is deleted.
+     */
+    public record Contribution(OrderStatus status, int itemCount, long totalPricePaise,
+                               List<OrderItemRepository.OrderLineRow> lines) {}
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final MenuSnapshotService menuSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object readLock = new Object();
+    private final Object reconcileLock = new Object(); // one reload (and change log) at a time
+    private final Set<Object> committing = ConcurrentHashMap.newKeySet();
+    private Totals totals = new Totals(System.currentTimeMillis());
+    private volatile Epoch current = new Epoch(null);
+    private volatile boolean running;
+
+    public SalesAnalytics(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                          MenuSnapshotService menuSnapshotService, PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.menuSnapshotService = menuSnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // The scan and the status lookup after it must read the same snapshot
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        OrderStatus next = event.newStatus();
+        if (event.previousStatus() == null) {
+            boolean cancelled = next == OrderStatus.CANCELLED;
+            afterCommit(() -> update(event.orderId(), null, next, epoch -> {
+                epoch.add(next, 1, event.itemCount(), event.totalPricePaise());
+                event.foodQuantities().forEach((foodId, quantity) -> epoch.food(foodId)
+                        .add(quantity, event.foodPricePaise().getOrDefault(foodId, 0L), cancelled));
+            }));
+            return;
+        }
+        // Read a cancelled order's lines now, in its transaction, so a reader never waits on the query
+        List<OrderItemRepository.OrderLineRow> cancelledLines = next == OrderStatus.CANCELLED
+                ? orderItemRepository.findLinesByOrderId(event.orderId()) : List.of();
+        afterCommit(() -> update(event.orderId(), event.previousStatus(), next, epoch -> {
+            epoch.add(event.previousStatus(), -1, -event.itemCount(), -event.totalPricePaise());
+            epoch.add(next, 1, event.itemCount(), event.totalPricePaise());
+            for (OrderItemRepository.OrderLineRow line : cancelledLines) {
+                FoodCounters food = epoch.food(line.getFoodId());
+                food.add(-line.getQuantity(), -line.getPricePaise(), false);
+                food.add(line.getQuantity(), line.getPricePaise(), true);
+            }
+        }));
+    }
+
+    public Optional<Contribution> contributionOf(Long orderId) {
+        return orderRepository.findSummaryById(orderId).map(summary -> new Contribution(summary.getStatus(),
+                summary.getItemCount().intValue(), summary.getTotalPricePaise(),
+                orderItemRepository.findLinesByOrderId(orderId)));
+    }
+
+    /**
+     * Take a deleted order off the counters.
+     */
+    @EventListener
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        if (event.sales() != null) {
+            afterCommit(() -> orderDeleted(event.orderId(), event.sales()));
+        }
+    }
+
+    // Like @TransactionalEventListener(fallbackExecution = true), but the transaction is counted as committing
+    // from the moment it publishes until its change has been counted (or it rolled back), so reconcile() can wait
+    // for changes that made it into its snapshot but not yet into the counters
+    private void afterCommit(Runnable count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count.run();
+            return;
+        }
+        Object token = new Object();
+        committing.add(token);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                committing.remove(token);
+            }
+        });
+    }
+
+    void orderDeleted(Long orderId, Contribution order) {
+        boolean cancelled = order.status() == OrderStatus.CANCELLED;
+        update(orderId, order.status(), null, epoch -> {
+            epoch.add(order.status(), -1, -order.itemCount(), -order.totalPricePaise());
+            for (OrderItemRepository.OrderLineRow line : order.lines()) {
+                epoch.food(line.getFoodId()).add(-line.getQuantity(), -line.getPricePaise(), cancelled);
+            }
+        });
+    }
+
+    /**
+     * Consistent view of the counters, with names and categories from the current menu.
+     */
+    public SalesStats stats() {
+        Totals snapshot;
+        synchronized (readLock) {
+            snapshot = drain();
+        }
+        return toStats(snapshot);
+    }
+
+    /**
+     * Reload every counter from the orders tables. Logs a warning when the live counters had drifted from
+     * the database.
+     */
+    public SalesStats reconcile() {
+        synchronized (reconcileLock) {
+            return reload();
+        }
+    }
+
+    private SalesStats reload() {
+        Queue<LoggedChange> changes = new ConcurrentLinkedQueue<>();
+        synchronized (readLock) {
+            drain(changes);
+        }
+        record Reload(Totals live, Totals fresh) {}
+        Totals fresh = new Totals(System.currentTimeMillis());
+        Reload reload = transactionTemplate.execute(tx -> {
+            for (OrderRepository.StatusTotalsRow row : orderRepository.sumTotalsByStatus()) {
+                fresh.add(row.getStatus(), row.getOrders(), 0, row.getPaise());
+            }
+            // The snapshot is taken by the first read: whatever committed before it is counted or committing now
+            Set<Object> committedBefore = Set.copyOf(committing);
+            for (OrderItemRepository.FoodStatusTotalsRow row : orderItemRepository.sumLinesByFoodAndStatus()) {
+                fresh.add(row.getStatus(), 0, row.getUnits(), 0);
+                if (row.getFoodId() != null) {
+                    fresh.addFood(row.getFoodId(), row.getUnits(), row.getPaise(), row.getStatus() == OrderStatus.CANCELLED);
+                }
+            }
+            awaitCounted(committedBefore);
+            // Held until the reload is installed, so no reader folds later changes into the totals being replaced
+            synchronized (readLock) {
+                Totals live = drain(null);
+                replayOnto(fresh, changes);
+                totals = fresh;
+                return new Reload(live, copyOf(fresh));
+            }
+        });
+        if (running && !reload.live().sameCounts(reload.fresh())) {
+            log.warn("Sales counters had drifted from the database and were reloaded: {} orders counted, {} in the database",
+                    sum(reload.live().orders), sum(reload.fresh().orders));
+        }
+        log.info("Sales counters reconciled: {} orders, {} foods", sum(reload.fresh().orders),
+                reload.fresh().foods.size());
+        return toStats(reload.fresh());
+    }
+
+    // Wait until these transactions' changes are counted (and so logged), so none is counted again after the reload
+    private void awaitCounted(Set<Object> transactions) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COMMIT_WAIT_MILLIS);
+        while (transactions.stream().anyMatch(committing::contains)) {
+            if (System.nanoTime() > deadline) {
+                log.warn("Reloading sales counters without waiting any longer for transactions still committing");
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    // Add the logged changes that committed after the snapshot the scan read; must run in the scan's transaction
+    private void replayOnto(Totals fresh, Queue<LoggedChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Set<Long> orderIds = new LinkedHashSet<>();
+        Set<Long> checkedOut = new HashSet<>();
+        for (LoggedChange change : changes) {
+            orderIds.add(change.orderId());
+            if (change.previous() == null) {
+                checkedOut.add(change.orderId());
+            }
+        }
+        Map<Long, OrderStatus> scanned = new HashMap<>();
+        List<Long> ids = new ArrayList<>(orderIds);
+        for (int from = 0; from < ids.size(); from += STATUS_LOOKUP_BATCH) {
+            for (OrderRepository.OrderStatusRow row : orderRepository.findStatusesByIdIn(
+                    ids.subList(from, Math.min(from + STATUS_LOOKUP_BATCH, ids.size())))) {
+                scanned.put(row.getId(), row.getStatus());
+            }
+        }
+        Epoch replay = new Epoch(null);
+        for (LoggedChange change : changes) {
+            OrderStatus status = scanned.get(change.orderId());
+            boolean afterSnapshot = status == null
+                    // Checked out after the snapshot, or deleted before it
+                    ? checkedOut.contains(change.orderId())
+                    // Already there: a checkout, or a move the snapshot had made (or gone past); a delete is not
+                    : change.next() == null || (change.previous() != null && !reaches(change.next(), status));
+            if (afterSnapshot) {
+                change.change().accept(replay);
+            }
+        }
+        fresh.fold(replay);
+    }
+
+    private static boolean reaches(OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return true;
+        }
+        for (OrderStatus next : from.nextStatuses()) {
+            if (reaches(next, to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Apply one update to the current epoch. If a reader retires the epoch between picking it and getting in,
+    // back out and use the new one, so nothing is written to an epoch a reader may already have folded
+    private void update(Long orderId, OrderStatus previous, OrderStatus next, Consumer<Epoch> change) {
+        Epoch epoch;
+        while (true) {
+            epoch = current;
+            epoch.started.increment();
+            if (current == epoch) {
+                break;
+            }
+            epoch.finished.increment();
+        }
+        try {
+            change.accept(epoch);
+            if (epoch.log != null) {
+                epoch.log.add(new LoggedChange(orderId, previous, next, change));
+            }
+        } finally {
+            epoch.finished.increment();
+        }
+    }
+
+    // Retire the current epoch, wait out the updates still inside it and fold it into the totals.
+    // Must be called holding readLock; returns a copy of the totals
+    private Totals drain() {
+        return drain(current.log);
+    }
+
+    // Same, giving the next epoch this change log (null to stop logging)
+    private Totals drain(Queue<LoggedChange> log) {
+        Epoch retired = current;
+        current = new Epoch(log);
+        // Both counts only grow: reading finished before started, equality means none was in flight
+        // at that point, and anything that gets into the retired epoch afterwards backs straight out
+        for (int spins = 1; retired.finished.sum() != retired.started.sum(); spins++) {
+            if (spins % SPINS_BEFORE_YIELD == 0) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        totals.fold(retired);
+        return copyOf(totals);
+    }
+
+    private static Totals copyOf(Totals source) {
+        Totals copy = new Totals(source.loadedAtMillis);
+        System.arraycopy(source.orders, 0, copy.orders, 0, STATUSES.length);
+        System.arraycopy(source.units, 0, copy.units, 0, STATUSES.length);
+        System.arraycopy(source.paise, 0, copy.paise, 0, STATUSES.length);
+        source.foods.forEach((foodId, food) -> copy.foods.put(foodId, food.clone()));
+        return copy;
+    }
+
+    private SalesStats toStats(Totals reading) {
+        Map<Long, MenuItem> menu = menuSnapshotService.current().getItemsById();
+
+        Map<OrderStatus, SalesStats.StatusSales> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : STATUSES) {
+            int i = status.ordinal();
+            byStatus.put(status, new SalesStats.StatusSales(reading.orders[i], reading.units[i], reading.paise[i]));
+        }
+
+        List<SalesStats.FoodSales> byFood = new ArrayList<>(reading.foods.size());
+        Map<String, long[]> categoryTotals = new HashMap<>();
+        reading.foods.forEach((foodId, food) -> {
+            MenuItem item = menu.get(foodId);
+            String category = item != null ? item.category() : null;
+            byFood.add(new SalesStats.FoodSales(foodId, item != null ? item.name() : null, category,
+                    food[0], food[1], food[2], food[3]));
+            long[] sums = categoryTotals.computeIfAbsent(category, c -> new long[2]);
+            sums[0] += food[0];
+            sums[1] += food[1];
+        });
+        byFood.sort(Comparator.comparingLong(SalesStats.FoodSales::revenuePaise).reversed()
+                .thenComparing(SalesStats.FoodSales::foodId));
+
+        List<SalesStats.CategorySales> byCategory = new ArrayList<>(categoryTotals.size());
+        categoryTotals.forEach((category, sums) -> byCategory.add(new SalesStats.CategorySales(category, sums[0], sums[1])));
+        byCategory.sort(Comparator.comparingLong(SalesStats.CategorySales::revenuePaise).reversed()
+                .thenComparing(SalesStats.CategorySales::category, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        int cancelled = OrderStatus.CANCELLED.ordinal();
+        return new SalesStats(sum(reading.orders) - reading.orders[cancelled],
+                sum(reading.units) - reading.units[cancelled],
+                PricingCalculator.sum(reading.paise) - reading.paise[cancelled],
+                byStatus, byCategory, byFood, reading.loadedAtMillis);
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Override
+    public void start() {
+        reconcile();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Load before the web server so no checkout can slip in between the reload and the first event
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+}
@@ -0,0 +1,124 @@
+package com.foodapp.food_ordering_backend.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Bounded map for in-memory caches, split by key hash into access-ordered LinkedHashMap segments, each behind
+ * its own lock. Once a segment is full, an insert pushes out its least recently used entries, no scan of the
+ * whole cache. Entries the evictable test rejects (work still in flight) are stepped over and stay, so a
+ * segment can briefly hold more than its share while they finish.
+ */
+public final class SegmentedLruCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Segment<K, V>[] segments;
+
+    public SegmentedLruCache(int capacity) {
+        this(capacity, value -> true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SegmentedLruCache(int capacity, Predicate<? super V> evictable) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int count = Math.clamp(capacity / MIN_SEGMENT_SIZE, 1, MAX_SEGMENTS);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // Spread the remainder so the segments add up to capacity exactly
+            segments[i] = new Segment<>(capacity / count + (i < capacity % count ? 1 : 0), evictable);
+        }
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+        private final int capacity;
+        private final Predicate<? super V> evictable;
+
+        Segment(int capacity, Predicate<? super V> evictable) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictable = evictable;
+        }
+
+        // Walks from the least recently used end, so this only goes past the eldest entry when it must stay;
+        // the entry just inserted, at the other end, is never a candidate
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            Iterator<V> it = values().iterator();
+            for (int older = size() - 1; size() > capacity && older > 0; older--) {
+                if (evictable.test(it.next())) {
+                    it.remove();
+                }
+            }
+            return false;
+        }
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Atomically replace the value for key with remapping(key, current value or null); null removes it.
+     * Runs under the segment's lock, so remapping must be quick and must not touch the cache.
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.compute(key, remapping);
+        }
+    }
+
+    public V remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    public boolean remove(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key, value);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+}
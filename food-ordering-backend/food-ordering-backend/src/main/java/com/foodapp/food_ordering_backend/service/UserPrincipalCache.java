@@ -0,0 +1,76 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.model.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of the user fields needed to authenticate (username, password hash, role).
+ *
+ * Only plain values are cached, never UserDetails objects: Spring Security erases credentials on the
+ * UserDetails it authenticated, which would corrupt a shared cached instance.
+ * Anything that changes a user's password or role must call evict() once the change is committed.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final long TTL_MILLIS = 5 * 60 * 1000; // 5 minutes
+
+    public record CachedUser(String username, String password, String role) {
+        static CachedUser from(User user) {
+            return new CachedUser(user.getUsername(), user.getPassword(), user.getRole());
+        }
+    }
+
+    private record Entry(CachedUser user, long expiresAtMillis) {}
+
+    private final SegmentedLruCache<String, Entry> entries;
+    private final long ttlMillis;
+
+    // Bumped by every eviction, so a load that was already running when one happened is not cached after it
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserPrincipalCache() {
+        this(MAX_ENTRIES, TTL_MILLIS);
+    }
+
+    UserPrincipalCache(int maxEntries, long ttlMillis) {
+        this.entries = new SegmentedLruCache<>(maxEntries);
+        this.ttlMillis = ttlMillis;
+    }
+
+    public Optional<CachedUser> get(String username, Function<String, Optional<User>> loader) {
+        return get(username, loader, System.currentTimeMillis());
+    }
+
+    Optional<CachedUser> get(String username, Function<String, Optional<User>> loader, long now) {
+        Entry entry = entries.get(username);
+        if (entry != null && now < entry.expiresAtMillis()) {
+            return Optional.of(entry.user());
+        }
+
+        long seen = evictions.get();
+        Optional<CachedUser> loaded = loader.apply(username).map(CachedUser::from);
+        // Checked under the segment lock that evict() also takes: if an eviction came in while loading, what
+        // was loaded may predate the password or role change, so it is returned this once but not kept
+        entries.compute(username, (key, current) -> evictions.get() != seen ? current
+                : loaded.map(user -> new Entry(user, now + ttlMillis)).orElse(null));
+        return loaded;
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            evictions.incrementAndGet();
+            entries.remove(username);
+        }
+    }
+
+    public void evictAll() {
+        evictions.incrementAndGet();
+        entries.clear();
+    }
+}
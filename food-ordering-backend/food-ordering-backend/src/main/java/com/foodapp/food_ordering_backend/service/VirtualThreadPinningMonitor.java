@@ -0,0 +1,147 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.ConcurrencyReport;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches for virtual threads pinned to their carrier thread (blocking inside synchronized or a native frame),
+ * which quietly turns a virtual thread back into a scarce platform thread. Runs an in-process JFR stream on
+ * jdk.VirtualThreadPinned when spring.threads.virtual.enabled is on, groups the events by the innermost frame
+ * of our own code, and logs each new site once with its stack.
+ */
+@Service
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String OWN_PACKAGE = "com.foodapp.";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final boolean virtualThreads;
+    private final boolean enabled;
+    private final long thresholdMillis;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+
+    private volatile RecordingStream stream;
+    private volatile boolean running;
+
+    public VirtualThreadPinningMonitor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       @Value("${virtual-threads.pinning.enabled:true}") boolean enabled,
+                                       @Value("${virtual-threads.pinning.threshold-ms:20}") long thresholdMillis) {
+        this.virtualThreads = virtualThreads;
+        this.enabled = enabled;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public ConcurrencyReport.Pinning report() {
+        List<ConcurrencyReport.Site> report = new ArrayList<>();
+        sites.forEach((frame, site) -> report.add(new ConcurrencyReport.Site(frame, site.count.sum(),
+                site.totalNanos.sum() / 1_000_000, site.maxNanos.get() / 1_000_000, site.stackTrace)));
+        report.sort(Comparator.comparingLong(ConcurrencyReport.Site::totalMillis).reversed());
+        return new ConcurrencyReport.Pinning(stream != null, thresholdMillis, events.sum(), report);
+    }
+
+    void record(String frame, List<String> stackTrace, Duration duration) {
+        events.increment();
+        Site site = sites.get(frame);
+        if (site == null) {
+            Site created = new Site(stackTrace);
+            site = sites.putIfAbsent(frame, created);
+            if (site == null) {
+                site = created;
+                log.warn("Virtual thread pinned to its carrier for {} ms at {}:\n\tat {}",
+                        duration.toMillis(), frame, String.join("\n\tat ", stackTrace));
+            }
+        }
+        site.count.increment();
+        site.totalNanos.add(duration.toNanos());
+        site.maxNanos.accumulate(duration.toNanos());
+    }
+
+    private void pinned(RecordedEvent event) {
+        RecordedStackTrace trace = event.getStackTrace();
+        List<RecordedFrame> frames = trace == null ? List.of() : trace.getFrames();
+        String site = null;
+        List<String> stackTrace = new ArrayList<>();
+        for (RecordedFrame frame : frames) {
+            String line = frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                    + ":" + frame.getLineNumber();
+            if (stackTrace.size() < LOGGED_FRAMES) {
+                stackTrace.add(line);
+            }
+            if (site == null && line.startsWith(OWN_PACKAGE)) {
+                site = line;
+            }
+        }
+        if (site == null) {
+            site = stackTrace.isEmpty() ? "(no stack trace)" : stackTrace.get(0);
+        }
+        record(site, stackTrace, event.getDuration());
+    }
+
+    @Override
+    public void start() {
+        if (virtualThreads && enabled) {
+            try {
+                RecordingStream recording = new RecordingStream();
+                recording.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+                recording.onEvent(PINNED_EVENT, this::pinned);
+                recording.startAsync();
+                stream = recording;
+                log.info("Watching for virtual threads pinned longer than {} ms", thresholdMillis);
+            } catch (RuntimeException e) {
+                log.warn("Could not start JFR for pinning detection, running without it", e);
+            }
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static final class Site {
+        final List<String> stackTrace;
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        Site(List<String> stackTrace) {
+            this.stackTrace = List.copyOf(stackTrace);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Store money as whole paise instead of DOUBLE rupees (MySQL)
+-- Run once before starting the new version against an existing database.
+-- Existing amounts are rounded to the nearest paisa.
+
+ALTER TABLE food ADD COLUMN price_paise BIGINT NOT NULL DEFAULT 0;
+UPDATE food SET price_paise = ROUND(price * 100);
+ALTER TABLE food DROP COLUMN price;
+
+ALTER TABLE orders ADD COLUMN total_price_paise BIGINT NOT NULL DEFAULT 0;
+UPDATE orders SET total_price_paise = ROUND(total_price * 100);
+ALTER TABLE orders DROP COLUMN total_price;
+
+ALTER TABLE order_item
+ADD COLUMN price_paise BIGINT NOT NULL DEFAULT 0,
+ADD COLUMN food_price_paise BIGINT NOT NULL DEFAULT 0;
+UPDATE order_item SET price_paise = ROUND(price * 100), food_price_paise = ROUND(COALESCE(food_price, 0) * 100);
+ALTER TABLE order_item DROP COLUMN price, DROP COLUMN food_price;
@@ -0,0 +1,6 @@
+-- Add the checkout idempotency key to orders (MySQL)
+-- Run once before starting the new version against an existing database.
+-- Existing orders keep NULL, which the unique index allows any number of times.
+
+ALTER TABLE orders ADD COLUMN idempotency_key VARCHAR(191) NULL;
+ALTER TABLE orders ADD CONSTRAINT uk_orders_idempotency_key UNIQUE (idempotency_key);
@@ -0,0 +1,7 @@
+-- Indexes for per-food order lookups and status filters (MySQL)
+-- Run once before starting the new version against an existing database.
+-- InnoDB may already have an index on order_item(order_id) from its foreign key; if so, skip that line.
+
+CREATE INDEX idx_order_item_food_id ON order_item (food_id);
+CREATE INDEX idx_order_item_order_id ON order_item (order_id);
+CREATE INDEX idx_orders_status ON orders (status);
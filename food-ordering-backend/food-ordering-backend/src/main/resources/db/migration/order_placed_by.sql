@@ -0,0 +1,6 @@
+-- Record which account placed each order (MySQL)
+-- Run once before starting the new version against an existing database.
+-- customer_name is free text typed by the client, so existing orders are not backfilled from it:
+-- they keep placed_by NULL and only show up in admins' live order streams.
+
+ALTER TABLE orders ADD COLUMN placed_by VARCHAR(255) NULL;
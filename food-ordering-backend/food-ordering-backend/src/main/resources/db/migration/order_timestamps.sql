@@ -0,0 +1,9 @@
+-- Add the placement and per-status timestamps to orders (MySQL)
+-- Run once before starting the new version against an existing database.
+-- Existing orders keep NULL: their history is unknown and the flow metrics skip them.
+
+ALTER TABLE orders ADD COLUMN created_at DATETIME(6) NULL;
+ALTER TABLE orders ADD COLUMN confirmed_at DATETIME(6) NULL;
+ALTER TABLE orders ADD COLUMN preparing_at DATETIME(6) NULL;
+ALTER TABLE orders ADD COLUMN delivered_at DATETIME(6) NULL;
+ALTER TABLE orders ADD COLUMN cancelled_at DATETIME(6) NULL;
@@ -0,0 +1,5 @@
+-- Add the optimistic-locking version column to orders (MySQL)
+-- Run once before starting the new version against an existing database;
+-- existing orders start at version 0.
+
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,21 @@
+-- Switch Food, Order, OrderItem and User from IDENTITY to pooled sequence ids (MySQL)
+-- MySQL has no sequences, so Hibernate emulates each one with a single-row table.
+-- Run once before starting the new version against an existing database;
+-- the start values skip past the current max id plus one allocation block (50).
+
+CREATE TABLE IF NOT EXISTS food_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS order_item_seq (next_val BIGINT);
+CREATE TABLE IF NOT EXISTS users_seq (next_val BIGINT);
+
+DELETE FROM food_seq;
+DELETE FROM orders_seq;
+DELETE FROM order_item_seq;
+DELETE FROM users_seq;
+
+INSERT INTO food_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM food;
+INSERT INTO orders_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM orders;
+INSERT INTO order_item_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM order_item;
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM users;
+
+-- The id columns no longer need AUTO_INCREMENT (harmless if left in place)
@@ -4,10 +4,14 @@ const API_BASE_URL = window.location.origin;
 // Global state
 let cart = [];
 let foods = [];
+let menuFoods = null; // the slice shown on the menu while a category or price filter is set
 let orders = [];
+let ordersCursor = null; // nextCursor of the oldest page loaded, null once every order is shown
 let users = [];
 let currentUser = null;
 let authToken = null;
+let orderStream = null;
+let pendingCheckout = null;
 
 // Initialize the application
 document.addEventListener('DOMContentLoaded', function() {
@@ -227,6 +231,7 @@ function checkExistingAuth() {
 }
 
 function clearAuthData() {
+    stopOrderStream();
     authToken = null;
     currentUser = null;
     localStorage.removeItem('authToken');
@@ -341,8 +346,8 @@ async function apiCall(endpoint, options = {}) {
         }
         
         const response = await fetch(`${API_BASE_URL}${endpoint}`, {
-            headers: headers,
-            ...options
+            ...options,
+            headers: headers
         });
         
         if (!response.ok) {
@@ -394,13 +399,18 @@ async function apiCall(endpoint, options = {}) {
 async function loadFoods() {
     try {
         foods = await apiCall('/foods');
-        displayFoods();
         displayAdminFoods();
+        await loadMenuPage();
     } catch (error) {
         console.error('Failed to load foods:', error);
     }
 }
 
+// Prices travel as whole paise; only the display divides by 100
+function formatRupees(paise) {
+    return `₹${(paise / 100).toFixed(2)}`;
+}
+
 function displayFoods() {
     const menuItems = document.getElementById('menuItems');
     if (!menuItems) return;
@@ -420,11 +430,12 @@ function displayFoods() {
         menuItems.appendChild(guestNotice);
     }
     
-    foods.forEach(food => {
+    (menuFoods || foods).forEach(food => {
         const foodCard = document.createElement('div');
         foodCard.className = 'menu-item';
+        foodCard.setAttribute('data-food-id', food.id);
         foodCard.setAttribute('data-category', food.category || '');
-        foodCard.setAttribute('data-price', food.price);
+        foodCard.setAttribute('data-price', food.pricePaise / 100);
         
         // Format category for display
         const categoryDisplay = food.category ? food.category.replace('-', ' ').replace(/\b\w/g, l => l.toUpperCase()) : '';
@@ -434,7 +445,7 @@ function displayFoods() {
                 <h3>${food.name}</h3>
                 ${categoryDisplay ? `<span class="category-badge">${categoryDisplay}</span>` : ''}
             </div>
-            <div class="price">₹${food.price.toFixed(2)}</div>
+            <div class="price">${formatRupees(food.pricePaise)}</div>
             <div class="description">${food.description}</div>
             <div class="quantity-controls">
                 <button class="quantity-btn" onclick="changeQuantity(${food.id}, -1)">-</button>
@@ -463,7 +474,7 @@ function displayAdminFoods() {
         adminItem.innerHTML = `
             <div class="admin-item-info">
                 <h4>${food.name}</h4>
-                <p>Price: ₹${food.price.toFixed(2)}</p>
+                <p>Price: ${formatRupees(food.pricePaise)}</p>
                 <p>${food.description}</p>
                 <small class="delete-info">
                     <i class="fas fa-info-circle"></i> 
@@ -492,7 +503,7 @@ function changeQuantity(foodId, change) {
 }
 
 function addToCart(foodId) {
-    const food = foods.find(f => f.id === foodId);
+    const food = foods.find(f => f.id === foodId) || (menuFoods || []).find(f => f.id === foodId);
     const qtyDisplay = document.getElementById(`qty-${foodId}`);
     const quantity = parseInt(qtyDisplay.textContent);
     
@@ -504,7 +515,7 @@ function addToCart(foodId) {
             cart.push({
                 foodId: foodId,
                 name: food.name,
-                price: food.price,
+                pricePaise: food.pricePaise,
                 quantity: quantity
             });
         }
@@ -582,7 +593,7 @@ function updateCartDisplay() {
                         </div>
                     </div>
                     <div>
-                        <div>₹${(item.price * item.quantity).toFixed(2)}</div>
+                        <div>${formatRupees(item.pricePaise * item.quantity)}</div>
                         <button class="btn btn-danger btn-sm" onclick="removeFromCart(${item.foodId})">
                             <i class="fas fa-trash"></i>
                         </button>
@@ -596,7 +607,7 @@ function updateCartDisplay() {
     // Update cart total
     const cartTotal = document.getElementById('cartTotal');
     if (cartTotal) {
-        const total = cart.reduce((sum, item) => sum + (item.price * item.quantity), 0);
+        const total = cart.reduce((sum, item) => sum + (item.pricePaise * item.quantity), 0);
         cartTotal.textContent = total.toFixed(2);
     }
 }
@@ -616,7 +627,7 @@ function updateCheckoutDisplay() {
                 cartItem.className = 'cart-item';
                 cartItem.innerHTML = `
                     <span>${item.name} x ${item.quantity}</span>
-                    <span>₹${(item.price * item.quantity).toFixed(2)}</span>
+                    <span>${formatRupees(item.pricePaise * item.quantity)}</span>
                 `;
                 cartItems.appendChild(cartItem);
             });
@@ -624,7 +635,7 @@ function updateCheckoutDisplay() {
     }
     
     if (totalAmount) {
-        const total = cart.reduce((sum, item) => sum + (item.price * item.quantity), 0);
+        const total = cart.reduce((sum, item) => sum + (item.pricePaise * item.quantity), 0);
         totalAmount.textContent = total.toFixed(2);
     }
 }
@@ -666,8 +677,8 @@ function loadPersistedCart() {
             const parsedCart = JSON.parse(persistedCart);
             // Validate cart structure
             if (Array.isArray(parsedCart)) {
-                cart = parsedCart.filter(item => 
-                    item.foodId && item.name && typeof item.price === 'number' && item.quantity > 0
+                cart = parsedCart.map(toPaiseCartItem).filter(item => 
+                    item.foodId && item.name && Number.isInteger(item.pricePaise) && item.quantity > 0
                 );
             }
         }
@@ -677,6 +688,15 @@ function loadPersistedCart() {
     }
 }
 
+// Carts saved before prices moved to paise hold a rupee 'price'
+function toPaiseCartItem(item) {
+    if (item && typeof item.price === 'number' && item.pricePaise === undefined) {
+        const { price, ...rest } = item;
+        return { ...rest, pricePaise: Math.round(price * 100) };
+    }
+    return item;
+}
+
 function mergeGuestCartWithUserCart() {
     try {
         const guestCart = localStorage.getItem('cart_guest');
@@ -684,8 +704,8 @@ function mergeGuestCartWithUserCart() {
         const userCart = localStorage.getItem(userCartKey);
         
         if (guestCart && currentUser) {
-            const guestItems = JSON.parse(guestCart);
-            const userItems = userCart ? JSON.parse(userCart) : [];
+            const guestItems = JSON.parse(guestCart).map(toPaiseCartItem);
+            const userItems = userCart ? JSON.parse(userCart).map(toPaiseCartItem) : [];
             
             // Merge carts, combining quantities for same items
             const mergedCart = [...userItems];
@@ -740,59 +760,109 @@ function goToCheckout() {
 }
 
 // Search and Filter Functionality
+let searchMatches = null; // food ids matching the search box, or null when it is empty
+let searchTimer = null;
+let searchSequence = 0;
+
 function searchFoods() {
-    applyAllFilters();
+    clearTimeout(searchTimer);
+    const query = document.getElementById('searchFood').value.trim();
+    if (query === '') {
+        searchSequence++;
+        searchMatches = null;
+        applyAllFilters();
+        return;
+    }
+    searchTimer = setTimeout(() => runMenuSearch(query), 150);
+}
+
+// Ranked, typo-tolerant matching happens on the server; only the latest query's answer is applied
+async function runMenuSearch(query) {
+    const sequence = ++searchSequence;
+    try {
+        const response = await fetch(`${API_BASE_URL}/foods/search?q=${encodeURIComponent(query)}&limit=100`);
+        if (!response.ok) {
+            throw new Error(`HTTP ${response.status}`);
+        }
+        const result = await response.json();
+        if (sequence === searchSequence) {
+            searchMatches = new Set(result.items.map(item => String(item.id)));
+            applyAllFilters();
+        }
+    } catch (error) {
+        console.error('Menu search failed:', error);
+    }
 }
 
 function filterByCategory() {
-    applyAllFilters();
+    loadMenuPage();
 }
 
 function filterByPrice() {
-    applyAllFilters();
+    loadMenuPage();
+}
+
+// Category and price filtering happen on the server, which sends back just the matching items and facet counts
+async function loadMenuPage() {
+    const category = document.getElementById('categoryFilter').value;
+    const priceRange = document.getElementById('priceFilter').value;
+    if (category === '' && priceRange === '') {
+        menuFoods = null;
+        displayFoods();
+        updateFacetCounts(null);
+        applyAllFilters();
+        return;
+    }
+
+    // Price options read "150-300" or "500+" in rupees; the API takes inclusive bounds in paise
+    const params = new URLSearchParams({ size: 200 });
+    if (category !== '') {
+        params.set('category', category);
+    }
+    if (priceRange !== '') {
+        const [low, high] = priceRange.replace('+', '').split('-');
+        params.set('minPrice', parseInt(low) * 100);
+        if (high) {
+            params.set('maxPrice', parseInt(high) * 100 - 1);
+        }
+    }
+    try {
+        const page = await apiCall(`/foods?${params}`);
+        menuFoods = page.items;
+        displayFoods();
+        updateFacetCounts(page.facets);
+        applyAllFilters();
+    } catch (error) {
+        console.error('Failed to filter menu:', error);
+    }
+}
+
+// Show how many items each filter option would return; null puts the plain labels back
+function updateFacetCounts(facets) {
+    const categoryCounts = new Map((facets ? facets.categories : []).map(c => [c.category, c.count]));
+    document.querySelectorAll('#categoryFilter option').forEach(option => {
+        if (option.value === '') return;
+        option.dataset.label = option.dataset.label || option.textContent;
+        option.textContent = facets ? `${option.dataset.label} (${categoryCounts.get(option.value) || 0})` : option.dataset.label;
+    });
+    const bandCounts = new Map((facets ? facets.priceBands : []).map(b => [b.band, b.count]));
+    document.querySelectorAll('#priceFilter option').forEach(option => {
+        if (option.value === '') return;
+        option.dataset.label = option.dataset.label || option.textContent;
+        option.textContent = facets ? `${option.dataset.label} (${bandCounts.get(option.value) || 0})` : option.dataset.label;
+    });
 }
 
 function applyAllFilters() {
-    const searchTerm = document.getElementById('searchFood').value.toLowerCase();
-    const selectedCategory = document.getElementById('categoryFilter').value;
-    const selectedPriceRange = document.getElementById('priceFilter').value;
     const menuItems = document.querySelectorAll('.menu-item');
     
     menuItems.forEach(item => {
         // Skip guest notice if present
         if (item.classList.contains('guest-notice')) return;
         
-        // Search filter
-        const name = item.querySelector('h3').textContent.toLowerCase();
-        const description = item.querySelector('.description').textContent.toLowerCase();
-        const matchesSearch = searchTerm === '' || name.includes(searchTerm) || description.includes(searchTerm);
-        
-        // Category filter
-        const itemCategory = item.getAttribute('data-category') || '';
-        const matchesCategory = selectedCategory === '' || itemCategory === selectedCategory;
-        
-        // Price filter
-        let matchesPrice = true;
-        if (selectedPriceRange !== '') {
-            const price = parseFloat(item.getAttribute('data-price') || '0');
-            switch (selectedPriceRange) {
-                case 'under-100':
-                    matchesPrice = price < 100;
-                    break;
-                case '100-200':
-                    matchesPrice = price >= 100 && price <= 200;
-                    break;
-                case '200-300':
-                    matchesPrice = price >= 200 && price <= 300;
-                    break;
-                case 'above-300':
-                    matchesPrice = price > 300;
-                    break;
-            }
-        }
-        
-        // Show/hide item based on all filters
-        if (matchesSearch && matchesCategory && matchesPrice) {
+        // Show/hide item based on the search box; the list itself is already category/price filtered
+        const matchesSearch = searchMatches === null || searchMatches.has(item.getAttribute('data-food-id'));
+        if (matchesSearch) {
             item.style.display = 'block';
         } else {
             item.style.display = 'none';
@@ -804,7 +874,8 @@ function clearAllFilters() {
     document.getElementById('searchFood').value = '';
     document.getElementById('categoryFilter').value = '';
     document.getElementById('priceFilter').value = '';
-    applyAllFilters();
+    searchFoods();
+    loadMenuPage();
 }
 
 // Food Modal Functions
@@ -831,7 +902,7 @@ function editFood(foodId) {
         document.getElementById('foodModalTitle').textContent = 'Edit Food Item';
         document.getElementById('foodId').value = food.id;
         document.getElementById('foodName').value = food.name;
-        document.getElementById('foodPrice').value = food.price;
+        document.getElementById('foodPrice').value = (food.pricePaise / 100).toFixed(2);
         document.getElementById('foodDescription').value = food.description;
         document.getElementById('foodModal').classList.add('active');
         
@@ -879,7 +950,7 @@ function validateFoodForm() {
         throw new Error('Description must be between 5 and 200 characters');
     }
     
-    return { name, price, description };
+    return { name, pricePaise: Math.round(price * 100), description };
 }
 
 async function saveFoodItem(event) {
@@ -1004,11 +1075,22 @@ async function checkout(event) {
         }))
     };
     
+    // Same key for the same cart contents, so a double submit or a retry cannot place the order twice
+    const checkoutKey = JSON.stringify(orderData);
+    if (!pendingCheckout || pendingCheckout.body !== checkoutKey) {
+        const idempotencyKey = window.crypto && crypto.randomUUID
+            ? crypto.randomUUID()
+            : `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+        pendingCheckout = { body: checkoutKey, idempotencyKey: idempotencyKey };
+    }
+
     try {
         const response = await apiCall('/orders/checkout', {
             method: 'POST',
+            headers: { 'Idempotency-Key': pendingCheckout.idempotencyKey },
             body: JSON.stringify(orderData)
         });
+        pendingCheckout = null;
         
         showNotification(`Order placed successfully! Order ID: ${response.orderId || response.id || 'Unknown'}`);
         
@@ -1025,17 +1107,113 @@ async function checkout(event) {
     }
 }
 
+const ORDER_PAGE_SIZE = 100;
+
 async function loadOrderHistory() {
     try {
-        orders = await apiCall('/orders');
+        // GET /orders is paginated (newest first); this loads the most recent page, loadOlderOrders the rest
+        const page = await apiCall(`/orders?limit=${ORDER_PAGE_SIZE}`);
+        orders = page.orders;
+        ordersCursor = page.nextCursor;
         displayOrderHistory();
         displayAdminOrders();
+        startOrderStream();
     } catch (error) {
         console.error('Failed to load orders:', error);
     }
 }
 
+async function loadOlderOrders() {
+    const cursor = ordersCursor;
+    if (cursor == null) return;
+    try {
+        const page = await apiCall(`/orders?limit=${ORDER_PAGE_SIZE}&cursor=${cursor}`);
+        if (ordersCursor !== cursor) return; // the list was reloaded meanwhile
+        orders = orders.concat(page.orders);
+        ordersCursor = page.nextCursor;
+        displayOrderHistory();
+        displayAdminOrders();
+    } catch (error) {
+        showNotification('Failed to load older orders.', true);
+        console.error('Failed to load older orders:', error);
+    }
+}
+
+function updateLoadOlderButtons() {
+    ['orderHistoryMore', 'adminOrdersMore'].forEach(id => {
+        const button = document.getElementById(id);
+        if (button) button.style.display = ordersCursor == null ? 'none' : 'block';
+    });
+}
+
+// Live order status: one Server-Sent Events connection instead of re-fetching the list.
+// EventSource cannot send the Authorization header, so the stream is read with fetch.
+function startOrderStream() {
+    if (orderStream || !authToken) return;
+    const controller = new AbortController();
+    orderStream = controller;
+
+    fetch(`${API_BASE_URL}/orders/stream`, {
+        headers: { 'Authorization': `Bearer ${authToken}`, 'Accept': 'text/event-stream' },
+        signal: controller.signal
+    }).then(async response => {
+        if (!response.ok) throw new Error(`HTTP ${response.status}`);
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        while (true) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                handleOrderStreamEvent(buffer.slice(0, boundary));
+                buffer = buffer.slice(boundary + 2);
+            }
+        }
+        throw new Error('Order stream closed');
+    }).catch(error => {
+        if (orderStream !== controller) return; // stopped on purpose
+        orderStream = null;
+        console.warn('Order stream disconnected, reconnecting:', error.message);
+        setTimeout(() => { if (authToken && !orderStream) loadOrderHistory(); }, 5000);
+    });
+}
+
+function stopOrderStream() {
+    if (orderStream) {
+        const controller = orderStream;
+        orderStream = null;
+        controller.abort();
+    }
+}
+
+function handleOrderStreamEvent(block) {
+    let eventName = 'message';
+    let data = '';
+    block.split('\n').forEach(line => {
+        if (line.startsWith('event:')) eventName = line.slice(6).trim();
+        else if (line.startsWith('data:')) data += line.slice(5);
+    });
+
+    if (eventName === 'resync') {
+        // The server dropped updates for us; fetch the list again
+        loadOrderHistory();
+    } else if (eventName === 'order-status' && data) {
+        const change = JSON.parse(data);
+        const order = orders.find(o => o.orderId === change.orderId);
+        if (!order) {
+            loadOrderHistory();
+            return;
+        }
+        order.status = change.newStatus;
+        displayOrderHistory();
+        displayAdminOrders();
+    }
+}
+
 function displayOrderHistory() {
+    updateLoadOlderButtons();
     const orderHistory = document.getElementById('orderHistory');
     if (!orderHistory) return;
     
@@ -1051,7 +1229,7 @@ function displayOrderHistory() {
         orderItem.className = 'order-item';
         
         const itemsList = order.items.map(item => 
-            `<div>${item.foodName} x ${item.quantity} - ₹${item.price.toFixed(2)}</div>`
+            `<div>${item.foodName} x ${item.quantity} - ${formatRupees(item.pricePaise)}</div>`
         ).join('');
         
         orderItem.innerHTML = `
@@ -1064,7 +1242,7 @@ function displayOrderHistory() {
                 <strong>Items:</strong>
                 ${itemsList}
             </div>
-            <div class="order-total">Total: ₹${order.totalPrice.toFixed(2)}</div>
+            <div class="order-total">Total: ${formatRupees(order.totalPricePaise)}</div>
         `;
         orderHistory.appendChild(orderItem);
     });
@@ -1088,7 +1266,7 @@ function displayAdminOrders() {
             <div class="admin-item-info">
                 <h4>Order #${order.orderId} - ${order.customerName}</h4>
                 <p>Items: ${itemsList}</p>
-                <p>Total: ₹${order.totalPrice.toFixed(2)}</p>
+                <p>Total: ${formatRupees(order.totalPricePaise)}</p>
                 <p>Status: <span class="order-status ${order.status.toLowerCase()}">${order.status}</span></p>
             </div>
             <div class="admin-item-actions">
@@ -1117,7 +1295,9 @@ async function updateOrderStatus(orderId, newStatus) {
         showNotification('Order status updated successfully!');
         loadOrderHistory();
     } catch (error) {
-        showNotification('Failed to update order status', true);
+        // e.g. a move the order's current status does not allow, or someone else changed it first
+        showNotification(`Failed to update order status: ${error.message}`, true);
+        loadOrderHistory();
     }
 }
 
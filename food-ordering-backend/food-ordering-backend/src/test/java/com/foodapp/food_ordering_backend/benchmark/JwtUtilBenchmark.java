@@ -0,0 +1,82 @@
+package com.foodapp.food_ordering_backend.benchmark;
+
+import com.foodapp.food_ordering_backend.config.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing a JWT at login and of authenticating one request with it, before and after the JwtUtil rework.
+ *
+ * - legacyFilterPath: what JwtAuthenticationFilter used to pay - a fresh HMAC key per parse, and three parses
+ *   (extractUsername, then validateToken's username + expiry checks)
+ * - verifyUncached: a single parse with the cached key and parser
+ * - verifyCached: a repeat request from the same session, served from the verified-token cache
+ * - generateToken: signing a new token, as /auth/login does
+ * - extractUsername: the claim accessor, which goes through verify and so is served from the cache
+ *
+ * Run with:
+ *   mvn -P benchmarks verify -Djmh.includes=JwtUtilBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET_KEY = "mysecretkeymysecretkeymysecretkeymysecretkey";
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtil(0);
+        cached = new JwtUtil();
+        token = cached.generateToken("customer", "CUSTOMER");
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public void legacyFilterPath(Blackhole bh) {
+        String username = legacyClaims(token).getSubject();
+        bh.consume(legacyClaims(token).getSubject().equals(username));
+        bh.consume(legacyClaims(token).getExpiration().before(new Date()));
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken("customer", "CUSTOMER");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return cached.extractUsername(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
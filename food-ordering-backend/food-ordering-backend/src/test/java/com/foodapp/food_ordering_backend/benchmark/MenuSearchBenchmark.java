@@ -0,0 +1,91 @@
+package com.foodapp.food_ordering_backend.benchmark;
+
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.MenuSearchResult;
+import com.foodapp.food_ordering_backend.service.MenuSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of GET /foods/search's index over a generated 50,000-item multi-cuisine catalog.
+ *
+ * - search: one query (see the query param: a common word, a two-word phrase, a typeahead prefix, a typo,
+ *   and a typo plus a prefix); the target is p99 under 1 ms
+ * - update: re-index one item, as an admin edit does
+ *
+ * Sample-time mode, so JMH prints p50/p90/p99/p99.9 per query. Run with:
+ *   mvn -P benchmarks verify -Djmh.includes=MenuSearchBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MenuSearchBenchmark {
+
+    static final int CATALOG_SIZE = 50_000;
+
+    private static final String[] STYLES = {"Butter", "Tandoori", "Kadai", "Hyderabadi", "Malabar", "Szechuan",
+            "Thai", "Teriyaki", "Smoky", "Crispy", "Garlic", "Peri Peri", "Lemon", "Achari", "Mughlai", "Kerala",
+            "Chettinad", "Goan", "Korean", "Mexican", "Classic", "Spicy", "Honey", "Pesto", "Truffle"};
+    private static final String[] MAINS = {"Chicken", "Paneer", "Mutton", "Prawn", "Fish", "Tofu", "Mushroom",
+            "Lamb", "Egg", "Vegetable", "Chickpea", "Duck", "Beef", "Pork", "Salmon", "Cauliflower", "Potato"};
+    private static final String[] DISHES = {"Curry", "Biryani", "Tikka", "Masala", "Noodles", "Fried Rice",
+            "Burger", "Pizza", "Wrap", "Kebab", "Korma", "Pulao", "Momos", "Tacos", "Salad", "Soup", "Sandwich",
+            "Pasta", "Bowl", "Roll", "Dosa", "Stew", "Skewers", "Ramen"};
+    private static final String[] CATEGORIES = {"main-course", "rice-dishes", "curries", "appetizers",
+            "beverages", "desserts", "breads", "street-food", "chinese", "continental", "south-indian", "thai"};
+    private static final String[] DESCRIPTION_WORDS = {"slow", "cooked", "with", "aromatic", "spices", "fresh",
+            "herbs", "served", "rich", "creamy", "tangy", "sauce", "grilled", "tender", "homestyle", "gravy",
+            "coconut", "tomato", "onion", "ginger", "chilli", "yogurt", "smoked", "roasted", "house", "special",
+            "signature", "seasonal", "traditional", "recipe", "topped", "crunchy", "sesame", "basil", "saffron"};
+
+    @State(Scope.Thread)
+    public static class Query {
+        @Param({"chicken", "paneer tikka", "biry", "chiken", "hydrabadi biry"})
+        public String text;
+    }
+
+    private MenuSearchIndex index;
+    private MenuItem[] catalog;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new MenuItem[CATALOG_SIZE];
+        index = new MenuSearchIndex();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            catalog[i] = item(i + 1L, random);
+            index.put(catalog[i]);
+        }
+    }
+
+    @Benchmark
+    public MenuSearchResult search(Query query) {
+        return index.search(query.text, 20);
+    }
+
+    @Benchmark
+    public void update() {
+        index.put(catalog[next++ % CATALOG_SIZE]);
+    }
+
+    private static MenuItem item(long id, Random random) {
+        String name = pick(STYLES, random) + " " + pick(MAINS, random) + " " + pick(DISHES, random)
+                + (random.nextInt(4) == 0 ? " " + (1 + random.nextInt(999)) : "");
+        StringBuilder description = new StringBuilder();
+        for (int w = 8 + random.nextInt(12); w > 0; w--) {
+            description.append(pick(DESCRIPTION_WORDS, random)).append(' ');
+        }
+        return new MenuItem(id, name, 10_000 + random.nextInt(90_000), description.toString().trim(),
+                pick(CATEGORIES, random));
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,47 @@
+package com.foodapp.food_ordering_backend.benchmark;
+
+import com.foodapp.food_ordering_backend.config.SecurityConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the BCrypt encoder from SecurityConfig.passwordEncoder(), which bounds how many logins and
+ * registrations one core can serve.
+ *
+ * - encode: hashing a password with a fresh salt, as /auth/register does
+ * - matches: checking a password against its stored hash, as every /auth/login does
+ *
+ * Run with:
+ *   mvn -P benchmarks verify -Djmh.includes=PasswordEncoderBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "admin123";
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new SecurityConfig().passwordEncoder();
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,121 @@
+package com.foodapp.food_ordering_backend.benchmark;
+
+import com.foodapp.food_ordering_backend.FoodOrderingBackendApplication;
+import com.foodapp.food_ordering_backend.dto.OrderRequest;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC round trips and throughput of writes, with insert batching off (batchSize=1, one statement per row -
+ * what IDENTITY ids forced on us) and on (batchSize=50, pooled sequence ids).
+ *
+ * - checkout: one checkoutOrder with 5 line items; reports statementsPerOp (JDBC executions per checkout)
+ * - bulkInsert: saveAll of 1000 Food rows; throughput x 1000 = rows/sec
+ *
+ * Runs the real application context against in-memory H2 (test profile). Run with:
+ *   mvn -P benchmarks verify -Djmh.includes=PersistenceBatchingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenceBatchingBenchmark {
+
+    static final int BULK_ROWS = 1000;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private FoodRepository foodRepository;
+    private Statistics statistics;
+    private OrderRequest checkoutRequest;
+
+    // JDBC statements issued (JMH resets the public counter every iteration); the per-invocation
+    // average over the whole trial, warmup included, is printed at the end
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Statements {
+        public long statements;
+        private long trialStatements;
+        private long invocations;
+
+        void record(long count) {
+            statements += count;
+            trialStatements += count;
+            invocations++;
+        }
+
+        @TearDown(Level.Trial)
+        public void report() {
+            System.out.printf("%nstatements per invocation: %.2f%n",
+                    invocations == 0 ? 0.0 : (double) trialStatements / invocations);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FoodOrderingBackendApplication.class)
+                .profiles("test")
+                // passed as arguments so they override persistence.properties
+                .run("--server.port=0",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+        foodRepository = context.getBean(FoodRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        List<Food> menu = foodRepository.findAll();
+        checkoutRequest = new OrderRequest();
+        checkoutRequest.setCustomerName("bench");
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+            item.setFoodId(menu.get(i).getId());
+            item.setQuantity(i + 1);
+            items.add(item);
+        }
+        checkoutRequest.setItems(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object checkout(Statements counters) {
+        long before = statistics.getPrepareStatementCount();
+        Object response = orderService.checkoutOrder("bench", checkoutRequest);
+        counters.record(statistics.getPrepareStatementCount() - before);
+        return response;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_ROWS)
+    public Object bulkInsert(Statements counters) {
+        List<Food> foods = new ArrayList<>(BULK_ROWS);
+        for (int i = 0; i < BULK_ROWS; i++) {
+            foods.add(new Food("Bench dish " + i, (100 + i) * 100L, "Benchmark filler item", "bench"));
+        }
+        long before = statistics.getPrepareStatementCount();
+        Object saved = foodRepository.saveAll(foods);
+        counters.record(statistics.getPrepareStatementCount() - before);
+        return saved;
+    }
+}
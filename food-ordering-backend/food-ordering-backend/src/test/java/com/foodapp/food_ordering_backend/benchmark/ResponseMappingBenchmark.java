@@ -0,0 +1,92 @@
+package com.foodapp.food_ordering_backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.model.Order;
+import com.foodapp.food_ordering_backend.model.OrderItem;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.service.OrderResponseMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of turning entities into response bodies, with no database involved.
+ *
+ * - mapToResponse: OrderResponseMapper's Order -> OrderResponse mapping for a 5-item order
+ * - serializeOrder: Jackson writing that OrderResponse, as every order endpoint does
+ * - serializeMenu: Jackson writing the GET /foods list (see the menuSize param); paid once per menu change
+ *   when the snapshot is rebuilt, not per request
+ *
+ * The ObjectMapper comes from Jackson2ObjectMapperBuilder, which is how Spring Boot builds the application's.
+ * Run with:
+ *   mvn -P benchmarks verify -Djmh.includes=ResponseMappingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    static final int ORDER_ITEMS = 5;
+
+    @State(Scope.Benchmark)
+    public static class Menu {
+        @Param({"25", "1000"})
+        public int menuSize;
+
+        private List<MenuItem> items;
+
+        @Setup
+        public void setUp() {
+            items = new ArrayList<>(menuSize);
+            for (int i = 0; i < menuSize; i++) {
+                items.add(new MenuItem((long) i + 1, "Menu dish " + i, (100 + i) * 100L,
+                        "Slow cooked with aromatic spices and fresh herbs", "main-course"));
+            }
+        }
+    }
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private OrderResponse orderResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        order = new Order("bench", OrderStatus.PENDING, 0);
+        List<OrderItem> items = new ArrayList<>(ORDER_ITEMS);
+        long total = 0;
+        for (int i = 0; i < ORDER_ITEMS; i++) {
+            Food food = new Food("Menu dish " + i, (100 + i) * 100L, "Benchmark item", "main-course");
+            items.add(new OrderItem(i + 1, food.getPricePaise() * (i + 1), food, order));
+            total += food.getPricePaise() * (i + 1);
+        }
+        order.setItems(items);
+        order.setTotalPricePaise(total);
+        orderResponse = OrderResponseMapper.toResponse(order);
+    }
+
+    @Benchmark
+    public OrderResponse mapToResponse() {
+        return OrderResponseMapper.toResponse(order);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeMenu(Menu menu) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(menu.items);
+    }
+}
@@ -0,0 +1,34 @@
+package com.foodapp.food_ordering_backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The enabled path is covered end to end by VirtualThreadExecutionTest
+@SpringBootTest
+@ActiveProfiles("test")
+class DatabaseBulkheadConfigTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void withTheBulkheadOffConnectionsAreNotWrapped() throws Exception {
+        assertThat(context.getBeanNamesForType(DatabaseBulkheadConfig.class)).isEmpty();
+        assertThat(dataSource).isNotInstanceOf(DatabaseBulkheadConfig.BulkheadDataSource.class);
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(Proxy.isProxyClass(connection.getClass())).isFalse();
+        }
+    }
+}
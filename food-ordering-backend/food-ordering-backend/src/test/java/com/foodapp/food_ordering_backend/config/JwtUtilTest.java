@@ -0,0 +1,47 @@
+package com.foodapp.food_ordering_backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    @Test
+    void fullCacheDropsTheTokenUsedLongestAgo() {
+        JwtUtil jwtUtil = new JwtUtil(2);
+        String alice = jwtUtil.generateToken("alice", "USER");
+        String bob = jwtUtil.generateToken("bob", "USER");
+        String carol = jwtUtil.generateToken("carol", "ADMIN");
+        long now = System.currentTimeMillis();
+
+        jwtUtil.verify(alice);
+        jwtUtil.verify(bob);
+        jwtUtil.verify(alice); // alice is now the more recently used
+        assertThat(jwtUtil.verify(carol).role()).isEqualTo("ADMIN");
+
+        assertThat(jwtUtil.cached(alice, now)).isNotNull();
+        assertThat(jwtUtil.cached(bob, now)).isNull();
+        assertThat(jwtUtil.cached(carol, now).username()).isEqualTo("carol");
+    }
+
+    @Test
+    void expiredEntriesAreDroppedWhenLookedUp() {
+        JwtUtil jwtUtil = new JwtUtil(10);
+        String token = jwtUtil.generateToken("alice", "USER");
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+
+        assertThat(jwtUtil.cached(token, verified.expiresAtMillis())).isNull();
+        assertThat(jwtUtil.cached(token, System.currentTimeMillis())).isNull();
+        // Still valid for real, so verifying again puts it back
+        assertThat(jwtUtil.verify(token).username()).isEqualTo("alice");
+        assertThat(jwtUtil.cached(token, System.currentTimeMillis())).isNotNull();
+    }
+
+    @Test
+    void zeroCacheSizeVerifiesEveryTime() {
+        JwtUtil jwtUtil = new JwtUtil(0);
+        String token = jwtUtil.generateToken("alice", "USER");
+        assertThat(jwtUtil.verify(token).username()).isEqualTo("alice");
+        assertThat(jwtUtil.cached(token, System.currentTimeMillis())).isNull();
+    }
+}
@@ -0,0 +1,98 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.service.RequestMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class AdminMetricsEndpointTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RequestMetrics requestMetrics;
+
+    @Test
+    void reportsLatencyStatusAndStatementsPerRouteInPrometheusFormat() throws Exception {
+        Food food = foodRepository.save(new Food("Metrics dish", 15000, "Fetched by the metrics test", "test"));
+        for (int i = 0; i < 3; i++) {
+            assertThat(get("/foods/" + food.getId(), null).statusCode()).isEqualTo(200);
+        }
+        // An unknown id surfaces as a 500 from the catch-all handler, which makes it the error case here
+        assertThat(get("/foods/999999999", null).statusCode()).isEqualTo(500);
+        assertThat(get("/api/admin/metrics", null).statusCode()).isEqualTo(403);
+        // Requests are recorded just after their response goes out
+        awaitRequests("/foods/{id}", 4);
+        awaitRequests(RequestMetrics.UNMATCHED, 1);
+
+        HttpResponse<String> response = get("/api/admin/metrics", adminToken());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type ->
+                assertThat(type).startsWith("text/plain").contains("version=0.0.4"));
+
+        String body = response.body();
+        String route = "method=\"GET\",route=\"/foods/{id}\"";
+        assertThat(body)
+                .contains("# TYPE http_server_requests_seconds histogram")
+                .contains("http_server_requests_seconds_count{" + route + "} 4")
+                .contains("http_server_requests_seconds_bucket{" + route + ",le=\"+Inf\"} 4")
+                .contains("http_server_requests_total{" + route + ",status=\"2xx\"} 3")
+                .contains("http_server_requests_total{" + route + ",status=\"5xx\"} 1")
+                .contains("http_server_requests_in_flight{method=\"GET\",route=\"/api/admin/metrics\"} 1")
+                .contains("http_server_requests_total{method=\"GET\",route=\"UNMATCHED\",status=\"4xx\"} 1");
+        // Every lookup hits the database: no request got away with zero statements, one statement each at most
+        assertThat(body)
+                .contains("http_server_request_statements_bucket{" + route + ",le=\"0\"} 0")
+                .contains("http_server_request_statements_bucket{" + route + ",le=\"1\"} 4")
+                .contains("http_server_request_entity_loads_bucket{" + route + ",le=\"1\"} 4")
+                .contains("http_server_request_entity_loads_sum{" + route + "} 3");
+    }
+
+    private void awaitRequests(String route, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requestMetrics.totals("GET", route).requests() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private String adminToken() throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .build();
+        String body = client.send(login, HttpResponse.BodyHandlers.ofString()).body();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
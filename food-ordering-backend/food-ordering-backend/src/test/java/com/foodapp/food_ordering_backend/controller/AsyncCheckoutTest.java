@@ -0,0 +1,86 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "checkout.async.enabled=true",
+        "checkout.async.max-tickets=2"})
+@ActiveProfiles("test")
+class AsyncCheckoutTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void queuedCheckoutAnswersWithTheIdItsOrderIsPersistedUnder() throws Exception {
+        Food food = foodRepository.save(new Food("Async dish", 12000, "Ordered by the async checkout test", "test"));
+        String token = login();
+        String cart = objectMapper.writeValueAsString(Map.of("customerName", "async-test",
+                "items", List.of(Map.of("foodId", food.getId(), "quantity", 2))));
+
+        // More submissions than tracked tickets: finished ones make room for the next
+        Set<Long> orderIds = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            HttpResponse<String> queued = send("POST", "/orders/checkout/async", cart, token);
+            assertThat(queued.statusCode()).isEqualTo(202);
+            long orderId = objectMapper.readTree(queued.body()).get("orderId").asLong();
+            assertThat(queued.headers().firstValue("Location")).hasValue("/orders/checkout/async/" + orderId);
+
+            JsonNode ticket = objectMapper.readTree(
+                    send("GET", "/orders/checkout/async/" + orderId + "?waitMs=10000", null, token).body());
+            assertThat(ticket.get("status").asText()).isEqualTo("PERSISTED");
+            assertThat(ticket.get("order").get("orderId").asLong()).isEqualTo(orderId);
+
+            HttpResponse<String> order = send("GET", "/orders/" + orderId, null, token);
+            assertThat(order.statusCode()).isEqualTo(200);
+            assertThat(objectMapper.readTree(order.body()).get("totalPricePaise").asLong()).isEqualTo(24000);
+            orderIds.add(orderId);
+        }
+        assertThat(orderIds).hasSize(4);
+    }
+
+    private String login() throws Exception {
+        HttpResponse<String> login = send("POST", "/auth/login",
+                objectMapper.writeValueAsString(Map.of("username", "admin", "password", "admin123")), null);
+        return objectMapper.readTree(login.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,266 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.model.Order;
+import com.foodapp.food_ordering_backend.model.OrderItem;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import com.foodapp.food_ordering_backend.service.RequestMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL statement budgets for the REST endpoints. Every call goes over HTTP through the full filter chain, and
+ * the statements and entity loads behind it are read from RequestMetrics, the same counters /api/admin/metrics
+ * serves. Each call runs once against a small seeded database and once after the data has grown twentyfold:
+ * going over budget at either size fails, and so does a statement count that grows with the data (an N+1).
+ *
+ * When a change legitimately needs another statement, raise its budget in calls() and say why in the commit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class EndpointStatementBudgetTest {
+
+    private static final int CATEGORIES = 6;
+    private static final int SMALL_FOODS = 60;
+    private static final int SMALL_ORDERS = 150;
+    private static final int GROWTH = 20;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Random random = new Random(21);
+    private final List<Food> foods = new ArrayList<>();
+    private final Deque<Long> pendingOrders = new ArrayDeque<>();
+    private Long busiestFoodId;
+    private String adminToken;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RequestMetrics requestMetrics;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * maxStatements and maxEntityLoads hold at any data size; perOrders > 0 allows one more statement for every
+     * perOrders orders in the database (chunked exports) and lets entity loads grow with the data.
+     */
+    private record Budget(int maxStatements, int maxEntityLoads, int perOrders) {
+        static Budget of(int maxStatements, int maxEntityLoads) {
+            return new Budget(maxStatements, maxEntityLoads, 0);
+        }
+    }
+
+    // name tells calls to the same route apart; path and body are built when the call is made
+    private record Call(String name, String method, String route, Supplier<String> path, Supplier<String> body,
+                        Budget budget) {}
+
+    private record Cost(long statements, long entityLoads) {}
+
+    private List<Call> calls() {
+        return List.of(
+                // Menu reads come from the in-memory snapshot
+                get("GET /foods", "/foods", () -> "/foods", Budget.of(0, 0)),
+                get("GET /foods ?category=category-2&sort=price_asc&page=1&size=20", "/foods",
+                        () -> "/foods?category=category-2&sort=price_asc&page=1&size=20", Budget.of(0, 0)),
+                get("GET /foods/search ?q=dish%207", "/foods/search", () -> "/foods/search?q=dish%207", Budget.of(0, 0)),
+                get("GET /foods/{id}", "/foods/{id}", () -> "/foods/" + foods.get(0).getId(), Budget.of(1, 1)),
+                // Existence check, then the active-order index
+                get("GET /foods/{id}/can-delete", "/foods/{id}/can-delete",
+                        () -> "/foods/" + foods.get(1).getId() + "/can-delete", Budget.of(2, 0)),
+                // Page query plus a count once there is more than one page
+                get("GET /foods/{id}/order-status ?size=50", "/foods/{id}/order-status",
+                        () -> "/foods/" + busiestFoodId + "/order-status?size=50", Budget.of(2, 0)),
+                // Keyset page of ids, then the orders and their items in one fetch join; loads are bounded by the page
+                get("GET /orders ?limit=50", "/orders", () -> "/orders?limit=50", Budget.of(2, 200)),
+                get("GET /orders ?status=PENDING&limit=20", "/orders", () -> "/orders?status=PENDING&limit=20", Budget.of(2, 80)),
+                get("GET /orders/{id}", "/orders/{id}", () -> "/orders/" + pendingOrders.peekLast(), Budget.of(1, 4)),
+                // Revenue, sales, flow and kitchen figures are all kept in memory
+                get("GET /orders/revenue", "/orders/revenue", () -> "/orders/revenue", Budget.of(0, 0)),
+                get("GET /orders/stats", "/orders/stats", () -> "/orders/stats", Budget.of(0, 0)),
+                get("GET /orders/flow", "/orders/flow", () -> "/orders/flow", Budget.of(0, 0)),
+                get("GET /kitchen/queue", "/kitchen/queue", () -> "/kitchen/queue", Budget.of(0, 0)),
+                get("GET /kitchen/prep-board", "/kitchen/prep-board", () -> "/kitchen/prep-board", Budget.of(0, 0)),
+                // One streaming query for the orders, one items query per chunk of 500
+                new Call("GET /orders/export", "GET", "/orders/export", () -> "/orders/export", () -> null, new Budget(2, 0, 500)),
+                // Load the cart's foods in one query, then one batched insert each for the order and its lines
+                new Call("POST /orders/checkout", "POST", "/orders/checkout", () -> "/orders/checkout", this::cartJson, Budget.of(3, 3)),
+                // Compare-and-set update, then the summary for the status event
+                new Call("POST /orders/{id}/transition", "POST", "/orders/{id}/transition",
+                        () -> "/orders/" + pendingOrders.pollFirst() + "/transition",
+                        () -> "{\"from\":\"PENDING\",\"to\":\"CONFIRMED\",\"version\":0}", Budget.of(2, 0)),
+                // Order with items, the update, and the version check
+                new Call("PUT /orders/{id}", "PUT", "/orders/{id}", () -> "/orders/" + pendingOrders.pollFirst(),
+                        () -> "{\"status\":\"CANCELLED\"}", Budget.of(3, 4)),
+                // Sales contribution (summary and lines), then loading and deleting the order and its items
+                new Call("DELETE /orders/{id}", "DELETE", "/orders/{id}", () -> "/orders/" + pendingOrders.pollFirst(),
+                        () -> null, Budget.of(6, 4)));
+    }
+
+    @Test
+    void everyEndpointStaysWithinItsStatementBudgetAsTheDataGrows() throws Exception {
+        adminToken = login();
+        seed(SMALL_FOODS, SMALL_ORDERS);
+        Map<String, Cost> small = measureAll();
+
+        seed(SMALL_FOODS * (GROWTH - 1), SMALL_ORDERS * (GROWTH - 1));
+        Map<String, Cost> large = measureAll();
+
+        List<String> failures = new ArrayList<>();
+        for (Call call : calls()) {
+            Cost before = small.get(call.name());
+            Cost after = large.get(call.name());
+            checkBudget(call, "small", before, SMALL_ORDERS, failures);
+            checkBudget(call, "large", after, SMALL_ORDERS * GROWTH, failures);
+            if (call.budget().perOrders() == 0 && after.statements() > before.statements()) {
+                failures.add(call.name() + ": statements grew from " + before.statements() + " to " + after.statements()
+                        + " with " + GROWTH + "x the data");
+            }
+        }
+        assertThat(failures).as("endpoints over their SQL budget").isEmpty();
+    }
+
+    private static void checkBudget(Call call, String size, Cost cost, long orders, List<String> failures) {
+        Budget budget = call.budget();
+        long allowed = budget.maxStatements()
+                + (budget.perOrders() > 0 ? (orders + budget.perOrders() - 1) / budget.perOrders() : 0);
+        if (cost.statements() > allowed) {
+            failures.add(call.name() + " (" + size + "): " + cost.statements() + " statements, budget " + allowed);
+        }
+        if (budget.perOrders() == 0 && cost.entityLoads() > budget.maxEntityLoads()) {
+            failures.add(call.name() + " (" + size + "): " + cost.entityLoads() + " entity loads, budget " + budget.maxEntityLoads());
+        }
+    }
+
+    // Each call runs twice and keeps the cheaper run, so the occasional id block fetch from a pooled sequence
+    // (one per 50 inserts) does not count against an endpoint
+    private Map<String, Cost> measureAll() throws Exception {
+        Map<String, Cost> costs = new LinkedHashMap<>();
+        for (Call call : calls()) {
+            Cost first = measure(call);
+            Cost second = measure(call);
+            costs.put(call.name(), new Cost(Math.min(first.statements(), second.statements()),
+                    Math.min(first.entityLoads(), second.entityLoads())));
+        }
+        return costs;
+    }
+
+    private Cost measure(Call call) throws Exception {
+        RequestMetrics.RouteTotals before = requestMetrics.totals(call.method(), call.route());
+        HttpResponse<String> response = send(call.method(), call.path().get(), call.body().get());
+        assertThat(response.statusCode()).as(call.name()).isBetween(200, 299);
+        RequestMetrics.RouteTotals after = recorded(call, before);
+        return new Cost(after.statements() - before.statements(), after.entityLoads() - before.entityLoads());
+    }
+
+    // The filter records a request just after the response has gone out, so give it a moment
+    private RequestMetrics.RouteTotals recorded(Call call, RequestMetrics.RouteTotals before) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        RequestMetrics.RouteTotals after = requestMetrics.totals(call.method(), call.route());
+        while (after.requests() == before.requests() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            after = requestMetrics.totals(call.method(), call.route());
+        }
+        assertThat(after.requests() - before.requests()).as(call.name() + " was recorded under its route").isEqualTo(1);
+        return after;
+    }
+
+    // Foods spread over a few categories, and orders of one to three lines in every status.
+    // Every other order includes the first dish, so its order-status lookup spans several pages even when small
+    private void seed(int foodCount, int orderCount) {
+        List<Food> newFoods = new ArrayList<>(foodCount);
+        for (int i = 0; i < foodCount; i++) {
+            int n = foods.size() + i;
+            newFoods.add(new Food("Dish " + n, 5_000 + random.nextInt(60_000), "Seeded for the budget test", "category-" + n % CATEGORIES));
+        }
+        foods.addAll(foodRepository.saveAll(newFoods));
+        busiestFoodId = foods.get(0).getId();
+
+        OrderStatus[] statuses = OrderStatus.values();
+        List<Order> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            OrderStatus status = i % 3 == 0 ? OrderStatus.PENDING : statuses[random.nextInt(statuses.length)];
+            Order order = new Order("budget-" + random.nextInt(40), status, 0);
+            List<OrderItem> items = new ArrayList<>();
+            long total = 0;
+            for (int line = 0, lines = 1 + random.nextInt(3); line < lines; line++) {
+                Food food = line == 0 && i % 2 == 0 ? foods.get(0) : foods.get(random.nextInt(foods.size()));
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setFoodId(food.getId());
+                item.setFoodName(food.getName());
+                item.setFoodPricePaise(food.getPricePaise());
+                item.setQuantity(1 + random.nextInt(3));
+                item.setPricePaise(food.getPricePaise() * item.getQuantity());
+                total += item.getPricePaise();
+                items.add(item);
+            }
+            order.setTotalPricePaise(total);
+            order.setItems(items);
+            orders.add(order);
+        }
+        for (Order order : orderRepository.saveAll(orders)) {
+            if (order.getStatus() == OrderStatus.PENDING) {
+                pendingOrders.addLast(order.getId());
+            }
+        }
+    }
+
+    private String cartJson() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            items.append(i == 0 ? "" : ",").append("{\"foodId\":").append(foods.get(random.nextInt(foods.size())).getId())
+                    .append(",\"quantity\":").append(1 + i).append('}');
+        }
+        return "{\"customerName\":\"admin\",\"items\":[" + items + "]}";
+    }
+
+    private static Call get(String name, String route, Supplier<String> path, Budget budget) {
+        return new Call(name, "GET", route, path, () -> null, budget);
+    }
+
+    private String login() throws Exception {
+        HttpResponse<String> response = send("POST", "/auth/login", "{\"username\":\"admin\",\"password\":\"admin123\"}");
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (adminToken != null) {
+            request.header("Authorization", "Bearer " + adminToken);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
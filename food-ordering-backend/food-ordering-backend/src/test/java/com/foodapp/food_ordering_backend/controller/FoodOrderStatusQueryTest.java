@@ -0,0 +1,110 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.model.Order;
+import com.foodapp.food_ordering_backend.model.OrderItem;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("test")
+class FoodOrderStatusQueryTest {
+
+    // One page query, plus a count query once there is more than a page
+    private static final long MAX_STATEMENTS = 2;
+
+    @Autowired
+    private FoodController foodController;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementCountDoesNotGrowWithTheNumberOfOrders() {
+        Food food = foodRepository.save(new Food("Query budget dish", 10000, "Only ordered by this test", "test"));
+        Food other = foodRepository.save(new Food("Other dish", 10000, "Noise for the lookup", "test"));
+        placeOrders(other, 300);
+
+        placeOrders(food, 10);
+        long small = statementsFor(food.getId());
+
+        placeOrders(food, 500);
+        long large = statementsFor(food.getId());
+
+        assertThat(small).isLessThanOrEqualTo(MAX_STATEMENTS);
+        assertThat(large).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void pagesThroughOrdersNewestFirst() {
+        Food food = foodRepository.save(new Food("Paged dish", 10000, "Ordered many times", "test"));
+        placeOrders(food, 120);
+
+        Map<String, Object> first = foodController.getFoodOrderStatus(food.getId(), 0, 50).getBody();
+        Map<String, Object> last = foodController.getFoodOrderStatus(food.getId(), 2, 50).getBody();
+
+        assertThat(first.get("totalOrderItems")).isEqualTo(120L);
+        assertThat(first.get("hasNext")).isEqualTo(true);
+        assertThat(rows(first)).hasSize(50);
+        assertThat(rows(last)).hasSize(20);
+        assertThat(last.get("hasNext")).isEqualTo(false);
+
+        List<Long> ids = rows(first).stream().map(row -> (Long) row.get("orderId")).toList();
+        assertThat(ids).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(rows(first).get(0)).containsEntry("status", "PENDING").containsEntry("quantity", 2);
+    }
+
+    private long statementsFor(Long foodId) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ResponseEntity<Map<String, Object>> response = foodController.getFoodOrderStatus(foodId, 0, 50);
+        assertThat(rows(response.getBody())).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void placeOrders(Food food, int count) {
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("query-test", OrderStatus.PENDING, food.getPricePaise() * 2);
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setFoodId(food.getId());
+            item.setFoodName(food.getName());
+            item.setFoodPricePaise(food.getPricePaise());
+            item.setQuantity(2);
+            item.setPricePaise(food.getPricePaise() * 2);
+            order.setItems(List.of(item));
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(Map<String, Object> body) {
+        return (List<Map<String, Object>>) body.get("orderItems");
+    }
+}
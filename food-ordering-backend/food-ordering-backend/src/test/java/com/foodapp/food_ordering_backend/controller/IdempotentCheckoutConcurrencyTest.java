@@ -0,0 +1,234 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.dto.OrderRequest;
+import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import com.foodapp.food_ordering_backend.service.IdempotentCheckoutService;
+import com.foodapp.food_ordering_backend.service.OrderService;
+import com.foodapp.food_ordering_backend.service.RequestMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checkouts that share an Idempotency-Key, sent over HTTP through the full filter chain. OrderService is a spy
+ * so a test can hold the first attempt inside its insert while the repeats arrive.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class IdempotentCheckoutConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+    private Food food;
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoSpyBean
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private RequestMetrics requestMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = login();
+        food = foodRepository.save(new Food("Idempotent dish", 15000, "Ordered by the idempotency test", "test"));
+    }
+
+    @Test
+    void racingRepeatsOfOneKeyPlaceOneOrderAndAllGetIt() throws Exception {
+        String cart = cart("idem-race");
+
+        List<HttpResponse<String>> responses = race(() -> checkout(cart, "race-key"));
+
+        assertThat(responses).allSatisfy(response -> assertThat(response.statusCode()).isEqualTo(200));
+        assertThat(responses.stream().map(HttpResponse::body).distinct()).hasSize(1);
+        assertThat(ordersFor("idem-race")).isEqualTo(1);
+    }
+
+    @Test
+    void retryAfterCompletionReturnsTheStoredOrderWithoutTouchingTheDatabase() throws Exception {
+        String cart = cart("idem-retry");
+        RequestMetrics.RouteTotals start = requestMetrics.totals("POST", "/orders/checkout");
+        HttpResponse<String> first = checkout(cart, "retry-key");
+        assertThat(first.statusCode()).isEqualTo(200);
+
+        RequestMetrics.RouteTotals before = awaitRecorded(start.requests());
+        HttpResponse<String> retry = checkout(cart, "retry-key");
+        RequestMetrics.RouteTotals after = awaitRecorded(before.requests());
+
+        assertThat(retry.statusCode()).isEqualTo(200);
+        assertThat(retry.body()).isEqualTo(first.body());
+        assertThat(after.statements() - before.statements()).isZero();
+        assertThat(ordersFor("idem-retry")).isEqualTo(1);
+    }
+
+    @Test
+    void retryWhileTheFirstAttemptRunsWaitsForItsResult() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        holdFirstCheckout(entered, release);
+        String cart = cart("idem-wait");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<HttpResponse<String>> first = executor.submit(() -> checkout(cart, "wait-key"));
+            assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<HttpResponse<String>> retry = executor.submit(() -> checkout(cart, "wait-key"));
+
+            Thread.sleep(200);
+            assertThat(retry.isDone()).as("retry answered before the first attempt finished").isFalse();
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+            assertThat(retry.get(10, TimeUnit.SECONDS).body()).isEqualTo(first.get().body());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        verify(orderService, times(1)).checkoutOrder(anyString(), any(), anyString());
+        assertThat(ordersFor("idem-wait")).isEqualTo(1);
+    }
+
+    @Test
+    void keyCommittedElsewhereIsReturnedWhenTheInsertHitsTheUniqueColumn() throws Exception {
+        // Two instances with empty in-memory maps, as on two servers or after an eviction
+        IdempotentCheckoutService serverA = new IdempotentCheckoutService(orderService, 100, 60, 10_000);
+        IdempotentCheckoutService serverB = new IdempotentCheckoutService(orderService, 100, 60, 10_000);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        holdFirstCheckout(entered, release);
+        OrderRequest request = objectMapper.readValue(cart("idem-backstop"), OrderRequest.class);
+
+        // A has looked the key up and is about to insert when B commits the same key
+        CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(
+                () -> serverA.checkout("admin", "backstop-key", request));
+        try {
+            assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+            OrderResponse committed = serverB.checkout("admin", "backstop-key", request);
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS).getOrderId()).isEqualTo(committed.getOrderId());
+        } finally {
+            release.countDown();
+        }
+        verify(orderService, times(2)).checkoutOrder(anyString(), any(), anyString());
+        assertThat(ordersFor("idem-backstop")).isEqualTo(1);
+    }
+
+    // The first keyed checkout signals entered and waits for release before inserting; later ones run normally
+    private void holdFirstCheckout(CountDownLatch entered, CountDownLatch release) {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                entered.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(orderService).checkoutOrder(anyString(), any(), anyString());
+    }
+
+    private long ordersFor(String customerName) {
+        return orderRepository.findAll().stream().filter(order -> customerName.equals(order.getCustomerName())).count();
+    }
+
+    // The filter records a request just after the response has gone out, so give it a moment
+    private RequestMetrics.RouteTotals awaitRecorded(long requestsBefore) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        RequestMetrics.RouteTotals totals = requestMetrics.totals("POST", "/orders/checkout");
+        while (totals.requests() <= requestsBefore && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            totals = requestMetrics.totals("POST", "/orders/checkout");
+        }
+        return totals;
+    }
+
+    private String cart(String customerName) throws Exception {
+        return objectMapper.writeValueAsString(Map.of("customerName", customerName,
+                "items", List.of(Map.of("foodId", food.getId(), "quantity", 2))));
+    }
+
+    private HttpResponse<String> checkout(String cart, String idempotencyKey) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/orders/checkout"))
+                .POST(HttpRequest.BodyPublishers.ofString(cart))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .header("Idempotency-Key", idempotencyKey)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String login() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .header("Content-Type", "application/json")
+                .build();
+        return objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body()).get("token").asText();
+    }
+
+    // Run the task on THREADS threads released at the same moment; rethrows the first failure
+    private static <T> List<T> race(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.service.OrderAdmissionControl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "admission.initial-limit=4",
+        "admission.min-limit=4",
+        "admission.max-limit=4",
+        "admission.admin-reserve=0.25"})
+@ActiveProfiles("test")
+class OrderAdmissionTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private OrderAdmissionControl orderAdmissionControl;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void customerWritesAreShedWhileTheKitchenKeepsItsShare() throws Exception {
+        Food food = foodRepository.save(new Food("Admission dish", 15000, "Ordered by the admission test", "test"));
+        String customer = login("admission-customer", true);
+        String admin = login("admin", false);
+        String cart = "{\"customerName\":\"admission-customer\",\"items\":[{\"foodId\":" + food.getId() + ",\"quantity\":1}]}";
+        HttpResponse<String> placed = send("POST", "/orders/checkout", cart, customer);
+        assertThat(placed.statusCode()).isEqualTo(200);
+        long orderId = objectMapper.readTree(placed.body()).get("orderId").asLong();
+
+        // Three checkouts stuck on a slow database fill the customers' share of the limit of 4
+        List<OrderAdmissionControl.Ticket> stuck = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            stuck.add(orderAdmissionControl.admit(false));
+        }
+
+        HttpResponse<String> shed = send("POST", "/orders/checkout", cart, customer);
+        assertThat(shed.statusCode()).isEqualTo(503);
+        assertThat(shed.headers().firstValue("Retry-After")).hasValue("1");
+        // Reads are not admission controlled, and the kitchen can still move orders along
+        assertThat(send("GET", "/orders", null, customer).statusCode()).isEqualTo(200);
+        assertThat(send("PUT", "/orders/" + orderId, "{\"status\":\"CONFIRMED\"}", admin).statusCode()).isEqualTo(200);
+
+        stuck.forEach(ticket -> orderAdmissionControl.complete(ticket, false));
+        assertThat(send("POST", "/orders/checkout", cart, customer).statusCode()).isEqualTo(200);
+
+        HttpResponse<String> concurrency = send("GET", "/api/admin/concurrency", null, admin);
+        JsonNode admission = objectMapper.readTree(concurrency.body()).get("admission");
+        assertThat(admission.get("limit").asInt()).isEqualTo(4);
+        assertThat(admission.get("customerLimit").asInt()).isEqualTo(3);
+        assertThat(admission.get("customerRejected").asLong()).isEqualTo(1);
+        assertThat(admission.get("adminRejected").asLong()).isZero();
+        assertThat(admission.get("inFlight").asInt()).isZero();
+    }
+
+    private String login(String username, boolean register) throws Exception {
+        String password = register ? "admission-password" : "admin123";
+        if (register) {
+            send("POST", "/auth/register", objectMapper.writeValueAsString(Map.of(
+                    "username", username, "email", username + "@admission.test", "password", password)), null);
+        }
+        HttpResponse<String> login = send("POST", "/auth/login",
+                objectMapper.writeValueAsString(Map.of("username", username, "password", password)), null);
+        return objectMapper.readTree(login.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
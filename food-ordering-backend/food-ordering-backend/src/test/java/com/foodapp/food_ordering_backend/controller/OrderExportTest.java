@@ -0,0 +1,129 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.model.Order;
+import com.foodapp.food_ordering_backend.model.OrderItem;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class OrderExportTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+    private Food food;
+    private Order withItems;
+    private Order withoutItems;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = login();
+        food = foodRepository.save(new Food("\"Chef's\" thali, large", 25000, "Exported by the export test", "test"));
+
+        withItems = new Order("Sharma, Priya", OrderStatus.CONFIRMED, 50000);
+        OrderItem item = new OrderItem();
+        item.setOrder(withItems);
+        item.setFoodId(food.getId());
+        item.setFoodName(food.getName());
+        item.setFoodPricePaise(food.getPricePaise());
+        item.setQuantity(2);
+        item.setPricePaise(50000);
+        withItems.setItems(new ArrayList<>(List.of(item)));
+        withItems = orderRepository.save(withItems);
+
+        withoutItems = orderRepository.save(new Order("Plain name", OrderStatus.CANCELLED, 0));
+    }
+
+    @Test
+    void csvQuotesNamesWithCommasAndQuotes() throws Exception {
+        HttpResponse<String> response = get("/orders/export?format=csv");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("text/csv"));
+        List<String> lines = response.body().lines().toList();
+        assertThat(lines.get(0))
+                .isEqualTo("order_id,customer_name,status,total_price_paise,food_id,food_name,quantity,item_price_paise");
+        assertThat(lines).contains(
+                withItems.getId() + ",\"Sharma, Priya\",CONFIRMED,50000," + food.getId() + ",\"\"\"Chef's\"\" thali, large\",2,50000",
+                withoutItems.getId() + ",Plain name,CANCELLED,0,,,,");
+    }
+
+    @Test
+    void ndjsonWritesOneOrderPerLineWithItsItems() throws Exception {
+        HttpResponse<String> response = get("/orders/export");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("application/x-ndjson"));
+        Map<Long, JsonNode> exported = new HashMap<>();
+        for (String line : response.body().lines().toList()) {
+            JsonNode order = objectMapper.readTree(line);
+            exported.put(order.get("orderId").asLong(), order);
+        }
+
+        JsonNode first = exported.get(withItems.getId());
+        assertThat(first.get("customerName").asText()).isEqualTo("Sharma, Priya");
+        assertThat(first.get("status").asText()).isEqualTo("CONFIRMED");
+        assertThat(first.get("totalPricePaise").asLong()).isEqualTo(50000);
+        assertThat(first.get("items")).hasSize(1);
+        assertThat(first.get("items").get(0).get("foodName").asText()).isEqualTo("\"Chef's\" thali, large");
+        assertThat(first.get("items").get(0).get("quantity").asInt()).isEqualTo(2);
+        assertThat(exported.get(withoutItems.getId()).get("items")).isEmpty();
+    }
+
+    @Test
+    void unknownFormatsAreRejected() throws Exception {
+        assertThat(get("/orders/export?format=CSV").statusCode()).isEqualTo(200);
+
+        HttpResponse<String> response = get("/orders/export?format=xlsx");
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(objectMapper.readTree(response.body()).get("error").asText()).isEqualTo("format must be one of ndjson, csv");
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String login() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .header("Content-Type", "application/json")
+                .build();
+        return objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body()).get("token").asText();
+    }
+}
@@ -0,0 +1,112 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A short heartbeat lets the server notice the closed stream straight away instead of holding up shutdown
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "orders.stream.heartbeat-ms=200")
+@ActiveProfiles("test")
+class OrderStreamScopeTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void customersOnlySeeOrdersTheirOwnAccountPlaced() throws Exception {
+        Food food = foodRepository.save(new Food("Stream dish", 9000, "Ordered by the stream test", "test"));
+        String owner = register("stream-owner");
+        String other = register("stream-other");
+
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        HttpResponse<Stream<String>> stream = client.send(request("/orders/stream", owner).GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+        Thread reader = Thread.ofVirtual().start(() -> {
+            try (Stream<String> body = stream.body()) {
+                body.forEach(lines::add);
+            } catch (RuntimeException e) {
+                // Stream closed at the end of the test
+            }
+        });
+        try {
+            assertThat(lines.poll(10, TimeUnit.SECONDS)).isEqualTo(":connected");
+
+            // Someone else naming their order after the owner must not reach the owner's stream...
+            long spoofed = checkout(other, "stream-owner", food);
+            // ...while the owner's own order does, whatever name they typed on it
+            long own = checkout(owner, "Somebody Else", food);
+
+            List<Long> seen = new ArrayList<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!seen.contains(own) && System.nanoTime() < deadline) {
+                String line = lines.poll(100, TimeUnit.MILLISECONDS);
+                if (line != null && line.startsWith("id:")) {
+                    seen.add(Long.parseLong(line.substring(3).trim()));
+                }
+            }
+            assertThat(seen).contains(own).doesNotContain(spoofed);
+        } finally {
+            reader.interrupt();
+            stream.body().close();
+        }
+    }
+
+    private long checkout(String token, String customerName, Food food) throws Exception {
+        String cart = objectMapper.writeValueAsString(Map.of("customerName", customerName,
+                "items", List.of(Map.of("foodId", food.getId(), "quantity", 1))));
+        HttpResponse<String> response = client.send(request("/orders/checkout", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cart)).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("orderId").asLong();
+    }
+
+    private String register(String username) throws Exception {
+        String password = "stream-password";
+        post("/auth/register", Map.of("username", username, "email", username + "@stream.test", "password", password));
+        HttpResponse<String> login = post("/auth/login", Map.of("username", username, "password", password));
+        return objectMapper.readTree(login.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> post(String path, Map<String, String> body) throws Exception {
+        return client.send(request(path, null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,141 @@
+package com.foodapp.food_ordering_backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.service.DatabaseBulkhead;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "bulkhead.menu.max-connections=1",
+        "bulkhead.acquire-timeout-ms=200",
+        "virtual-threads.pinning.threshold-ms=10"})
+@ActiveProfiles("test")
+class VirtualThreadExecutionTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Object monitor = new Object();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private DatabaseBulkhead databaseBulkhead;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void menuRequestsAreRefusedWhileTheirBulkheadIsFullAndPinningIsReported() throws Exception {
+        Food food = foodRepository.save(new Food("Bulkhead dish", 12000, "Looked up by the bulkhead test", "test"));
+        String token = adminToken();
+        assertThat(get("/foods/" + food.getId(), null).statusCode()).isEqualTo(200);
+
+        // Take the only menu permit, as a slow menu query would
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            databaseBulkhead.enter(DatabaseBulkhead.RouteClass.MENU);
+            try (DatabaseBulkhead.Permit ignored = databaseBulkhead.acquire()) {
+                release.join();
+            } finally {
+                databaseBulkhead.exit();
+            }
+        });
+        awaitMenuInUse(token, 1);
+
+        HttpResponse<String> refused = get("/foods/" + food.getId(), null);
+        assertThat(refused.statusCode()).isEqualTo(503);
+        assertThat(refused.headers().firstValue("Retry-After")).hasValue("1");
+        // Snapshot reads never take a connection, and an admin's lookup uses the admin class
+        assertThat(get("/foods", null).statusCode()).isEqualTo(200);
+        assertThat(get("/foods/" + food.getId(), token).statusCode()).isEqualTo(200);
+
+        release.complete(null);
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(get("/foods/" + food.getId(), null).statusCode()).isEqualTo(200);
+
+        // A virtual thread blocking inside synchronized is pinned; the report points at the frame in our code
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        JsonNode report = concurrency(token);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (report.at("/pinning/events").asLong() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100); // JFR streams flush about once a second
+            report = concurrency(token);
+        }
+        assertThat(report.get("executionMode").asText()).isEqualTo("virtual");
+        assertThat(report.at("/pinning/monitoring").asBoolean()).isTrue();
+        assertThat(report.at("/pinning/sites/0/frame").asText())
+                .startsWith(VirtualThreadExecutionTest.class.getName() + ".lambda$");
+        JsonNode menu = lane(report, "MENU");
+        assertThat(menu.get("maxConnections").asInt()).isEqualTo(1);
+        assertThat(menu.get("rejected").asLong()).isEqualTo(1);
+        assertThat(menu.get("inUse").asInt()).isZero();
+        assertThat(lane(report, "ADMIN").get("acquired").asLong()).isPositive();
+    }
+
+    private void awaitMenuInUse(String token, int inUse) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lane(concurrency(token), "MENU").get("inUse").asInt() != inUse && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static JsonNode lane(JsonNode report, String routeClass) {
+        for (JsonNode lane : report.get("bulkheads")) {
+            if (routeClass.equals(lane.get("routeClass").asText())) {
+                return lane;
+            }
+        }
+        throw new AssertionError("No bulkhead for " + routeClass + " in " + report);
+    }
+
+    private JsonNode concurrency(String token) throws Exception {
+        HttpResponse<String> response = get("/api/admin/concurrency", token);
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+
+    private String adminToken() throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .build();
+        String body = client.send(login, HttpResponse.BodyHandlers.ofString()).body();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
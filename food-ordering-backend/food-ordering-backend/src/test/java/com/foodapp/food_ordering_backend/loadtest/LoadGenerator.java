@@ -0,0 +1,395 @@
+package com.foodapp.food_ordering_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodapp.food_ordering_backend.FoodOrderingBackendApplication;
+import com.foodapp.food_ordering_backend.service.LatencyHistogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for sizing: boots the application on in-memory H2 (test profile), or targets a running
+ * instance with --url, registers and logs in synthetic customers, then drives a weighted mix of
+ * GET /foods, POST /orders/checkout, GET /orders and PUT /orders/{id} at a series of increasing target rates.
+ *
+ * Each synthetic customer is a virtual thread with its own fixed send schedule (target rate / users): a
+ * closed loop, but latency is measured from when a request was due to be sent, not from when it went out.
+ * A stalled response therefore also charges the requests queued behind it, which is the coordinated-omission
+ * correction wrk2 makes; the uncorrected service time is reported alongside for comparison.
+ *
+ * Every step runs at rate, rate * step, ... up to max-rate and stops at the first one the application can't
+ * sustain: achieved throughput under 95% of the target, more than 1% errors, or corrected p99 over slo-ms.
+ * The last sustained step is reported as the maximum sustainable rate.
+ *
+ * Options (--name=value): url, users (50), rate (50 req/s), step (1.5), max-rate (5000), warmup (5 s),
+ * duration (20 s), slo-ms (200), mix (foods:60,checkout:20,orders:15,update:5). Options with a dot in their name
+ * are application properties for the in-process app, e.g. --spring.threads.virtual.enabled=true. Run with:
+ *   mvn -P loadtest verify -Dload.args="--rate=100 --duration=30"
+ *
+ * In-process runs share the CPU with the application; point --url at a separate instance for pod sizing.
+ */
+public class LoadGenerator {
+
+    static final double MIN_THROUGHPUT_RATIO = 0.95;
+    static final double MAX_ERROR_RATIO = 0.01;
+    static final int SETUP_ATTEMPTS = 10;
+
+    enum Route {
+        FOODS("GET /foods"),
+        CHECKOUT("POST /orders/checkout"),
+        ORDERS("GET /orders"),
+        UPDATE("PUT /orders/{id}");
+
+        final String label;
+
+        Route(String label) {
+            this.label = label;
+        }
+    }
+
+    record Options(String url, int users, double rate, double step, double maxRate, int warmupSeconds,
+                   int durationSeconds, long sloMillis, Map<Route, Integer> mix, List<String> appArgs) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            List<String> appArgs = new ArrayList<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                if (name.contains(".")) {
+                    appArgs.add(arg); // an application property, for the in-process app
+                } else {
+                    values.put(name, arg.substring(arg.indexOf('=') + 1));
+                }
+            }
+            Map<Route, Integer> mix = new LinkedHashMap<>();
+            for (String part : values.getOrDefault("mix", "foods:60,checkout:20,orders:15,update:5").split(",")) {
+                String[] entry = part.split(":");
+                mix.put(Route.valueOf(entry[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(entry[1].trim()));
+            }
+            return new Options(values.get("url"),
+                    Integer.parseInt(values.getOrDefault("users", "50")),
+                    Double.parseDouble(values.getOrDefault("rate", "50")),
+                    Double.parseDouble(values.getOrDefault("step", "1.5")),
+                    Double.parseDouble(values.getOrDefault("max-rate", "5000")),
+                    Integer.parseInt(values.getOrDefault("warmup", "5")),
+                    Integer.parseInt(values.getOrDefault("duration", "20")),
+                    Long.parseLong(values.getOrDefault("slo-ms", "200")),
+                    mix, appArgs);
+        }
+    }
+
+    // Latencies are kept in microseconds; LatencyHistogram's bucketing doesn't depend on the unit
+    static final class RouteStats {
+        final LatencyHistogram corrected = new LatencyHistogram();
+        final LatencyHistogram uncorrected = new LatencyHistogram();
+        long errors;
+
+        void add(RouteStats other) {
+            corrected.add(other.corrected);
+            uncorrected.add(other.uncorrected);
+            errors += other.errors;
+        }
+    }
+
+    record StepResult(double rate, Map<Route, RouteStats> byRoute, long total, long errors, double achieved,
+                      long p99Micros, boolean sustained) {
+    }
+
+    /** One synthetic customer: its token and the orders it placed that can still be updated. */
+    static final class Customer {
+        final String token;
+        final ArrayDeque<Long> openOrders = new ArrayDeque<>();
+
+        Customer(String token) {
+            this.token = token;
+        }
+    }
+
+    private final Options options;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> foodIds = new ArrayList<>();
+    private final List<Customer> customers = new ArrayList<>();
+    private final Route[] routeTable;
+
+    LoadGenerator(Options options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        List<Route> table = new ArrayList<>();
+        options.mix().forEach((route, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(route);
+            }
+        });
+        this.routeTable = table.toArray(Route[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.url();
+        if (baseUrl == null) {
+            List<String> appArgs = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN"));
+            appArgs.addAll(options.appArgs());
+            context = new SpringApplicationBuilder(FoodOrderingBackendApplication.class)
+                    .profiles("test")
+                    .run(appArgs.toArray(String[]::new));
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            new LoadGenerator(options, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    void run() throws Exception {
+        setUp();
+        StepResult best = null;
+        int stepNumber = 1;
+        for (double rate = options.rate(); rate <= options.maxRate(); rate *= options.step(), stepNumber++) {
+            StepResult result = runStep(rate);
+            print(stepNumber, result);
+            if (!result.sustained()) {
+                break;
+            }
+            best = result;
+        }
+        System.out.println();
+        if (best == null) {
+            System.out.printf("Maximum sustainable rate: below %.0f req/s%n", options.rate());
+        } else {
+            System.out.printf("Maximum sustainable rate: %.0f req/s (achieved %.1f req/s, p99 %s ms)%n",
+                    best.rate(), best.achieved(), millis(best.p99Micros()));
+        }
+        System.out.printf("  criteria: throughput >= %.0f%% of target, errors <= %.0f%%, corrected p99 <= %d ms%n",
+                MIN_THROUGHPUT_RATIO * 100, MAX_ERROR_RATIO * 100, options.sloMillis());
+    }
+
+    // Registers and logs in every customer in parallel (BCrypt makes each of these slow on purpose)
+    private void setUp() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> logins = new ArrayList<>();
+            for (int i = 0; i < options.users(); i++) {
+                String username = "load-" + runId + "-" + i;
+                logins.add(executor.submit(() -> registerAndLogin(username)));
+            }
+            for (Future<String> login : logins) {
+                customers.add(new Customer(login.get()));
+            }
+        }
+        for (JsonNode food : objectMapper.readTree(send(HttpRequest.newBuilder(uri("/foods")).GET(), null).body())) {
+            foodIds.add(food.get("id").asLong());
+        }
+        if (foodIds.isEmpty()) {
+            throw new IllegalStateException("GET /foods returned no foods to order");
+        }
+        System.out.printf("%d customers logged in against %s, %d foods on the menu%n",
+                customers.size(), baseUrl, foodIds.size());
+    }
+
+    private String registerAndLogin(String username) throws Exception {
+        String password = "load-test-password";
+        String user = objectMapper.writeValueAsString(Map.of(
+                "username", username, "email", username + "@load.test", "password", password));
+        HttpResponse<String> registered = sendWithRetry(post("/auth/register", user));
+        if (registered.statusCode() != 200) {
+            throw new IllegalStateException("Registering " + username + " failed: " + registered.body());
+        }
+        String credentials = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> login = sendWithRetry(post("/auth/login", credentials));
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("Logging in " + username + " failed: " + login.body());
+        }
+        return objectMapper.readTree(login.body()).get("token").asText();
+    }
+
+    // Setup isn't measured, so it backs off on a 503 (all users register at once, and BCrypt is slow on purpose)
+    private HttpResponse<String> sendWithRetry(HttpRequest.Builder request) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response = send(request, null);
+            if (response.statusCode() != 503 || attempt == SETUP_ATTEMPTS) {
+                return response;
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(response.headers().firstValueAsLong("Retry-After").orElse(1)));
+        }
+    }
+
+    private StepResult runStep(double rate) throws Exception {
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) * customers.size() / rate);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+        List<Future<Map<Route, RouteStats>>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < customers.size(); i++) {
+                Customer customer = customers.get(i);
+                // Stagger the customers across one period so the target rate arrives evenly, not in bursts
+                long first = start + periodNanos * i / customers.size();
+                workers.add(executor.submit(() -> drive(customer, first, periodNanos, measureFrom, end)));
+            }
+        }
+
+        Map<Route, RouteStats> byRoute = new EnumMap<>(Route.class);
+        for (Future<Map<Route, RouteStats>> worker : workers) {
+            worker.get().forEach((route, stats) -> byRoute.computeIfAbsent(route, r -> new RouteStats()).add(stats));
+        }
+        RouteStats all = new RouteStats();
+        byRoute.values().forEach(all::add);
+        long total = all.corrected.count();
+        double achieved = (total - all.errors) / (double) options.durationSeconds();
+        long p99 = all.corrected.percentile(0.99);
+        boolean sustained = achieved >= rate * MIN_THROUGHPUT_RATIO
+                && all.errors <= total * MAX_ERROR_RATIO
+                && p99 <= TimeUnit.MILLISECONDS.toMicros(options.sloMillis());
+        return new StepResult(rate, byRoute, total, all.errors, achieved, p99, sustained);
+    }
+
+    /**
+     * One customer's closed loop: send on schedule, or straight away when behind it. Requests sent before
+     * measureFrom are warmup and not recorded, but a warmup backlog still sent afterwards is, with its full wait.
+     * No new request starts after end, so a backlog the application couldn't work off shows up as lower
+     * achieved throughput.
+     */
+    private Map<Route, RouteStats> drive(Customer customer, long first, long periodNanos, long measureFrom, long end) {
+        Map<Route, RouteStats> stats = new EnumMap<>(Route.class);
+        for (long due = first; due < end && System.nanoTime() < end; due += periodNanos) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Route route = routeTable[ThreadLocalRandom.current().nextInt(routeTable.length)];
+            if (route == Route.UPDATE && customer.openOrders.isEmpty()) {
+                route = Route.CHECKOUT; // nothing of its own to update yet
+            }
+            long sent = System.nanoTime();
+            boolean ok;
+            try {
+                ok = call(route, customer);
+            } catch (Exception e) {
+                ok = false;
+            }
+            long done = System.nanoTime();
+            if (sent >= measureFrom) {
+                RouteStats routeStats = stats.computeIfAbsent(route, r -> new RouteStats());
+                routeStats.corrected.record(TimeUnit.NANOSECONDS.toMicros(done - due));
+                routeStats.uncorrected.record(TimeUnit.NANOSECONDS.toMicros(done - sent));
+                if (!ok) {
+                    routeStats.errors++;
+                }
+            }
+        }
+        return stats;
+    }
+
+    private boolean call(Route route, Customer customer) throws Exception {
+        switch (route) {
+            case FOODS -> {
+                return send(HttpRequest.newBuilder(uri("/foods")).GET(), customer.token).statusCode() == 200;
+            }
+            case CHECKOUT -> {
+                HttpResponse<String> response = send(post("/orders/checkout", checkoutBody()), customer.token);
+                if (response.statusCode() != 200) {
+                    return false;
+                }
+                customer.openOrders.add(objectMapper.readTree(response.body()).get("orderId").asLong());
+                return true;
+            }
+            case ORDERS -> {
+                return send(HttpRequest.newBuilder(uri("/orders?limit=20")).GET(), customer.token).statusCode() == 200;
+            }
+            case UPDATE -> {
+                HttpRequest.Builder request = HttpRequest.newBuilder(uri("/orders/" + customer.openOrders.poll()))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"CANCELLED\"}"));
+                return send(request, customer.token).statusCode() == 200;
+            }
+            default -> throw new IllegalArgumentException(route.name());
+        }
+    }
+
+    private String checkoutBody() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder items = new StringBuilder();
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"foodId\":").append(foodIds.get(random.nextInt(foodIds.size())))
+                    .append(",\"quantity\":").append(1 + random.nextInt(3)).append('}');
+        }
+        return "{\"customerName\":\"load\",\"items\":[" + items + "]}";
+    }
+
+    private void print(int stepNumber, StepResult result) {
+        System.out.printf("%nStep %d: target %.0f req/s, achieved %.1f req/s, %d of %d scheduled requests sent, %d errors -> %s%n",
+                stepNumber, result.rate(), result.achieved(), result.total(),
+                Math.round(result.rate() * options.durationSeconds()), result.errors(),
+                result.sustained() ? "sustained" : "NOT sustained");
+        System.out.printf("  %-22s %10s %10s %7s %9s %9s %9s %9s %14s%n", "route", "target/s", "achieved/s",
+                "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "p99 uncorr ms");
+        int totalWeight = options.mix().values().stream().mapToInt(Integer::intValue).sum();
+        result.byRoute().forEach((route, stats) -> System.out.printf(
+                "  %-22s %10.1f %10.1f %7d %9s %9s %9s %9s %14s%n",
+                route.label,
+                result.rate() * options.mix().getOrDefault(route, 0) / totalWeight,
+                (stats.corrected.count() - stats.errors) / (double) options.durationSeconds(),
+                stats.errors,
+                millis(stats.corrected.percentile(0.50)),
+                millis(stats.corrected.percentile(0.99)),
+                millis(stats.corrected.percentile(0.999)),
+                millis(stats.corrected.max()),
+                millis(stats.uncorrected.percentile(0.99))));
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, String token) throws Exception {
+        request.timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
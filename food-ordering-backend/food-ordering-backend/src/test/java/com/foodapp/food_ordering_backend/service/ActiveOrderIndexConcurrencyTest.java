@@ -0,0 +1,123 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.OrderRequest;
+import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.dto.PrepBoardLine;
+import com.foodapp.food_ordering_backend.event.OrderStatusChangedEvent;
+import com.foodapp.food_ordering_backend.exception.OrderTransitionException;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.repository.OrderItemRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.foodapp.food_ordering_backend.service.OrderTestSupport.line;
+import static com.foodapp.food_ordering_backend.service.OrderTestSupport.request;
+import static com.foodapp.food_ordering_backend.service.OrderTestSupport.runOnAllThreads;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ActiveOrderIndexConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ORDERS_PER_THREAD = 10;
+
+    @Autowired
+    private ActiveOrderIndex activeOrderIndex;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Test
+    void countsMatchTheDatabaseAfterConcurrentCheckoutsAndTransitions() throws Exception {
+        Food curry = foodRepository.save(new Food("Index curry", 20000, "Counted by the index test", "test"));
+        Food naan = foodRepository.save(new Food("Index naan", 5000, "Counted by the index test", "test"));
+
+        List<Long> orderIds = Collections.synchronizedList(new ArrayList<>());
+        runOnAllThreads(THREADS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                OrderResponse order = orderService.checkoutOrder("index-test", request("index-test",
+                        line(curry, 1 + random.nextInt(3)), line(naan, 1 + random.nextInt(5))));
+                orderIds.add(order.getOrderId());
+            }
+        });
+        assertThat(activeOrderIndex.activeQuantity(curry.getId())).isEqualTo(activeQuantityInDatabase(curry.getId()));
+
+        // Every thread walks every order forward at random; compare-and-set lets one move win at a time
+        runOnAllThreads(THREADS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (Long orderId : List.copyOf(orderIds)) {
+                OrderRepository.OrderSummaryRow current = orderRepository.findSummaryById(orderId).orElseThrow();
+                List<OrderStatus> next = new ArrayList<>(current.getStatus().nextStatuses());
+                if (next.isEmpty() || random.nextInt(3) == 0) {
+                    continue;
+                }
+                try {
+                    orderService.transitionOrder(orderId, current.getStatus(),
+                            next.get(random.nextInt(next.size())), current.getVersion());
+                } catch (OrderTransitionException e) {
+                    assertThat(e.getReason()).isEqualTo(OrderTransitionException.Reason.STALE);
+                }
+            }
+        });
+
+        assertThat(activeOrderIndex.activeQuantity(curry.getId())).isEqualTo(activeQuantityInDatabase(curry.getId()));
+        assertThat(activeOrderIndex.activeQuantity(naan.getId())).isEqualTo(activeQuantityInDatabase(naan.getId()));
+    }
+
+    @Test
+    void lateCheckoutEventsAreReconciledWithEarlierStatusEvents() {
+        Food dish = foodRepository.save(new Food("Out of order dish", 10000, "Events arrive out of order", "test"));
+        Map<Long, Integer> lines = Map.of(dish.getId(), 4);
+        Map<Long, Long> prices = Map.of(dish.getId(), 40000L);
+
+        // Confirmed before its checkout event arrived: counted once, under CONFIRMED
+        activeOrderIndex.onStatusChanged(OrderStatusChangedEvent.changed(-101L, "late", "late", OrderStatus.PENDING, OrderStatus.CONFIRMED, 4, 0, 40000));
+        activeOrderIndex.onStatusChanged(OrderStatusChangedEvent.created(-101L, "late", "late", OrderStatus.PENDING, 0, 40000, lines, prices));
+        activeOrderIndex.onStatusChanged(OrderStatusChangedEvent.created(-101L, "late", "late", OrderStatus.PENDING, 0, 40000, lines, prices));
+        assertThat(activeOrderIndex.activeQuantity(dish.getId())).isEqualTo(4);
+        assertThat(activeOrderIndex.prepBoard()).filteredOn(line -> line.foodId().equals(dish.getId()))
+                .containsExactly(new PrepBoardLine(dish.getId(), null, 0, 4, 0, 4));
+
+        // Cancelled before its checkout event arrived: never counted
+        activeOrderIndex.onStatusChanged(OrderStatusChangedEvent.changed(-102L, "late", "late", OrderStatus.PENDING, OrderStatus.CANCELLED, 4, 0, 40000));
+        activeOrderIndex.onStatusChanged(OrderStatusChangedEvent.created(-102L, "late", "late", OrderStatus.PENDING, 0, 40000, lines, prices));
+        assertThat(activeOrderIndex.activeQuantity(dish.getId())).isEqualTo(4);
+
+        // A stale move never takes an order backwards, and delivery takes it off
+        activeOrderIndex.onStatusChanged(OrderStatusChangedEvent.changed(-101L, "late", "late", OrderStatus.CONFIRMED, OrderStatus.PREPARING, 4, 0, 40000));
+        activeOrderIndex.onStatusChanged(OrderStatusChangedEvent.changed(-101L, "late", "late", OrderStatus.PENDING, OrderStatus.CONFIRMED, 4, 0, 40000));
+        activeOrderIndex.onStatusChanged(OrderStatusChangedEvent.changed(-101L, "late", "late", OrderStatus.PREPARING, OrderStatus.DELIVERED, 4, 0, 40000));
+        assertThat(activeOrderIndex.activeQuantity(dish.getId())).isZero();
+    }
+
+    private long activeQuantityInDatabase(Long foodId) {
+        return orderItemRepository.findLinesByOrderStatusIn(
+                        EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING)).stream()
+                .filter(row -> row.getFoodId().equals(foodId))
+                .mapToLong(OrderItemRepository.OrderLineRow::getQuantity)
+                .sum();
+    }
+}
@@ -0,0 +1,125 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.ConcurrencyReport;
+import com.foodapp.food_ordering_backend.exception.ServiceOverloadedException;
+import com.foodapp.food_ordering_backend.service.DatabaseBulkhead.RouteClass;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatabaseBulkheadTest {
+
+    @Test
+    void classifiesRequestsByRouteAndRole() {
+        assertThat(DatabaseBulkhead.classify("GET", "/foods/{id}", false)).isEqualTo(RouteClass.MENU);
+        assertThat(DatabaseBulkhead.classify("GET", "/foods/search", false)).isEqualTo(RouteClass.MENU);
+        assertThat(DatabaseBulkhead.classify("POST", "/orders/checkout", false)).isEqualTo(RouteClass.CHECKOUT);
+        assertThat(DatabaseBulkhead.classify("GET", "/orders/checkout/async/{orderId}", false)).isEqualTo(RouteClass.CHECKOUT);
+        assertThat(DatabaseBulkhead.classify("GET", "/orders", false)).isEqualTo(RouteClass.DEFAULT);
+        assertThat(DatabaseBulkhead.classify("POST", "/auth/login", false)).isEqualTo(RouteClass.DEFAULT);
+        assertThat(DatabaseBulkhead.classify("GET", null, false)).isEqualTo(RouteClass.DEFAULT);
+        // Admins are one class whatever they call
+        assertThat(DatabaseBulkhead.classify("GET", "/foods/{id}", true)).isEqualTo(RouteClass.ADMIN);
+        assertThat(DatabaseBulkhead.classify("POST", "/orders/checkout", true)).isEqualTo(RouteClass.ADMIN);
+    }
+
+    @Test
+    void fullClassRefusesAfterTheTimeoutWithoutTouchingOtherClasses() throws Exception {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(true, 2, 1, 1, 1, 50, 10);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Void> release = new CompletableFuture<>();
+            for (int i = 0; i < 2; i++) {
+                executor.submit(() -> holdPermit(bulkhead, RouteClass.MENU, release));
+            }
+            awaitInUse(bulkhead, RouteClass.MENU, 2);
+
+            long started = System.nanoTime();
+            bulkhead.enter(RouteClass.MENU);
+            assertThatThrownBy(bulkhead::acquire)
+                    .isInstanceOf(ServiceOverloadedException.class)
+                    .hasMessageContaining("menu");
+            assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+            // Checkout has its own permits, so a full menu class doesn't hold it up
+            bulkhead.enter(RouteClass.CHECKOUT);
+            bulkhead.acquire().close();
+            bulkhead.exit();
+
+            release.complete(null);
+            awaitInUse(bulkhead, RouteClass.MENU, 0);
+        }
+        Map<String, ConcurrencyReport.Bulkhead> report = byClass(bulkhead);
+        assertThat(report.get("MENU").acquired()).isEqualTo(2);
+        assertThat(report.get("MENU").rejected()).isEqualTo(1);
+        assertThat(report.get("CHECKOUT").acquired()).isEqualTo(1);
+    }
+
+    @Test
+    void nestedConnectionsShareTheOuterPermitAndBackgroundWorkIsNotLimited() {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(true, 1, 1, 1, 1, 10, 10);
+        bulkhead.enter(RouteClass.MENU);
+        DatabaseBulkhead.Permit outer = bulkhead.acquire();
+        DatabaseBulkhead.Permit inner = bulkhead.acquire(); // would time out if it needed a second permit
+        inner.close();
+        assertThat(byClass(bulkhead).get("MENU").inUse()).isEqualTo(1);
+        outer.close();
+        assertThat(byClass(bulkhead).get("MENU").inUse()).isEqualTo(0);
+        bulkhead.exit();
+
+        // No route class on this thread: startup, schedulers and pipelines go straight to the pool
+        for (int i = 0; i < 5; i++) {
+            bulkhead.acquire();
+        }
+        assertThat(byClass(bulkhead).values()).allSatisfy(lane ->
+                assertThat(lane.acquired()).isEqualTo(lane.routeClass().equals("MENU") ? 1 : 0));
+    }
+
+    @Test
+    void permitClosedOnAnotherThreadIsNotReusedByTheNextConnection() throws Exception {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(true, 1, 1, 1, 1, 50, 10);
+        bulkhead.enter(RouteClass.MENU);
+        DatabaseBulkhead.Permit first = bulkhead.acquire();
+        Thread closer = Thread.ofVirtual().start(first::close);
+        closer.join();
+        assertThat(byClass(bulkhead).get("MENU").inUse()).isEqualTo(0);
+
+        // Still inside the same request: the next connection takes a permit of its own instead of the returned one
+        DatabaseBulkhead.Permit second = bulkhead.acquire();
+        assertThat(byClass(bulkhead).get("MENU").inUse()).isEqualTo(1);
+        second.close();
+        bulkhead.exit();
+        assertThat(byClass(bulkhead).get("MENU").acquired()).isEqualTo(2);
+        assertThat(byClass(bulkhead).get("MENU").inUse()).isEqualTo(0);
+    }
+
+    private static void holdPermit(DatabaseBulkhead bulkhead, RouteClass routeClass, CompletableFuture<Void> release) {
+        bulkhead.enter(routeClass);
+        try (DatabaseBulkhead.Permit ignored = bulkhead.acquire()) {
+            release.join();
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    private static void awaitInUse(DatabaseBulkhead bulkhead, RouteClass routeClass, int inUse) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (byClass(bulkhead).get(routeClass.name()).inUse() != inUse && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(byClass(bulkhead).get(routeClass.name()).inUse()).isEqualTo(inUse);
+    }
+
+    private static Map<String, ConcurrencyReport.Bulkhead> byClass(DatabaseBulkhead bulkhead) {
+        return bulkhead.report().stream().collect(Collectors.toMap(
+                ConcurrencyReport.Bulkhead::routeClass, Function.identity()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.foodapp.food_ordering_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotentCheckoutServiceTest {
+
+    @Test
+    void scopedKeysFitTheColumnAndNeverCollideAcrossUsers() {
+        String longest = IdempotentCheckoutService.scopedKey("u".repeat(255), "k".repeat(IdempotentCheckoutService.MAX_KEY_LENGTH));
+        assertThat(longest).hasSize(64).matches("[0-9a-f]+");
+        assertThat(IdempotentCheckoutService.scopedKey("alice", "key-1"))
+                .isEqualTo(IdempotentCheckoutService.scopedKey("alice", "key-1"))
+                .isNotEqualTo(IdempotentCheckoutService.scopedKey("bob", "key-1"));
+        // Splitting the same characters differently between username and key is another user's key
+        assertThat(IdempotentCheckoutService.scopedKey("a:b", "c"))
+                .isNotEqualTo(IdempotentCheckoutService.scopedKey("a", "b:c"));
+    }
+}
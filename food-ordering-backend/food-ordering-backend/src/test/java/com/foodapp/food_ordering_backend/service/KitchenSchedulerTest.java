@@ -0,0 +1,71 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.OrderRequest;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Own database, so active orders left by other tests don't take the single station
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:kitchen;DB_CLOSE_DELAY=-1",
+        "kitchen.scheduler.enabled=true",
+        "kitchen.stations=1"})
+@ActiveProfiles("test")
+class KitchenSchedulerTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private KitchenScheduler kitchenScheduler;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Test
+    void deletingAnOrderBeingPreparedGivesItsStationToTheNextOrder() throws Exception {
+        Food food = foodRepository.save(new Food("Kitchen dish", 20000, "Cooked by the scheduler test", "test"));
+        Long first = checkout(food);
+        awaitStatus(first, OrderStatus.PREPARING);
+        Long second = checkout(food);
+        awaitStatus(second, OrderStatus.CONFIRMED);
+        assertThat(kitchenScheduler.stats().busyStations()).isEqualTo(1);
+
+        orderService.deleteOrder(first);
+
+        awaitStatus(second, OrderStatus.PREPARING);
+        assertThat(kitchenScheduler.stats().busyStations()).isEqualTo(1);
+        assertThat(kitchenScheduler.stats().queueDepth()).isZero();
+    }
+
+    private Long checkout(Food food) {
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setFoodId(food.getId());
+        item.setQuantity(1);
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("kitchen-test");
+        request.setItems(List.of(item));
+        return orderService.checkoutOrder("kitchen-test", request).getOrderId();
+    }
+
+    private void awaitStatus(Long orderId, OrderStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (orderRepository.findStatusById(orderId).orElse(null) != status && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(orderRepository.findStatusById(orderId)).hasValue(status);
+    }
+}
@@ -0,0 +1,101 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.MenuFacets;
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.MenuPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class MenuCatalogTest {
+
+    private static final String[] CATEGORIES = {"curries", "desserts", "rice-dishes", null};
+    private static final long[][] RANGES = {{0, Long.MAX_VALUE}, {15_000, 29_999}, {10_000, 10_000}, {42_000, 80_000}};
+
+    @Test
+    void pagesAndFacetsMatchAPlainFilterOverTheMenu() {
+        Random random = new Random(7);
+        List<MenuItem> menu = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            long price = random.nextInt(4) == 0 ? 10_000 : 5_000 + random.nextInt(60_000);
+            menu.add(new MenuItem(id, "Dish " + random.nextInt(100), price, "", CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        }
+        MenuCatalog catalog = new MenuCatalog(menu);
+
+        for (String category : new String[] {null, "curries", "rice-dishes", "missing"}) {
+            for (long[] range : RANGES) {
+                for (MenuCatalog.Sort sort : MenuCatalog.Sort.values()) {
+                    List<MenuItem> expected = menu.stream()
+                            .filter(item -> category == null || category.equals(item.category()))
+                            .filter(item -> item.pricePaise() >= range[0] && item.pricePaise() <= range[1])
+                            .sorted(order(sort))
+                            .toList();
+
+                    // Walk every page with an awkward page size
+                    List<MenuItem> seen = new ArrayList<>();
+                    MenuPage page;
+                    int number = 0;
+                    do {
+                        page = catalog.browse(category, range[0], range[1], sort, number++, 17);
+                        assertThat(page.total()).isEqualTo(expected.size());
+                        seen.addAll(page.items());
+                    } while (page.hasNext());
+                    assertThat(seen).as("%s %s-%s %s", category, range[0], range[1], sort).isEqualTo(expected);
+
+                    assertThat(counts(page.facets())).isEqualTo(expectedCounts(menu, category, range));
+                }
+            }
+        }
+    }
+
+    @Test
+    void parsesSortCaseInsensitivelyAndRejectsUnknownValues() {
+        assertThat(MenuCatalog.Sort.parse(null)).isEqualTo(MenuCatalog.Sort.MENU);
+        assertThat(MenuCatalog.Sort.parse("Price_Desc")).isEqualTo(MenuCatalog.Sort.PRICE_DESC);
+        assertThatIllegalArgumentException().isThrownBy(() -> MenuCatalog.Sort.parse("cheapest"));
+    }
+
+    private static Comparator<MenuItem> order(MenuCatalog.Sort sort) {
+        return switch (sort) {
+            case MENU -> Comparator.comparing(MenuItem::id);
+            case PRICE_ASC -> Comparator.comparingLong(MenuItem::pricePaise).thenComparing(MenuItem::id);
+            case PRICE_DESC -> Comparator.comparingLong(MenuItem::pricePaise).thenComparing(MenuItem::id).reversed();
+            case NAME -> Comparator.comparing(MenuItem::name, String.CASE_INSENSITIVE_ORDER).thenComparing(MenuItem::id);
+        };
+    }
+
+    private static String counts(MenuFacets facets) {
+        return facets.categories().stream().map(c -> c.category() + "=" + c.count()).collect(Collectors.joining(","))
+                + " | " + facets.priceBands().stream().map(b -> b.band() + "=" + b.count()).collect(Collectors.joining(","));
+    }
+
+    // Categories under the price range, bands under the category
+    private static String expectedCounts(List<MenuItem> menu, String category, long[] range) {
+        StringBuilder out = new StringBuilder();
+        menu.stream()
+                .filter(item -> item.category() != null)
+                .filter(item -> item.pricePaise() >= range[0] && item.pricePaise() <= range[1])
+                .collect(Collectors.groupingBy(MenuItem::category, TreeMap::new, Collectors.counting()))
+                .forEach((name, count) -> out.append(out.isEmpty() ? "" : ",").append(name).append('=').append(count));
+        out.append(" | ");
+        String[] bands = {"0-150", "150-300", "300-500", "500+"};
+        long[] starts = {0, 15_000, 30_000, 50_000, Long.MAX_VALUE};
+        for (int i = 0; i < bands.length; i++) {
+            long from = starts[i], to = starts[i + 1];
+            long count = menu.stream()
+                    .filter(item -> category == null || category.equals(item.category()))
+                    .filter(item -> item.pricePaise() >= from && item.pricePaise() < to)
+                    .count();
+            out.append(i == 0 ? "" : ",").append(bands[i]).append('=').append(count);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.MenuItem;
+import com.foodapp.food_ordering_backend.dto.MenuSearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuSearchIndexTest {
+
+    @Test
+    void tokenizesIntoLowerCaseWordsWithoutAccents() {
+        assertThat(MenuSearchIndex.tokenize("Crème Brûlée, 2-for-1!")).containsExactly("creme", "brulee", "2", "for", "1");
+        assertThat(MenuSearchIndex.tokenize("  ALOO\tgobi ")).containsExactly("aloo", "gobi");
+        assertThat(MenuSearchIndex.tokenize(" ,.- ")).isEmpty();
+        assertThat(MenuSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void matchesWordsExactlyAsPrefixesAndWithOneTypo() {
+        MenuSearchIndex index = index(
+                item(1, "Paneer Tikka", "starters", "Grilled cottage cheese"),
+                item(2, "Chicken Biryani", "rice", "Slow cooked with saffron"),
+                item(3, "Dal Makhani", "curries", "Black lentils"));
+
+        assertThat(ids(index.search("PANEER", 10))).containsExactly(1L);
+        assertThat(ids(index.search("crème", 10))).isEmpty();
+        // Prefixes from two letters, so typeahead finds the dish before the word is finished
+        assertThat(ids(index.search("pan", 10))).containsExactly(1L);
+        assertThat(ids(index.search("bi", 10))).containsExactly(2L);
+        assertThat(ids(index.search("p", 10))).isEmpty();
+        // One missing, extra, wrong or swapped letter, from four letters
+        assertThat(ids(index.search("biryni", 10))).containsExactly(2L);
+        assertThat(ids(index.search("paneeer", 10))).containsExactly(1L);
+        assertThat(ids(index.search("panner", 10))).containsExactly(1L);
+        assertThat(ids(index.search("biyrani", 10))).containsExactly(2L);
+        assertThat(ids(index.search("lnetils", 10))).containsExactly(3L);
+        assertThat(ids(index.search("dla", 10))).isEmpty();
+        assertThat(ids(index.search("biyrnai", 10))).isEmpty();
+    }
+
+    @Test
+    void everyQueryWordHasToMatch() {
+        MenuSearchIndex index = index(
+                item(1, "Paneer Tikka", "starters", ""),
+                item(2, "Chicken Tikka", "starters", ""),
+                item(3, "Chicken Curry", "curries", ""));
+
+        assertThat(ids(index.search("chicken tikka", 10))).containsExactly(2L);
+        assertThat(ids(index.search("tikka chicken tikka", 10))).containsExactly(2L);
+        assertThat(ids(index.search("paneer curry", 10))).isEmpty();
+        assertThat(index.search("", 10).total()).isZero();
+    }
+
+    @Test
+    void ranksByFieldThenMatchQualityThenNameLengthThenId() {
+        MenuSearchIndex index = index(
+                item(1, "Summer cooler", "mango", "Chilled"),
+                item(2, "Lassi", "drinks", "Blended with mango pulp"),
+                item(3, "Mango Lassi", "drinks", "Sweet"),
+                item(4, "Mangos on ice", "desserts", ""),
+                item(5, "Mango Pie", "desserts", ""),
+                item(6, "Mango Shake", "drinks", ""));
+
+        // Exact in the name, then a prefix of a name word, then category, then description;
+        // equal scores go to the shorter name, then the lower id
+        assertThat(ids(index.search("mango", 10))).containsExactly(5L, 3L, 6L, 4L, 1L, 2L);
+
+        MenuSearchResult top = index.search("mango", 2);
+        assertThat(top.total()).isEqualTo(6);
+        assertThat(ids(top)).containsExactly(5L, 3L);
+        assertThat(top.query()).isEqualTo("mango");
+    }
+
+    @Test
+    void followsItemsAsTheyAreRenamedRemovedAndReloaded() {
+        MenuSearchIndex index = index(
+                item(1, "Paneer Tikka", "starters", ""),
+                item(2, "Veg Biryani", "rice", ""));
+
+        index.put(item(1, "Malai Kofta", "curries", ""));
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(ids(index.search("paneer", 10))).isEmpty();
+        assertThat(ids(index.search("panner", 10))).isEmpty();
+        assertThat(ids(index.search("starters", 10))).isEmpty();
+        assertThat(ids(index.search("kofta", 10))).containsExactly(1L);
+        assertThat(ids(index.search("kotfa", 10))).containsExactly(1L);
+
+        index.remove(2L);
+        index.remove(99L);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(ids(index.search("biryani", 10))).isEmpty();
+        assertThat(ids(index.search("biryni", 10))).isEmpty();
+        assertThat(ids(index.search("bi", 10))).isEmpty();
+
+        // Reuses the freed slot without picking up anything of the removed item
+        index.put(item(3, "Jeera Rice", "rice", ""));
+        assertThat(ids(index.search("rice", 10))).containsExactly(3L);
+        assertThat(ids(index.search("veg", 10))).isEmpty();
+
+        index.reload(List.of(item(4, "Masala Dosa", "south-indian", "")));
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(ids(index.search("kofta", 10))).isEmpty();
+        assertThat(ids(index.search("dosa", 10))).containsExactly(4L);
+        assertThat(ids(index.search("south", 10))).containsExactly(4L);
+    }
+
+    private static MenuSearchIndex index(MenuItem... items) {
+        MenuSearchIndex index = new MenuSearchIndex();
+        index.reload(List.of(items));
+        return index;
+    }
+
+    private static MenuItem item(long id, String name, String category, String description) {
+        return new MenuItem(id, name, 10_000, description, category);
+    }
+
+    private static List<Long> ids(MenuSearchResult result) {
+        return result.items().stream().map(MenuItem::id).toList();
+    }
+}
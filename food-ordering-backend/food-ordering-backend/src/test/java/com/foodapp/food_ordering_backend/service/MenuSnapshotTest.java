@@ -0,0 +1,47 @@
+package com.foodapp.food_ordering_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuSnapshotTest {
+
+    private final MenuSnapshot snapshot =
+            new MenuSnapshot(1, List.of(), Map.of(), new byte[0], new byte[0], "\"abc\"");
+
+    @Test
+    void ifNoneMatchOnlyMatchesTheRepresentationBeingServed() {
+        assertThat(snapshot.getEtag(false)).isEqualTo("\"abc\"");
+        assertThat(snapshot.getEtag(true)).isEqualTo("\"abc-gzip\"");
+
+        assertThat(snapshot.matches("\"abc\"", false)).isTrue();
+        assertThat(snapshot.matches("W/\"abc\"", false)).isTrue();
+        assertThat(snapshot.matches("\"abc-gzip\"", false)).isFalse();
+        assertThat(snapshot.matches("\"abc-gzip\"", true)).isTrue();
+        assertThat(snapshot.matches("\"abc\"", true)).isFalse();
+        assertThat(snapshot.matches("\"old\", \"abc-gzip\"", true)).isTrue();
+        assertThat(snapshot.matches("*", true)).isTrue();
+        assertThat(snapshot.matches(null, false)).isFalse();
+    }
+
+    @Test
+    void gzipIsOnlyServedWhenAcceptEncodingAllowsIt() {
+        assertThat(MenuSnapshot.acceptsGzip("gzip")).isTrue();
+        assertThat(MenuSnapshot.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(MenuSnapshot.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(MenuSnapshot.acceptsGzip("x-gzip")).isTrue();
+        assertThat(MenuSnapshot.acceptsGzip("*")).isTrue();
+
+        assertThat(MenuSnapshot.acceptsGzip(null)).isFalse();
+        assertThat(MenuSnapshot.acceptsGzip("identity")).isFalse();
+        assertThat(MenuSnapshot.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(MenuSnapshot.acceptsGzip("gzip; q=0.000, deflate")).isFalse();
+        assertThat(MenuSnapshot.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(MenuSnapshot.acceptsGzip("*;q=0")).isFalse();
+        assertThat(MenuSnapshot.acceptsGzip("gzip;q=nope")).isFalse();
+        assertThat(MenuSnapshot.acceptsGzip("notgzip")).isFalse();
+    }
+}
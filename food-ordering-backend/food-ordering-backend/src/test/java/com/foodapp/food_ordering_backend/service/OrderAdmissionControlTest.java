@@ -0,0 +1,112 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.ConcurrencyReport;
+import com.foodapp.food_ordering_backend.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderAdmissionControlTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void onlyOrderWritesGoThroughAdmission() {
+        assertThat(OrderAdmissionControl.isOrderWrite("POST", "/orders/checkout")).isTrue();
+        assertThat(OrderAdmissionControl.isOrderWrite("POST", "/orders/checkout/async")).isTrue();
+        assertThat(OrderAdmissionControl.isOrderWrite("POST", "/orders")).isTrue();
+        assertThat(OrderAdmissionControl.isOrderWrite("PUT", "/orders/{id}")).isTrue();
+        assertThat(OrderAdmissionControl.isOrderWrite("POST", "/orders/{id}/transition")).isTrue();
+        assertThat(OrderAdmissionControl.isOrderWrite("DELETE", "/orders/{id}")).isTrue();
+        assertThat(OrderAdmissionControl.isOrderWrite("GET", "/orders")).isFalse();
+        assertThat(OrderAdmissionControl.isOrderWrite("GET", "/orders/checkout/async/{orderId}")).isFalse();
+        assertThat(OrderAdmissionControl.isOrderWrite("POST", "/foods")).isFalse();
+        assertThat(OrderAdmissionControl.isOrderWrite("POST", "/ordersheet")).isFalse();
+        assertThat(OrderAdmissionControl.isOrderWrite("POST", "/orders/stats/reconcile")).isFalse();
+        assertThat(OrderAdmissionControl.isOrderWrite("PATCH", "/orders/{id}")).isFalse();
+        assertThat(OrderAdmissionControl.isOrderWrite("POST", null)).isFalse();
+    }
+
+    @Test
+    void customersAreRefusedBeforeTheAdminShareIsUsed() {
+        OrderAdmissionControl admission = new OrderAdmissionControl(true, 10, 10, 10, 100, 0.5, 0.2);
+        for (int i = 0; i < 8; i++) {
+            admission.admit(false);
+        }
+        assertThatThrownBy(() -> admission.admit(false))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .satisfies(e -> assertThat(((ServiceOverloadedException) e).getRetryAfterSeconds()).isEqualTo(1));
+
+        // The kitchen still gets the two reserved slots, and no more
+        OrderAdmissionControl.Ticket admin = admission.admit(true);
+        admission.admit(true);
+        assertThatThrownBy(() -> admission.admit(true)).isInstanceOf(ServiceOverloadedException.class);
+        admission.complete(admin, FAST, false);
+        admission.admit(true);
+
+        ConcurrencyReport.Admission report = admission.report();
+        assertThat(report.limit()).isEqualTo(10);
+        assertThat(report.customerLimit()).isEqualTo(8);
+        assertThat(report.inFlight()).isEqualTo(10);
+        assertThat(report.adminInFlight()).isEqualTo(2);
+        assertThat(report.admitted()).isEqualTo(11);
+        assertThat(report.customerRejected()).isEqualTo(1);
+        assertThat(report.adminRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void slowWritesCutTheLimitOncePerSpellDownToTheMinimum() {
+        OrderAdmissionControl admission = new OrderAdmissionControl(true, 20, 4, 50, 100, 0.5, 0.2);
+        OrderAdmissionControl.Ticket first = admission.admit(false);
+        OrderAdmissionControl.Ticket second = admission.admit(false);
+
+        admission.complete(first, SLOW, false);
+        assertThat(admission.report().limit()).isEqualTo(10);
+        // Admitted before the cut, so it was caught in the same slow spell
+        admission.complete(second, SLOW, false);
+        assertThat(admission.report().limit()).isEqualTo(10);
+
+        // A server error counts like a slow write
+        admission.complete(admission.admit(false), FAST, true);
+        assertThat(admission.report().limit()).isEqualTo(5);
+        admission.complete(admission.admit(false), SLOW, false);
+        assertThat(admission.report().limit()).isEqualTo(4);
+        assertThat(admission.report().customerLimit()).isEqualTo(3);
+        assertThat(admission.report().decreases()).isEqualTo(3);
+    }
+
+    @Test
+    void fastWritesRaiseTheLimitOnlyWhileItIsNearlyUsedUp() {
+        OrderAdmissionControl idle = new OrderAdmissionControl(true, 10, 4, 50, 100, 0.5, 0.2);
+        for (int i = 0; i < 100; i++) {
+            idle.complete(idle.admit(false), FAST, false);
+        }
+        assertThat(idle.report().limit()).isEqualTo(10);
+
+        OrderAdmissionControl busy = new OrderAdmissionControl(true, 4, 4, 6, 100, 0.5, 0.2);
+        Deque<OrderAdmissionControl.Ticket> held = new ArrayDeque<>();
+        for (int i = 0; i < 3; i++) {
+            held.add(busy.admit(false));
+        }
+        for (int i = 0; i < 100; i++) {
+            busy.complete(held.poll(), FAST, false);
+            held.add(busy.admit(false));
+        }
+        assertThat(busy.report().limit()).isEqualTo(6);
+    }
+
+    @Test
+    void disabledAdmitsEverything() {
+        OrderAdmissionControl admission = new OrderAdmissionControl(false, 4, 4, 4, 100, 0.5, 0.2);
+        for (int i = 0; i < 100; i++) {
+            assertThat(admission.admit(false)).isNull();
+        }
+        assertThat(admission.report().admitted()).isZero();
+    }
+}
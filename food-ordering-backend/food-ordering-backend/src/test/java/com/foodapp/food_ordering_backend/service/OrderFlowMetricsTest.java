@@ -0,0 +1,92 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.OrderFlowReport;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class OrderFlowMetricsTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void histogramPercentilesStayWithinTheirBucketOfTheExactValue() {
+        Random random = new Random(11);
+        long[] values = new long[20_000];
+        LatencyHistogram left = new LatencyHistogram();
+        LatencyHistogram right = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // Spread over six orders of magnitude, like seconds-to-confirm next to hours-to-deliver
+            values[i] = (long) Math.pow(10, random.nextDouble() * 6);
+            (i % 2 == 0 ? left : right).record(values[i]);
+        }
+        left.add(right);
+        Arrays.sort(values);
+
+        assertThat(left.count()).isEqualTo(values.length);
+        assertThat(left.max()).isEqualTo(values[values.length - 1]);
+        for (double q : new double[] {0.5, 0.95, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            assertThat((double) left.percentile(q)).as("p%s", q * 100).isCloseTo(exact, within(exact * 0.0625 + 0.5));
+        }
+        for (long value = 0; value < 100_000; value += 7) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertThat(value).isBetween(LatencyHistogram.lowerBound(bucket),
+                    LatencyHistogram.lowerBound(bucket) + LatencyHistogram.width(bucket) - 1);
+        }
+    }
+
+    @Test
+    void windowsRollForwardAndForgetOldSlots() {
+        RollingWindow window = new RollingWindow(1000, 300);
+        for (int second = 0; second < 600; second++) {
+            window.record(START + second * 1000L, second);
+        }
+        // A late event from before the ring is dropped instead of landing in a reused slot
+        window.record(START, 1);
+
+        long now = START + 599_000;
+        RollingWindow.Snapshot lastMinute = window.snapshot(now, 60_000);
+        assertThat(lastMinute.count()).isEqualTo(60);
+        assertThat(lastMinute.latency().max()).isEqualTo(599);
+        assertThat(lastMinute.latency().percentile(0.0001)).isCloseTo(540, within(540 / 16L));
+
+        assertThat(window.snapshot(now, 300_000).count()).isEqualTo(300);
+        assertThat(window.snapshot(now, 3_600_000).count()).isEqualTo(300);
+        assertThat(window.snapshot(now + 120_000, 60_000).count()).isZero();
+    }
+
+    @Test
+    void reportsThroughputAndTimeFromPlacementPerStatus() {
+        OrderFlowMetrics metrics = new OrderFlowMetrics();
+        for (int i = 0; i < 120; i++) {
+            long placedAt = START + i * 1000L;
+            metrics.record(OrderStatus.PENDING, placedAt, -1);
+            metrics.record(OrderStatus.CONFIRMED, placedAt + 2_000, 2_000);
+            if (i < 60 && i % 4 == 0) {
+                metrics.record(OrderStatus.DELIVERED, placedAt + 30_000, 30_000);
+            }
+        }
+
+        OrderFlowReport report = metrics.report(START + 121_000);
+        OrderFlowReport.Window lastMinute = report.windows().get(0);
+        assertThat(lastMinute.window()).isEqualTo("1m");
+        assertThat(lastMinute.byStatus().get(OrderStatus.PENDING).count()).isEqualTo(58);
+        assertThat(lastMinute.byStatus().get(OrderStatus.PENDING).p50Millis()).isNull();
+        OrderFlowReport.Stage confirmed = lastMinute.byStatus().get(OrderStatus.CONFIRMED);
+        assertThat(confirmed.count()).isEqualTo(60);
+        assertThat(confirmed.perMinute()).isEqualTo(60.0);
+        assertThat(confirmed.p99Millis()).isCloseTo(2_000L, within(2_000L / 16));
+
+        OrderFlowReport.Window hour = report.windows().get(2);
+        assertThat(hour.byStatus().get(OrderStatus.PENDING).count()).isEqualTo(120);
+        assertThat(hour.byStatus().get(OrderStatus.DELIVERED).samples()).isEqualTo(15);
+        assertThat(hour.byStatus().get(OrderStatus.DELIVERED).maxMillis()).isEqualTo(30_000);
+        assertThat(hour.byStatus().get(OrderStatus.CANCELLED).count()).isZero();
+    }
+}
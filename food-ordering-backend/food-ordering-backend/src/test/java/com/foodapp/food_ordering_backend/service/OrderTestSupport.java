@@ -0,0 +1,60 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.OrderRequest;
+import com.foodapp.food_ordering_backend.model.Food;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checkout requests and a start-together thread runner for the concurrency tests.
+ */
+final class OrderTestSupport {
+
+    private OrderTestSupport() {
+    }
+
+    interface Task {
+        void run() throws Exception;
+    }
+
+    static OrderRequest.OrderItemRequest line(Food food, int quantity) {
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setFoodId(food.getId());
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    static OrderRequest request(String customerName, OrderRequest.OrderItemRequest... items) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName(customerName);
+        request.setItems(List.of(items));
+        return request;
+    }
+
+    // Run the task on that many threads released at the same moment; rethrows the first failure
+    static void runOnAllThreads(int threads, Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.OrderRequest;
+import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.exception.OrderTransitionException;
+import com.foodapp.food_ordering_backend.model.Order;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderTransitionConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Test
+    void onlyOneOfManyRacingTransitionsWins() throws Exception {
+        OrderResponse order = newOrder();
+        AtomicInteger stale = new AtomicInteger();
+
+        List<Boolean> results = race(() -> {
+            try {
+                orderService.transitionOrder(order.getOrderId(), OrderStatus.PENDING, OrderStatus.CONFIRMED, order.getVersion());
+                return true;
+            } catch (OrderTransitionException e) {
+                assertThat(e.getReason()).isEqualTo(OrderTransitionException.Reason.STALE);
+                assertThat(e.getCurrentStatus()).isEqualTo(OrderStatus.CONFIRMED);
+                stale.incrementAndGet();
+                return false;
+            }
+        });
+
+        assertThat(results).filteredOn(won -> won).hasSize(1);
+        assertThat(stale.get()).isEqualTo(THREADS - 1);
+        Order reloaded = orderRepository.findById(order.getOrderId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(reloaded.getVersion()).isEqualTo(order.getVersion() + 1);
+    }
+
+    @Test
+    void hammeringOneOrderWalksTheLifecycleExactlyOnce() throws Exception {
+        OrderResponse order = newOrder();
+        AtomicInteger applied = new AtomicInteger();
+
+        race(() -> {
+            while (true) {
+                OrderRepository.OrderSummaryRow current = orderRepository.findSummaryById(order.getOrderId()).orElseThrow();
+                OrderStatus next = switch (current.getStatus()) {
+                    case PENDING -> OrderStatus.CONFIRMED;
+                    case CONFIRMED -> OrderStatus.PREPARING;
+                    case PREPARING -> OrderStatus.DELIVERED;
+                    default -> null;
+                };
+                if (next == null) {
+                    return true;
+                }
+                try {
+                    orderService.transitionOrder(order.getOrderId(), current.getStatus(), next, current.getVersion());
+                    applied.incrementAndGet();
+                } catch (OrderTransitionException e) {
+                    assertThat(e.getReason()).isEqualTo(OrderTransitionException.Reason.STALE);
+                }
+            }
+        });
+
+        Order reloaded = orderRepository.findById(order.getOrderId()).orElseThrow();
+        assertThat(applied.get()).isEqualTo(3);
+        assertThat(reloaded.getStatus()).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(reloaded.getVersion()).isEqualTo(order.getVersion() + 3);
+    }
+
+    @Test
+    void concurrentPutsChangeTheOrderOnlyOnce() throws Exception {
+        OrderResponse order = newOrder();
+        Order update = new Order();
+        update.setStatus(OrderStatus.CANCELLED);
+
+        race(() -> {
+            try {
+                orderService.updateOrder(order.getOrderId(), update);
+            } catch (OptimisticLockingFailureException e) {
+                // Lost the race at commit - the other writer's change stands
+            }
+            return true;
+        });
+
+        Order reloaded = orderRepository.findById(order.getOrderId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(reloaded.getVersion()).isEqualTo(order.getVersion() + 1);
+    }
+
+    @Test
+    void movesOutsideTheTransitionTableAreRejected() {
+        OrderResponse order = newOrder();
+
+        assertThatThrownBy(() -> orderService.transitionOrder(order.getOrderId(), OrderStatus.PENDING, OrderStatus.DELIVERED, order.getVersion()))
+                .isInstanceOfSatisfying(OrderTransitionException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(OrderTransitionException.Reason.INVALID));
+
+        Order backwards = new Order();
+        backwards.setStatus(OrderStatus.PENDING);
+        orderService.transitionOrder(order.getOrderId(), OrderStatus.PENDING, OrderStatus.CANCELLED, order.getVersion());
+        assertThatThrownBy(() -> orderService.updateOrder(order.getOrderId(), backwards))
+                .isInstanceOfSatisfying(OrderTransitionException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(OrderTransitionException.Reason.INVALID));
+
+        assertThatThrownBy(() -> orderService.transitionOrder(-1L, OrderStatus.PENDING, OrderStatus.CONFIRMED, 0))
+                .isInstanceOfSatisfying(OrderTransitionException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(OrderTransitionException.Reason.NOT_FOUND));
+    }
+
+    private OrderResponse newOrder() {
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setFoodId(foodRepository.findAll().get(0).getId());
+        item.setQuantity(1);
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("race-test");
+        request.setItems(List.of(item));
+        return orderService.checkoutOrder("race-test", request);
+    }
+
+    // Run the task on THREADS threads released at the same moment; rethrows the first failure
+    private static <T> List<T> race(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
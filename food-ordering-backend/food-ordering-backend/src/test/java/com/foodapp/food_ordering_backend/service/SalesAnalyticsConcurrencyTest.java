@@ -0,0 +1,179 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.dto.OrderRequest;
+import com.foodapp.food_ordering_backend.dto.OrderResponse;
+import com.foodapp.food_ordering_backend.dto.OrderTransitionResult;
+import com.foodapp.food_ordering_backend.dto.SalesStats;
+import com.foodapp.food_ordering_backend.exception.OrderTransitionException;
+import com.foodapp.food_ordering_backend.model.Food;
+import com.foodapp.food_ordering_backend.model.OrderStatus;
+import com.foodapp.food_ordering_backend.repository.FoodRepository;
+import com.foodapp.food_ordering_backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.foodapp.food_ordering_backend.service.OrderTestSupport.line;
+import static com.foodapp.food_ordering_backend.service.OrderTestSupport.request;
+import static com.foodapp.food_ordering_backend.service.OrderTestSupport.runOnAllThreads;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SalesAnalyticsConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ORDERS_PER_THREAD = 10;
+
+    @Autowired
+    private SalesAnalytics salesAnalytics;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Test
+    void readsAddUpWhileWritersRunAndMatchTheDatabaseAfterwards() throws Exception {
+        Food curry = foodRepository.save(new Food("Stats curry", 24000, "Counted by the sales test", "test"));
+        Food lassi = foodRepository.save(new Food("Stats lassi", 9000, "Counted by the sales test", "test-drinks"));
+        SalesStats baseline = salesAnalytics.reconcile();
+        long unitOffset = statusUnits(baseline) - foodUnits(baseline);
+        long paiseOffset = statusPaise(baseline) - foodPaise(baseline);
+
+        // A reader keeps checking that every response adds up: status totals against food totals
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger reads = new AtomicInteger();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Future<?> readerResult = reader.submit(() -> {
+            while (writing.get()) {
+                SalesStats stats = salesAnalytics.stats();
+                assertThat(statusUnits(stats) - foodUnits(stats)).isEqualTo(unitOffset);
+                assertThat(statusPaise(stats) - foodPaise(stats)).isEqualTo(paiseOffset);
+                reads.incrementAndGet();
+            }
+            return null;
+        });
+
+        try {
+            List<Long> orderIds = Collections.synchronizedList(new ArrayList<>());
+            runOnAllThreads(THREADS, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    OrderResponse order = orderService.checkoutOrder("stats-test", request("stats-test",
+                            line(curry, 1 + random.nextInt(3)), line(lassi, 1 + random.nextInt(4))));
+                    orderIds.add(order.getOrderId());
+                }
+            });
+            // Walk orders forward at random, cancelling some on the way
+            runOnAllThreads(THREADS, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (Long orderId : List.copyOf(orderIds)) {
+                    OrderRepository.OrderSummaryRow current = orderRepository.findSummaryById(orderId).orElseThrow();
+                    List<OrderStatus> next = new ArrayList<>(current.getStatus().nextStatuses());
+                    if (next.isEmpty() || random.nextInt(3) == 0) {
+                        continue;
+                    }
+                    try {
+                        orderService.transitionOrder(orderId, current.getStatus(),
+                                next.get(random.nextInt(next.size())), current.getVersion());
+                    } catch (OrderTransitionException e) {
+                        assertThat(e.getReason()).isEqualTo(OrderTransitionException.Reason.STALE);
+                    }
+                }
+            });
+        } finally {
+            writing.set(false);
+            readerResult.get();
+            reader.shutdownNow();
+        }
+        assertThat(reads.get()).isPositive();
+
+        SalesStats live = salesAnalytics.stats();
+        SalesStats reloaded = salesAnalytics.reconcile();
+        assertThat(live.byStatus()).isEqualTo(reloaded.byStatus());
+        assertThat(live.byFood()).isEqualTo(reloaded.byFood());
+        assertThat(live.byCategory()).isEqualTo(reloaded.byCategory());
+        assertThat(live.byFood()).anySatisfy(food -> {
+            assertThat(food.foodId()).isEqualTo(curry.getId());
+            assertThat(food.units() + food.cancelledUnits()).isPositive();
+        });
+    }
+
+    @Test
+    void reloadingWhileOrdersChangeNeitherLosesNorDoubleCountsThem() throws Exception {
+        Food thali = foodRepository.save(new Food("Reload thali", 18000, "Counted by the reload test", "test"));
+        salesAnalytics.reconcile();
+
+        // One thread keeps reloading while the others check out, move and delete orders
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger reloads = new AtomicInteger();
+        ExecutorService reloader = Executors.newSingleThreadExecutor();
+        Future<?> reloaderResult = reloader.submit(() -> {
+            while (writing.get()) {
+                salesAnalytics.reconcile();
+                reloads.incrementAndGet();
+            }
+            return null;
+        });
+        try {
+            runOnAllThreads(THREADS, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    Long orderId = orderService.checkoutOrder("stats-test", request("stats-test", line(thali, 1 + random.nextInt(3))))
+                            .getOrderId();
+                    OrderTransitionResult order = new OrderTransitionResult(orderId, OrderStatus.PENDING, 0);
+                    while (!order.status().nextStatuses().isEmpty() && random.nextInt(4) != 0) {
+                        List<OrderStatus> next = new ArrayList<>(order.status().nextStatuses());
+                        order = orderService.transitionOrder(orderId, order.status(),
+                                next.get(random.nextInt(next.size())), order.version());
+                    }
+                    if (random.nextInt(4) == 0) {
+                        orderService.deleteOrder(orderId);
+                    }
+                }
+            });
+        } finally {
+            writing.set(false);
+            reloaderResult.get();
+            reloader.shutdownNow();
+        }
+        assertThat(reloads.get()).isPositive();
+
+        SalesStats live = salesAnalytics.stats();
+        SalesStats reloaded = salesAnalytics.reconcile();
+        assertThat(live.byStatus()).isEqualTo(reloaded.byStatus());
+        assertThat(live.byFood()).isEqualTo(reloaded.byFood());
+    }
+
+    private static long statusUnits(SalesStats stats) {
+        return stats.byStatus().values().stream().mapToLong(SalesStats.StatusSales::units).sum();
+    }
+
+    private static long statusPaise(SalesStats stats) {
+        return stats.byStatus().values().stream().mapToLong(SalesStats.StatusSales::totalPaise).sum();
+    }
+
+    private static long foodUnits(SalesStats stats) {
+        return stats.byFood().stream().mapToLong(food -> food.units() + food.cancelledUnits()).sum();
+    }
+
+    private static long foodPaise(SalesStats stats) {
+        return stats.byFood().stream().mapToLong(food -> food.revenuePaise() + food.cancelledPaise()).sum();
+    }
+}
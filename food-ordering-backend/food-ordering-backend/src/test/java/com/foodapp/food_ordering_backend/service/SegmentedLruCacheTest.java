@@ -0,0 +1,64 @@
+package com.foodapp.food_ordering_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedLruCacheTest {
+
+    @Test
+    void fullCacheDropsTheLeastRecentlyUsedEntry() {
+        // Under 64 entries the cache is a single segment, so the eviction order is exact
+        SegmentedLruCache<String, Integer> cache = new SegmentedLruCache<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        cache.get("a");
+        cache.put("d", 4);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.get("d")).isEqualTo(4);
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    void entriesThatMustStayAreSteppedOverUntilTheyMayGo() {
+        Set<String> inFlight = new HashSet<>(Set.of("a", "b"));
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(2, value -> !inFlight.contains(value));
+        cache.put("a", "a");
+        cache.put("b", "b");
+        cache.put("c", "c");
+
+        // Nothing finished is older than c, so the cache goes over capacity rather than drop a or b
+        assertThat(cache.size()).isEqualTo(3);
+
+        inFlight.remove("b");
+        cache.put("d", "d");
+        // The oldest finished entries go, until it is back within capacity
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNull();
+        assertThat(cache.get("a")).isEqualTo("a");
+        assertThat(cache.get("d")).isEqualTo("d");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void segmentsAddUpToTheCapacity() {
+        SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(1000);
+        for (int i = 0; i < 50_000; i++) {
+            cache.put(i, i);
+        }
+        // 15 segments of 66 or 67: every one fills, none goes over
+        assertThat(cache.size()).isEqualTo(1000);
+
+        cache.compute(49_999, (key, value) -> null);
+        assertThat(cache.get(49_999)).isNull();
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,88 @@
+package com.foodapp.food_ordering_backend.service;
+
+import com.foodapp.food_ordering_backend.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPrincipalCacheTest {
+
+    private static final long TTL = 1000;
+
+    private final AtomicReference<String> role = new AtomicReference<>("CUSTOMER");
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, Optional<User>> loader = username -> {
+        loads.incrementAndGet();
+        return Optional.of(new User(1L, username, username + "@example.com", "hash", role.get()));
+    };
+
+    @Test
+    void entriesAreReloadedOnceTheirTimeIsUp() {
+        UserPrincipalCache cache = new UserPrincipalCache(10, TTL);
+
+        assertThat(cache.get("alice", loader, 0)).map(UserPrincipalCache.CachedUser::role).hasValue("CUSTOMER");
+        role.set("ADMIN");
+        assertThat(cache.get("alice", loader, TTL - 1)).map(UserPrincipalCache.CachedUser::role).hasValue("CUSTOMER");
+        assertThat(loads.get()).isEqualTo(1);
+
+        assertThat(cache.get("alice", loader, TTL)).map(UserPrincipalCache.CachedUser::role).hasValue("ADMIN");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void evictedUsersAreLoadedAgain() {
+        UserPrincipalCache cache = new UserPrincipalCache(10, TTL);
+        cache.get("alice", loader, 0);
+        cache.get("bob", loader, 0);
+
+        role.set("ADMIN");
+        cache.evict("alice");
+        assertThat(cache.get("alice", loader, 1)).map(UserPrincipalCache.CachedUser::role).hasValue("ADMIN");
+        assertThat(cache.get("bob", loader, 1)).map(UserPrincipalCache.CachedUser::role).hasValue("CUSTOMER");
+        assertThat(loads.get()).isEqualTo(3);
+
+        cache.evictAll();
+        assertThat(cache.get("bob", loader, 2)).map(UserPrincipalCache.CachedUser::role).hasValue("ADMIN");
+        assertThat(loads.get()).isEqualTo(4);
+
+        // Unknown users are not cached
+        assertThat(cache.get("nobody", username -> Optional.empty(), 3)).isEmpty();
+    }
+
+    @Test
+    void loadThatOverlapsAnEvictionIsNotCached() throws Exception {
+        UserPrincipalCache cache = new UserPrincipalCache(10, TTL);
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, Optional<User>> slowLoader = username -> {
+            Optional<User> user = loader.apply(username);
+            loaded.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return user;
+        };
+
+        // The login has read the old role and is about to cache it when the role change commits and evicts
+        CompletableFuture<Optional<UserPrincipalCache.CachedUser>> login =
+                CompletableFuture.supplyAsync(() -> cache.get("alice", slowLoader, 0));
+        assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+        role.set("ADMIN");
+        cache.evict("alice");
+        release.countDown();
+
+        assertThat(login.get(10, TimeUnit.SECONDS)).map(UserPrincipalCache.CachedUser::role).hasValue("CUSTOMER");
+        assertThat(cache.get("alice", loader, 1)).map(UserPrincipalCache.CachedUser::role).hasValue("ADMIN");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+}